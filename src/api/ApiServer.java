@@ -0,0 +1,627 @@
+package api;
+
+import carDealership.DataExporter;
+import carDealership.Dealership;
+import carDealership.DealershipStats;
+import carDealership.Money;
+import carDealership.Sale;
+import carDealership.Vehicle;
+import carDealership.VehicleFeedImporter;
+import carDealership.VehicleType;
+import carDealership.VehicleTypeRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import persistance.DBManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server exposing the dealership operations as JSON endpoints
+ * Used by the headless launch mode so websites and kiosks can query inventory
+ * without a desktop session
+ *
+ * <pre>
+ * GET  /api/info                  dealership summary
+ * GET  /api/vehicles              inventory, optional make, model, minYear, minPrice, maxPrice filters,
+ *                                 or q for a ranked, typo-tolerant text search
+ * GET  /api/vehicles/{id}         a single vehicle
+ * POST /api/vehicles              add a vehicle
+ * GET  /api/sales                 sales history
+ * POST /api/sales                 sell a vehicle, optionally credited to a salespersonId
+ * GET  /api/reports/salespeople   salesperson performance report
+ * GET  /api/reports/models        model sales report
+ * GET  /api/metrics               live inventory and sales counters
+ * GET  /api/export/inventory      inventory as CSV, or columnar binary with format=dcol
+ * GET  /api/export/sales          sales history as CSV, or columnar binary with format=dcol
+ * </pre>
+ *
+ * The headless launcher binds it to the loopback interface unless started with "--bind ADDRESS".
+ * Every request that changes the dealership or returns buyer, staff or bulk data, that is the
+ * POSTs, /api/sales, /api/reports and /api/export, must carry "Authorization: Bearer TOKEN". The
+ * token is read from -Ddealership.api.token or the DEALERSHIP_API_TOKEN environment variable; when
+ * neither is set a random one is generated and printed at startup
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class ApiServer {
+	public static final int DEFAULT_PORT = 8080;
+
+	// Set by start(); handlers only run after that
+	private Dealership dealership;
+	private final HttpServer server;
+	private final ExecutorService workers;
+	private final byte[] token;
+	private final boolean tokenGenerated;
+
+	/**
+	 * Constructor for the ApiServer class
+	 * Binds the listening socket, which needs no dealership, so it can happen while one is being
+	 * loaded; call {@link #start(Dealership)} to begin serving requests
+	 *
+	 * @param address - the interface to listen on
+	 * @param port - the TCP port to listen on
+	 * @throws IOException if the port cannot be bound
+	 */
+	public ApiServer(InetAddress address, int port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(address, port), 0);
+
+		String configured = System.getProperty("dealership.api.token", System.getenv("DEALERSHIP_API_TOKEN"));
+		this.tokenGenerated = configured == null || configured.isBlank();
+		if (tokenGenerated) {
+			byte[] random = new byte[24];
+			new SecureRandom().nextBytes(random);
+			configured = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+		}
+		this.token = configured.trim().getBytes(StandardCharsets.UTF_8);
+
+		// Requests mostly wait on SQLite, so size the pool well above the core count
+		int threads = Integer.getInteger("dealership.api.threads",
+				Runtime.getRuntime().availableProcessors() * 4);
+		AtomicInteger counter = new AtomicInteger();
+		ThreadFactory factory = r -> new Thread(r, "api-worker-" + counter.incrementAndGet());
+		this.workers = Executors.newFixedThreadPool(threads, factory);
+		server.setExecutor(workers);
+
+		server.createContext("/api/info", guarded(this::handleInfo));
+		server.createContext("/api/vehicles", guarded(this::handleVehicles));
+		server.createContext("/api/sales", guarded(this::handleSales));
+		server.createContext("/api/reports", guarded(this::handleReports));
+		server.createContext("/api/metrics", guarded(this::handleMetrics));
+		server.createContext("/api/export", guarded(this::handleExport));
+	}
+
+	/**
+	 * Start serving requests
+	 *
+	 * @param dealership - the dealership to expose
+	 */
+	public void start(Dealership dealership) {
+		this.dealership = dealership;
+		server.start();
+		System.out.println("API server listening on " + server.getAddress().getAddress().getHostAddress()
+				+ ":" + server.getAddress().getPort());
+		if (tokenGenerated) {
+			System.out.println("API token (send as \"Authorization: Bearer <token>\"): "
+					+ new String(token, StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Stop serving requests and release the worker threads
+	 *
+	 * @param delaySeconds - the maximum time to wait for in-flight exchanges to finish
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		workers.shutdown();
+		try {
+			workers.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Getter method for the bound port
+	 *
+	 * @return the TCP port the server is listening on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	// ------------------------------------------------------------------
+	// Handlers
+	// ------------------------------------------------------------------
+
+	private void handleInfo(HttpExchange exchange) throws Exception {
+		requireMethod(exchange, "GET");
+		// The counters are read from one snapshot, so the dealership lock is not needed
+		int capacity = dealership.getCapacity();
+		DealershipStats.Snapshot stats = dealership.getStats().snapshot();
+		try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+			response.json.beginObject()
+				.name("name").value(dealership.getName())
+				.name("location").value(dealership.getLocation())
+				.name("capacity").value(capacity)
+				.name("available").value(capacity - stats.getInventoryCount())
+				.name("totalCars").value(stats.getVehicleCount(VehicleTypeRegistry.CAR.getLabel()))
+				.name("totalMotorcycles").value(stats.getVehicleCount(VehicleTypeRegistry.MOTORCYCLE.getLabel()))
+				.endObject();
+		}
+	}
+
+	private void handleMetrics(HttpExchange exchange) throws Exception {
+		requireMethod(exchange, "GET");
+		DealershipStats.Snapshot stats = dealership.getStats().snapshot();
+		try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+			JsonWriter json = response.json;
+			json.beginObject()
+				.name("inventoryCount").value(stats.getInventoryCount())
+				.name("inventoryValue").value(Money.toDouble(stats.getInventoryValueCents()))
+				.name("vehiclesByType").beginObject();
+			for (Map.Entry<String, Integer> entry : stats.getVehiclesByType().entrySet()) {
+				json.name(entry.getKey()).value(entry.getValue());
+			}
+			json.endObject()
+				.name("salesCount").value(stats.getSalesCount())
+				.name("revenue").value(Money.toDouble(stats.getRevenueCents()))
+				.endObject();
+		}
+	}
+
+	private void handleVehicles(HttpExchange exchange) throws Exception {
+		String id = subPath(exchange, "/api/vehicles");
+		String method = exchange.getRequestMethod();
+		if (id == null && "GET".equals(method)) {
+			listVehicles(exchange);
+		} else if (id == null && "POST".equals(method)) {
+			requireToken(exchange);
+			addVehicle(exchange);
+		} else if (id != null && "GET".equals(method)) {
+			Vehicle vehicle = dealership.getVehicleFromId(parseInt(id, "id"));
+			if (vehicle == null) {
+				sendError(exchange, 404, "Vehicle not found");
+				return;
+			}
+			try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+				writeVehicle(response.json, vehicle);
+			}
+		} else {
+			sendError(exchange, 405, "Method not allowed");
+		}
+	}
+
+	private void listVehicles(HttpExchange exchange) throws Exception {
+		Map<String, String> query = queryParams(exchange);
+		String make = query.get("make");
+		String model = query.get("model");
+		Integer minYear = query.containsKey("minYear") ? parseInt(query.get("minYear"), "minYear") : null;
+		Double minPrice = query.containsKey("minPrice") ? parseDouble(query.get("minPrice"), "minPrice") : null;
+		Double maxPrice = query.containsKey("maxPrice") ? parseDouble(query.get("maxPrice"), "maxPrice") : null;
+
+		// Searches read the dealership's published snapshot, so concurrent requests never queue on a lock
+		try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+			JsonWriter json = response.json;
+			json.beginArray();
+			try {
+				if (query.containsKey("q")) {
+					// Ranking needs every match, so only the fuzzy search collects its results first
+					for (Vehicle vehicle : dealership.fuzzySearch(query.get("q"))) {
+						if (minYear != null && vehicle.getYear() < minYear) continue;
+						if (minPrice != null && vehicle.getPrice() < minPrice) continue;
+						if (maxPrice != null && vehicle.getPrice() > maxPrice) continue;
+						writeVehicle(json, vehicle);
+					}
+				} else {
+					// Each match is written as the snapshot produces it
+					dealership.forEachVehicle(make, model, minYear, minPrice, maxPrice, vehicle -> {
+						try {
+							writeVehicle(json, vehicle);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			json.endArray();
+		}
+	}
+
+	private void addVehicle(HttpExchange exchange) throws Exception {
+		Map<String, Object> body = readBody(exchange);
+		String kind = requireString(body, "kind");
+		String make = requireString(body, "make");
+		String model = requireString(body, "model");
+		String color = requireString(body, "color");
+		int year = requireInt(body, "year");
+		double price = requireNumber(body, "price");
+		// The same rules as the feed importer, so a value the importer rejects cannot come in here
+		VehicleFeedImporter.checkYear(year);
+		VehicleFeedImporter.checkPrice(price);
+
+		VehicleType<?> type = VehicleTypeRegistry.byName(kind);
+		if (type == null) {
+			StringBuilder kinds = new StringBuilder();
+			for (VehicleType<?> known : VehicleTypeRegistry.types()) {
+				kinds.append(kinds.length() == 0 ? "'" : ", '").append(known.getName()).append("'");
+			}
+			throw new IllegalArgumentException("kind must be one of " + kinds);
+		}
+		Vehicle vehicle = type.create(make, model, color, year, price, requireString(body, type.getAttributeName()));
+
+		// Dealership reserves the slot and locks its own state, so the insert runs alongside other requests
+		if (!dealership.addVehicle(vehicle)) {
+			sendError(exchange, 409, "Inventory is full");
+			return;
+		}
+		try (JsonResponse response = JsonResponse.open(exchange, 201)) {
+			writeVehicle(response.json, vehicle);
+		}
+	}
+
+	private void handleSales(HttpExchange exchange) throws Exception {
+		// The history holds buyer contact details, so reading it needs the token as well
+		requireToken(exchange);
+		if (subPath(exchange, "/api/sales") != null) {
+			sendError(exchange, 404, "Not found");
+			return;
+		}
+		String method = exchange.getRequestMethod();
+		if ("GET".equals(method)) {
+			try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+				JsonWriter json = response.json;
+				json.beginArray();
+				try {
+					dealership.forEachSale(sale -> {
+						try {
+							writeSale(json, sale);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+				} catch (UncheckedIOException e) {
+					throw e.getCause();
+				}
+				json.endArray();
+			}
+		} else if ("POST".equals(method)) {
+			Map<String, Object> body = readBody(exchange);
+			int vehicleId = requireInt(body, "vehicleId");
+			String buyerName = requireString(body, "buyerName");
+			String buyerContact = requireString(body, "buyerContact");
+			int salespersonId = body.get("salespersonId") == null
+					? Dealership.DEFAULT_SALESPERSON_ID : requireInt(body, "salespersonId");
+
+			// sellVehicle holds the vehicle's own lock, so sales of different vehicles do not wait on each other
+			Vehicle vehicle = dealership.getVehicleFromId(vehicleId);
+			if (vehicle == null || !dealership.sellVehicle(vehicle, buyerName, buyerContact, salespersonId)) {
+				sendError(exchange, 409, "Vehicle " + vehicleId + " is not in inventory");
+				return;
+			}
+			try (JsonResponse response = JsonResponse.open(exchange, 201)) {
+				response.json.beginObject()
+					.name("vehicle");
+				writeVehicle(response.json, vehicle);
+				response.json
+					.name("buyerName").value(buyerName)
+					.name("buyerContact").value(buyerContact)
+					.name("salespersonId").value(salespersonId)
+					.endObject();
+			}
+		} else {
+			sendError(exchange, 405, "Method not allowed");
+		}
+	}
+
+	private void handleReports(HttpExchange exchange) throws Exception {
+		requireToken(exchange);
+		requireMethod(exchange, "GET");
+		String report = subPath(exchange, "/api/reports");
+		String sql;
+		if ("salespeople".equals(report)) {
+			sql = DBManager.DEALERSHIP_SALESPERSON_PERFORMANCE_SQL;
+		} else if ("models".equals(report)) {
+			sql = DBManager.DEALERSHIP_MODEL_SALES_SQL;
+		} else {
+			sendError(exchange, 404, "Unknown report");
+			return;
+		}
+		// Only this dealership's sales are reported, even when the database holds several
+		ResultSet rs = DBManager.getInstance().runQuery(sql, dealership.getDealershipId());
+		try (JsonResponse response = JsonResponse.open(exchange, 200)) {
+			writeRows(response.json, rs);
+		} finally {
+			rs.close();
+		}
+	}
+
+	private void handleExport(HttpExchange exchange) throws Exception {
+		requireToken(exchange);
+		requireMethod(exchange, "GET");
+		String dataset = subPath(exchange, "/api/export");
+		if (!"inventory".equals(dataset) && !"sales".equals(dataset)) {
+			sendError(exchange, 404, "Unknown export");
+			return;
+		}
+		DataExporter.Format format = DataExporter.Format.COLUMNAR.getExtension()
+				.equals(queryParams(exchange).get("format")) ? DataExporter.Format.COLUMNAR : DataExporter.Format.CSV;
+		exchange.getResponseHeaders().set("Content-Type",
+				format == DataExporter.Format.CSV ? "text/csv; charset=utf-8" : "application/octet-stream");
+		exchange.getResponseHeaders().set("Content-Disposition",
+				"attachment; filename=\"" + dataset + "." + format.getExtension() + "\"");
+		exchange.sendResponseHeaders(200, 0);
+		DataExporter exporter = new DataExporter(dealership.getDealershipId());
+		try (WritableByteChannel body = Channels.newChannel(exchange.getResponseBody())) {
+			if ("inventory".equals(dataset)) {
+				exporter.exportInventory(body, format, null);
+			} else {
+				exporter.exportSales(body, format, null);
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------
+	// JSON mapping
+	// ------------------------------------------------------------------
+
+	private static void writeVehicle(JsonWriter json, Vehicle vehicle) throws IOException {
+		json.beginObject()
+			.name("id").value(vehicle.getId())
+			.name("make").value(vehicle.getMake())
+			.name("model").value(vehicle.getModel())
+			.name("color").value(vehicle.getColor())
+			.name("year").value(vehicle.getYear())
+			.name("price").value(vehicle.getPrice());
+		VehicleType<?> type = VehicleTypeRegistry.of(vehicle);
+		if (type != null) {
+			json.name("kind").value(type.getName()).name(type.getAttributeName()).value(type.getAttribute(vehicle));
+		}
+		json.endObject();
+	}
+
+	private static void writeSale(JsonWriter json, Sale sale) throws IOException {
+		json.beginObject().name("vehicle");
+		writeVehicle(json, sale.getVehicle());
+		json.name("buyerName").value(sale.getBuyerName())
+			.name("buyerContact").value(sale.getBuyerContact())
+			.name("saleDate").value(sale.getSaleDate() == null ? null : sale.getSaleDate().toString())
+			.name("salePrice").value(Money.toDouble(sale.getPriceCents()))
+			.name("salespersonId").value(sale.getSalespersonId())
+			.name("soldAt").value(sale.getSoldAtMillis())
+			.endObject();
+	}
+
+	/**
+	 * Write every row of a result set as an array of objects keyed by column label
+	 */
+	private static void writeRows(JsonWriter json, ResultSet rs) throws IOException, SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		int columns = meta.getColumnCount();
+		json.beginArray();
+		while (rs.next()) {
+			json.beginObject();
+			for (int c = 1; c <= columns; c++) {
+				json.name(meta.getColumnLabel(c));
+				Object value = rs.getObject(c);
+				if (value == null) {
+					json.value((String) null);
+				} else if (value instanceof Number) {
+					int type = meta.getColumnType(c);
+					if (type == Types.INTEGER || type == Types.BIGINT) {
+						json.value(((Number) value).longValue());
+					} else {
+						json.value(((Number) value).doubleValue());
+					}
+				} else {
+					json.value(value.toString());
+				}
+			}
+			json.endObject();
+		}
+		json.endArray();
+	}
+
+	// ------------------------------------------------------------------
+	// Request helpers
+	// ------------------------------------------------------------------
+
+	private interface ExchangeHandler {
+		void handle(HttpExchange exchange) throws Exception;
+	}
+
+	/**
+	 * Wrap a handler so input errors become 400 responses and everything else a 500
+	 */
+	private static HttpHandler guarded(ExchangeHandler handler) {
+		return exchange -> {
+			try {
+				handler.handle(exchange);
+			} catch (IllegalArgumentException e) {
+				sendError(exchange, 400, e.getMessage());
+			} catch (MethodNotAllowedException e) {
+				sendError(exchange, 405, "Method not allowed");
+			} catch (UnauthorizedException e) {
+				exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer realm=\"dealership\"");
+				sendError(exchange, 401, "Missing or invalid API token");
+			} catch (Exception e) {
+				System.err.println("API error on " + exchange.getRequestURI() + ": " + e.getMessage());
+				sendError(exchange, 500, "Internal error");
+			} finally {
+				exchange.close();
+			}
+		};
+	}
+
+	private static class MethodNotAllowedException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static void requireMethod(HttpExchange exchange, String method) throws MethodNotAllowedException {
+		if (!method.equals(exchange.getRequestMethod())) {
+			throw new MethodNotAllowedException();
+		}
+	}
+
+	private static class UnauthorizedException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Reject the request unless it carries the API token as a bearer credential
+	 * The comparison takes the same time wherever the first difference is
+	 */
+	private void requireToken(HttpExchange exchange) throws UnauthorizedException {
+		String header = exchange.getRequestHeaders().getFirst("Authorization");
+		if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)
+				|| !MessageDigest.isEqual(token, header.substring(7).trim().getBytes(StandardCharsets.UTF_8))) {
+			throw new UnauthorizedException();
+		}
+	}
+
+	/**
+	 * Return the path segment after the context root, or null when the root itself was requested
+	 */
+	private static String subPath(HttpExchange exchange, String root) {
+		String path = exchange.getRequestURI().getPath();
+		String rest = path.length() > root.length() ? path.substring(root.length()) : "";
+		while (rest.startsWith("/")) {
+			rest = rest.substring(1);
+		}
+		return rest.isEmpty() ? null : rest;
+	}
+
+	private static Map<String, String> queryParams(HttpExchange exchange) {
+		Map<String, String> params = new HashMap<>();
+		String raw = exchange.getRequestURI().getRawQuery();
+		if (raw == null || raw.isEmpty()) {
+			return params;
+		}
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+			String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+			if (!value.isEmpty()) {
+				params.put(key, value);
+			}
+		}
+		return params;
+	}
+
+	private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			return JsonParser.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	private static String requireString(Map<String, Object> body, String key) {
+		Object value = body.get(key);
+		if (!(value instanceof String)) {
+			throw new IllegalArgumentException("Missing string field '" + key + "'");
+		}
+		return (String) value;
+	}
+
+	private static double requireNumber(Map<String, Object> body, String key) {
+		Object value = body.get(key);
+		if (!(value instanceof Double)) {
+			throw new IllegalArgumentException("Missing numeric field '" + key + "'");
+		}
+		return (Double) value;
+	}
+
+	/**
+	 * Read a numeric field that must hold a whole number within int range, rather than truncating it
+	 */
+	private static int requireInt(Map<String, Object> body, String key) {
+		double value = requireNumber(body, key);
+		if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Field '" + key + "' must be an integer");
+		}
+		return (int) value;
+	}
+
+	private static int parseInt(String value, String name) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(name + " must be an integer");
+		}
+	}
+
+	private static double parseDouble(String value, String name) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(name + " must be a number");
+		}
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) {
+		try (JsonResponse response = JsonResponse.open(exchange, status)) {
+			response.json.beginObject().name("error").value(message).endObject();
+		} catch (IOException | IllegalStateException e) {
+			// Headers were already sent for a streamed response; nothing more can be reported
+		}
+	}
+
+	/**
+	 * A chunked JSON response body
+	 * Headers are sent with length 0 so the body streams as it is written
+	 */
+	private static final class JsonResponse implements AutoCloseable {
+		final JsonWriter json;
+		private final Writer writer;
+
+		private JsonResponse(Writer writer) {
+			this.writer = writer;
+			this.json = new JsonWriter(writer);
+		}
+
+		static JsonResponse open(HttpExchange exchange, int status) throws IOException {
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(status, 0);
+			return new JsonResponse(new BufferedWriter(
+					new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024));
+		}
+
+		@Override
+		public void close() throws IOException {
+			writer.close();
+		}
+	}
+}
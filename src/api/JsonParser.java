@@ -0,0 +1,167 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser for flat request bodies
+ * Only a single object whose members are strings, numbers, booleans or null is accepted;
+ * nested objects and arrays are rejected
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class JsonParser {
+	private final String text;
+	private int pos;
+
+	private JsonParser(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parse a flat JSON object
+	 *
+	 * @param text - the JSON text
+	 * @return the members in document order; numbers are returned as Double
+	 * @throws IllegalArgumentException if the text is not a flat JSON object
+	 */
+	public static Map<String, Object> parseObject(String text) {
+		JsonParser parser = new JsonParser(text);
+		parser.skipWhitespace();
+		Map<String, Object> result = parser.readObject();
+		parser.skipWhitespace();
+		if (parser.pos != text.length()) {
+			throw parser.error("Unexpected trailing content");
+		}
+		return result;
+	}
+
+	private Map<String, Object> readObject() {
+		Map<String, Object> members = new LinkedHashMap<>();
+		expect('{');
+		skipWhitespace();
+		if (peek() == '}') {
+			pos++;
+			return members;
+		}
+		while (true) {
+			skipWhitespace();
+			String name = readString();
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			members.put(name, readValue());
+			skipWhitespace();
+			char c = next();
+			if (c == '}') {
+				return members;
+			}
+			if (c != ',') {
+				throw error("Expected ',' or '}'");
+			}
+		}
+	}
+
+	private Object readValue() {
+		char c = peek();
+		if (c == '"') {
+			return readString();
+		}
+		if (c == '-' || (c >= '0' && c <= '9')) {
+			int start = pos;
+			while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+				pos++;
+			}
+			try {
+				return Double.parseDouble(text.substring(start, pos));
+			} catch (NumberFormatException e) {
+				throw error("Invalid number");
+			}
+		}
+		if (text.startsWith("true", pos)) {
+			pos += 4;
+			return Boolean.TRUE;
+		}
+		if (text.startsWith("false", pos)) {
+			pos += 5;
+			return Boolean.FALSE;
+		}
+		if (text.startsWith("null", pos)) {
+			pos += 4;
+			return null;
+		}
+		throw error("Unsupported value");
+	}
+
+	private String readString() {
+		expect('"');
+		StringBuilder sb = new StringBuilder();
+		while (true) {
+			char c = next();
+			if (c == '"') {
+				return sb.toString();
+			}
+			if (c != '\\') {
+				sb.append(c);
+				continue;
+			}
+			char e = next();
+			switch (e) {
+			case '"': case '\\': case '/': sb.append(e); break;
+			case 'b': sb.append('\b'); break;
+			case 'f': sb.append('\f'); break;
+			case 'n': sb.append('\n'); break;
+			case 'r': sb.append('\r'); break;
+			case 't': sb.append('\t'); break;
+			case 'u':
+				if (pos + 4 > text.length()) {
+					throw error("Truncated unicode escape");
+				}
+				try {
+					sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+				} catch (NumberFormatException ex) {
+					throw error("Invalid unicode escape");
+				}
+				pos += 4;
+				break;
+			default:
+				throw error("Invalid escape");
+			}
+		}
+	}
+
+	private void skipWhitespace() {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private char peek() {
+		if (pos >= text.length()) {
+			throw error("Unexpected end of input");
+		}
+		return text.charAt(pos);
+	}
+
+	private char next() {
+		char c = peek();
+		pos++;
+		return c;
+	}
+
+	private void expect(char c) {
+		if (next() != c) {
+			throw error("Expected '" + c + "'");
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + pos);
+	}
+}
@@ -0,0 +1,223 @@
+package api;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming JSON writer
+ * Values are written straight to the underlying writer so arbitrarily large
+ * arrays can be produced without building them in memory first
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class JsonWriter {
+	private final Writer out;
+
+	/**
+	 * One flag per open array/object: true until the first element has been written
+	 */
+	private boolean[] first = new boolean[16];
+	private int depth;
+
+	/**
+	 * Set after a member name so the following value is not preceded by a comma
+	 */
+	private boolean afterName;
+
+	/**
+	 * Constructor for the JsonWriter class
+	 *
+	 * @param out - the writer receiving the JSON text
+	 */
+	public JsonWriter(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Start a JSON object
+	 *
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter beginObject() throws IOException {
+		separate();
+		out.write('{');
+		push();
+		return this;
+	}
+
+	/**
+	 * Close the innermost JSON object
+	 *
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter endObject() throws IOException {
+		depth--;
+		out.write('}');
+		return this;
+	}
+
+	/**
+	 * Start a JSON array
+	 *
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter beginArray() throws IOException {
+		separate();
+		out.write('[');
+		push();
+		return this;
+	}
+
+	/**
+	 * Close the innermost JSON array
+	 *
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter endArray() throws IOException {
+		depth--;
+		out.write(']');
+		return this;
+	}
+
+	/**
+	 * Write an object member name; must be followed by exactly one value
+	 *
+	 * @param name - the member name
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter name(String name) throws IOException {
+		separate();
+		writeString(name);
+		out.write(':');
+		afterName = true;
+		return this;
+	}
+
+	/**
+	 * Write a string value, or null
+	 *
+	 * @param value - the value to write
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter value(String value) throws IOException {
+		separate();
+		if (value == null) {
+			out.write("null");
+		} else {
+			writeString(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Write an integral number value
+	 *
+	 * @param value - the value to write
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter value(long value) throws IOException {
+		separate();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	/**
+	 * Write a number value; NaN and infinities are written as null
+	 *
+	 * @param value - the value to write
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter value(double value) throws IOException {
+		separate();
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			out.write("null");
+		} else {
+			out.write(Double.toString(value));
+		}
+		return this;
+	}
+
+	/**
+	 * Write a boolean value
+	 *
+	 * @param value - the value to write
+	 * @return this writer
+	 * @throws IOException if the underlying writer fails
+	 */
+	public JsonWriter value(boolean value) throws IOException {
+		separate();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	/**
+	 * Flush the underlying writer
+	 *
+	 * @throws IOException if the underlying writer fails
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	private void push() {
+		if (depth == first.length) {
+			boolean[] grown = new boolean[depth * 2];
+			System.arraycopy(first, 0, grown, 0, depth);
+			first = grown;
+		}
+		first[depth++] = true;
+	}
+
+	private void separate() throws IOException {
+		if (afterName) {
+			afterName = false;
+			return;
+		}
+		if (depth > 0) {
+			if (first[depth - 1]) {
+				first[depth - 1] = false;
+			} else {
+				out.write(',');
+			}
+		}
+	}
+
+	private void writeString(String s) throws IOException {
+		out.write('"');
+		int start = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			String escape;
+			switch (c) {
+			case '"': escape = "\\\""; break;
+			case '\\': escape = "\\\\"; break;
+			case '\n': escape = "\\n"; break;
+			case '\r': escape = "\\r"; break;
+			case '\t': escape = "\\t"; break;
+			default:
+				escape = c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+			}
+			if (escape != null) {
+				out.write(s, start, i - start);
+				out.write(escape);
+				start = i + 1;
+			}
+		}
+		out.write(s, start, s.length() - start);
+		out.write('"');
+	}
+}
@@ -0,0 +1,269 @@
+package carDealership;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import persistance.DBManager;
+
+/**
+ * Login checks backed by the {@link UserDirectory}
+ * Looking up the account and checking its password never reads the database;
+ * a login performs at most one write, to record failed attempts or to clear them and
+ * upgrade a legacy or weaker password hash. Password hashing is deliberately slow, so the GUI
+ * runs it on a small bounded worker pool through {@link #authenticateAsync(String, String)}
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class AuthService {
+	/**
+	 * Number of consecutive failed logins after which a non-admin account is locked
+	 */
+	public static final int MAX_FAILED_ATTEMPTS = 3;
+
+	/**
+	 * ID of the built-in emergency administrator, which has no row in the users table
+	 */
+	private static final int EMERGENCY_ADMIN_ID = 999;
+
+	/**
+	 * Counts a failed login and locks the account once it reaches the limit, in one atomic statement;
+	 * the new count and active flag come back through RETURNING
+	 */
+	private static final String RECORD_FAILURE_SQL = "UPDATE users SET failed_attempts = failed_attempts + 1, "
+			+ "is_active = CASE WHEN failed_attempts + 1 >= ? THEN 0 ELSE is_active END "
+			+ "WHERE user_id = ? RETURNING failed_attempts, is_active";
+
+	/**
+	 * Maximum number of login checks waiting for a worker before new ones are refused
+	 */
+	private static final int QUEUE_CAPACITY = 32;
+
+	private static final AuthService instance = new AuthService();
+
+	private final ThreadPoolExecutor workers;
+
+	/**
+	 * Rejects bursts of failures per username and per session before any hashing or database access
+	 */
+	private final LoginThrottle throttle = new LoginThrottle(
+			Long.getLong("dealership.login.windowMillis", 60000),
+			Integer.getInteger("dealership.login.maxPerUsername", 5),
+			Integer.getInteger("dealership.login.maxPerSession", 20));
+
+	/**
+	 * Outcome of a login attempt
+	 */
+	public enum Status {
+		SUCCESS, PASSWORD_CHANGE_REQUIRED, UNKNOWN_USER, ACCOUNT_LOCKED, ATTEMPTS_EXHAUSTED, INVALID_PASSWORD, THROTTLED
+	}
+
+	/**
+	 * Result of {@link AuthService#authenticate(String, String)}
+	 */
+	public static final class Result {
+		public final Status status;
+		public final User user;
+		public final int remainingAttempts;
+		public final long retryAfterMillis;
+
+		Result(Status status, User user, int remainingAttempts) {
+			this(status, user, remainingAttempts, 0);
+		}
+
+		Result(Status status, User user, int remainingAttempts, long retryAfterMillis) {
+			this.status = status;
+			this.user = user;
+			this.remainingAttempts = remainingAttempts;
+			this.retryAfterMillis = retryAfterMillis;
+		}
+	}
+
+	private AuthService() {
+		int threads = Integer.getInteger("dealership.auth.threads",
+				Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+		AtomicInteger counter = new AtomicInteger();
+		workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+					Thread thread = new Thread(r, "auth-worker-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		workers.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Getter method for the shared service
+	 *
+	 * @return the authentication service
+	 */
+	public static AuthService getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Look up a user by username, ignoring case
+	 * "admin" always resolves to the built-in emergency administrator
+	 *
+	 * @param username - the username to look for
+	 * @return the user, or null if there is no such account
+	 * @throws SQLException if the directory cannot be loaded
+	 */
+	public User findUser(String username) throws SQLException {
+		if (username == null) {
+			return null;
+		}
+		if (username.equalsIgnoreCase("admin")) {
+			return new Admin(EMERGENCY_ADMIN_ID, "admin", "admin", "Emergency Admin", "admin@example.com",
+					"123-456-7890", false, true);
+		}
+		UserDirectory.Entry entry = UserDirectory.getInstance().find(username);
+		return entry == null ? null : entry.toUser();
+	}
+
+	/**
+	 * Run password work on the authentication worker pool
+	 *
+	 * @param task - the work to run, e.g. hashing a new password
+	 * @return a future completed with the task's result, or failed if the pool is saturated
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			workers.execute(() -> {
+				try {
+					future.complete(task.call());
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Check a username and password without blocking the caller
+	 *
+	 * @param username - the username entered
+	 * @param password - the password entered
+	 * @param session - identifies the login window or client making the attempt, for throttling
+	 * @return a future completed with the outcome on an authentication worker
+	 */
+	public CompletableFuture<Result> authenticateAsync(String username, String password, String session) {
+		if (throttle.isThrottled(username, session)) {
+			// Refused without queueing any hashing work
+			return CompletableFuture.completedFuture(throttled());
+		}
+		return submit(() -> authenticate(username, password, session));
+	}
+
+	/**
+	 * Check a username and password on the calling thread
+	 * A wrong password counts towards locking non-admin accounts; a correct one clears the count
+	 *
+	 * @param username - the username entered
+	 * @param password - the password entered
+	 * @param session - identifies the login window or client making the attempt, or null
+	 * @return the outcome, with the user on success and the attempts left on a wrong password
+	 * @throws SQLException if the failed-attempt counter cannot be updated
+	 */
+	public Result authenticate(String username, String password, String session) throws SQLException {
+		if (throttle.isThrottled(username, session)) {
+			return throttled();
+		}
+		if (username != null && username.equalsIgnoreCase("admin")) {
+			User admin = findUser(username);
+			if (PasswordHasher.verify(password, admin.password)) {
+				return new Result(Status.SUCCESS, admin, 0);
+			}
+			throttle.recordFailure(username, session);
+			return new Result(Status.INVALID_PASSWORD, null, 0);
+		}
+
+		UserDirectory directory = UserDirectory.getInstance();
+		UserDirectory.Entry entry = directory.find(username);
+		if (entry == null) {
+			// Spend the same hashing work as a real check, so the response time does not tell which
+			// usernames exist
+			PasswordHasher.verify(password, DummyHash.VALUE);
+			throttle.recordFailure(username, session);
+			return new Result(Status.UNKNOWN_USER, null, 0);
+		}
+		boolean isAdmin = "Admin".equals(entry.role);
+		if (!isAdmin && !entry.isActive) {
+			PasswordHasher.verify(password, DummyHash.VALUE);
+			return new Result(Status.ACCOUNT_LOCKED, null, 0);
+		}
+
+		if (PasswordHasher.verify(password, entry.password)) {
+			// Lazy migration: plaintext rows and hashes below the configured work factor are replaced
+			// now, while the plaintext is at hand, in the same write that clears failed attempts
+			if (PasswordHasher.needsRehash(entry.password)) {
+				String rehashed = PasswordHasher.hash(password);
+				DBManager.getInstance().runUpdate("UPDATE users SET password = ?, failed_attempts = 0 WHERE user_id = ?",
+						rehashed, entry.id);
+				entry = entry.withPassword(rehashed).withLoginState(0, entry.isActive);
+				directory.put(entry);
+			} else if (entry.failedAttempts > 0) {
+				DBManager.getInstance().runUpdate("UPDATE users SET failed_attempts = 0 WHERE user_id = ?", entry.id);
+				entry = entry.withLoginState(0, entry.isActive);
+				directory.put(entry);
+			}
+			return new Result(entry.isTempPassword ? Status.PASSWORD_CHANGE_REQUIRED : Status.SUCCESS, entry.toUser(), 0);
+		}
+
+		throttle.recordFailure(username, session);
+		// Admins are immune to account locking
+		if (isAdmin) {
+			return new Result(Status.INVALID_PASSWORD, null, 0);
+		}
+		int[] state = recordFailedAttempt(entry.id);
+		int attempts = state == null ? entry.failedAttempts + 1 : state[0];
+		boolean locked = state == null ? attempts >= MAX_FAILED_ATTEMPTS : state[1] == 0;
+		return new Result(locked ? Status.ATTEMPTS_EXHAUSTED : Status.INVALID_PASSWORD, null,
+				Math.max(0, MAX_FAILED_ATTEMPTS - attempts));
+	}
+
+	/**
+	 * Persist one failed login for a user with a single atomic UPDATE ... RETURNING
+	 * Concurrent failures from other sessions are counted correctly because the increment happens in SQL
+	 *
+	 * @param userId - the ID of the user
+	 * @return the new failed-attempt count and active flag (1 or 0), or null if the user does not exist
+	 * @throws SQLException if a database access error occurs
+	 */
+	public int[] recordFailedAttempt(int userId) throws SQLException {
+		int[] state = DBManager.getInstance().runUpdateReturning(RECORD_FAILURE_SQL, MAX_FAILED_ATTEMPTS, userId);
+		UserDirectory directory = UserDirectory.getInstance();
+		UserDirectory.Entry entry = directory.find(userId);
+		if (state != null && entry != null) {
+			directory.put(entry.withLoginState(state[0], state[1] == 1));
+		}
+		return state;
+	}
+
+	/**
+	 * Hash that no password is checked against for real, computed on first use so that loading the
+	 * class does not cost a full PBKDF2 run
+	 */
+	private static final class DummyHash {
+		private static final String VALUE = PasswordHasher.hash("dummy-password-for-timing");
+	}
+
+	private Result throttled() {
+		return new Result(Status.THROTTLED, null, 0, throttle.retryAfterMillis());
+	}
+}
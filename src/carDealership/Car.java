@@ -38,7 +38,7 @@ public class Car extends Vehicle implements Serializable {
 	 * @param c - the Car object to copy
 	 */
 	public Car(Car c) {
-		this(c.make, c.model, c.color, c.year, c.price, c.type);
+		this(c.make, c.model, c.color, c.year, c.getPrice(), c.type);
 	}
 
 	/**
@@ -69,7 +69,7 @@ public class Car extends Vehicle implements Serializable {
 		System.out.println("Car: " + carName);
 		System.out.println("Color: " + color);
 		System.out.println("Type: " + type);
-		System.out.println("Price: " + price + " SAR");
+		System.out.println("Price: " + getPrice() + " SAR");
 	}
 
 	/**
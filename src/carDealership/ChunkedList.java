@@ -0,0 +1,249 @@
+package carDealership;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Persistent list kept in ascending order of a sequence number given to each element
+ * Elements live in chunks of a few hundred with their sequence numbers in parallel long[]s; every
+ * update returns a new list that shares all chunks but the one it touched, so readers holding an
+ * older list are never disturbed. Elements are found by sequence number with two binary searches
+ *
+ * @param <E> - the element type
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public final class ChunkedList<E> {
+	private static final int CHUNK_SIZE = 512;
+	private static final int MIN_CHUNK = CHUNK_SIZE / 4;
+	private static final ChunkedList<Object> EMPTY = new ChunkedList<>(new Object[0][], new long[0][], new int[] { 0 });
+
+	private final Object[][] elements;
+	private final long[][] seqs;
+	/** Position of the first element of each chunk, with the total size as a final element */
+	private final int[] starts;
+
+	private ChunkedList(Object[][] elements, long[][] seqs, int[] starts) {
+		this.elements = elements;
+		this.seqs = seqs;
+		this.starts = starts;
+	}
+
+	/**
+	 * Getter method for the empty list
+	 *
+	 * @param <E> - the element type
+	 * @return a list with no elements
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> ChunkedList<E> empty() {
+		return (ChunkedList<E>) EMPTY;
+	}
+
+	/**
+	 * Getter method for the number of elements
+	 *
+	 * @return the size of the list
+	 */
+	public int size() {
+		return starts[elements.length];
+	}
+
+	/**
+	 * Find the position of an element
+	 *
+	 * @param seq - the element's sequence number
+	 * @return its position in the list, or -1 if no element has that sequence number
+	 */
+	public int positionOf(long seq) {
+		int c = chunkFor(seq);
+		if (c < 0) {
+			return -1;
+		}
+		int i = Arrays.binarySearch(seqs[c], seq);
+		return i < 0 ? -1 : starts[c] + i;
+	}
+
+	/**
+	 * Add an element at the end
+	 *
+	 * @param seq - its sequence number, above every one already in the list
+	 * @param element - the element
+	 * @return the updated list
+	 */
+	public ChunkedList<E> append(long seq, E element) {
+		int last = elements.length - 1;
+		if (last < 0 || elements[last].length >= CHUNK_SIZE) {
+			return replaceChunks(last + 1, last + 1, new Object[][] { { element } }, new long[][] { { seq } });
+		}
+		Object[] chunk = Arrays.copyOf(elements[last], elements[last].length + 1);
+		long[] chunkSeqs = Arrays.copyOf(seqs[last], chunk.length);
+		chunk[chunk.length - 1] = element;
+		chunkSeqs[chunk.length - 1] = seq;
+		return replaceChunks(last, last + 1, new Object[][] { chunk }, new long[][] { chunkSeqs });
+	}
+
+	/**
+	 * Add elements at the end, numbered consecutively
+	 * The last chunk is topped up and the rest are packed into fresh chunks, so no existing element
+	 * is copied beyond that one chunk
+	 *
+	 * @param firstSeq - the sequence number of the first new element, above every one already in the list
+	 * @param added - the elements
+	 * @param from - the position of the first element to add
+	 * @param to - the position after the last element to add
+	 * @return the updated list
+	 */
+	public ChunkedList<E> appendAll(long firstSeq, E[] added, int from, int to) {
+		if (from >= to) {
+			return this;
+		}
+		int last = elements.length - 1;
+		int kept = last >= 0 && elements[last].length < CHUNK_SIZE ? last : last + 1;
+		int total = (kept == last ? elements[last].length : 0) + to - from;
+		int chunks = (total + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		Object[][] newElements = new Object[chunks][];
+		long[][] newSeqs = new long[chunks][];
+		int next = from;
+		long seq = firstSeq;
+		for (int c = 0; c < chunks; c++) {
+			int n = Math.min(CHUNK_SIZE, total - c * CHUNK_SIZE);
+			int carried = c == 0 && kept == last ? elements[last].length : 0;
+			Object[] chunk = carried > 0 ? Arrays.copyOf(elements[last], n) : new Object[n];
+			long[] chunkSeqs = carried > 0 ? Arrays.copyOf(seqs[last], n) : new long[n];
+			for (int i = carried; i < n; i++) {
+				chunk[i] = added[next++];
+				chunkSeqs[i] = seq++;
+			}
+			newElements[c] = chunk;
+			newSeqs[c] = chunkSeqs;
+		}
+		return replaceChunks(kept, elements.length, newElements, newSeqs);
+	}
+
+	/**
+	 * Replace an element in place
+	 *
+	 * @param seq - the sequence number of the element to replace
+	 * @param element - the new element
+	 * @return the updated list, or this list if no element has that sequence number
+	 */
+	public ChunkedList<E> set(long seq, E element) {
+		int c = chunkFor(seq);
+		int i = c < 0 ? -1 : Arrays.binarySearch(seqs[c], seq);
+		if (i < 0) {
+			return this;
+		}
+		Object[] chunk = elements[c].clone();
+		chunk[i] = element;
+		Object[][] newElements = elements.clone();
+		newElements[c] = chunk;
+		return new ChunkedList<>(newElements, seqs, starts);
+	}
+
+	/**
+	 * Remove an element
+	 *
+	 * @param seq - the sequence number of the element to remove
+	 * @return the updated list, or this list if no element has that sequence number
+	 */
+	public ChunkedList<E> remove(long seq) {
+		int c = chunkFor(seq);
+		int i = c < 0 ? -1 : Arrays.binarySearch(seqs[c], seq);
+		if (i < 0) {
+			return this;
+		}
+		int n = elements[c].length - 1;
+		Object[] chunk = new Object[n];
+		long[] chunkSeqs = new long[n];
+		System.arraycopy(elements[c], 0, chunk, 0, i);
+		System.arraycopy(seqs[c], 0, chunkSeqs, 0, i);
+		System.arraycopy(elements[c], i + 1, chunk, i, n - i);
+		System.arraycopy(seqs[c], i + 1, chunkSeqs, i, n - i);
+		if (n == 0) {
+			return replaceChunks(c, c + 1, new Object[0][], new long[0][]);
+		}
+		// Fold a chunk that has run low into its right neighbour when the two fit in one
+		if (n < MIN_CHUNK && c + 1 < elements.length && n + elements[c + 1].length <= CHUNK_SIZE) {
+			Object[] merged = Arrays.copyOf(chunk, n + elements[c + 1].length);
+			long[] mergedSeqs = Arrays.copyOf(chunkSeqs, merged.length);
+			System.arraycopy(elements[c + 1], 0, merged, n, elements[c + 1].length);
+			System.arraycopy(seqs[c + 1], 0, mergedSeqs, n, elements[c + 1].length);
+			return replaceChunks(c, c + 2, new Object[][] { merged }, new long[][] { mergedSeqs });
+		}
+		return replaceChunks(c, c + 1, new Object[][] { chunk }, new long[][] { chunkSeqs });
+	}
+
+	/**
+	 * Visit every element in order
+	 *
+	 * @param consumer - receives each element
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> consumer) {
+		for (Object[] chunk : elements) {
+			for (Object element : chunk) {
+				consumer.accept((E) element);
+			}
+		}
+	}
+
+	/**
+	 * Copy the elements into an array, in order
+	 *
+	 * @param target - the array to fill, at least as long as the list
+	 * @return the target array
+	 */
+	public E[] toArray(E[] target) {
+		for (int c = 0; c < elements.length; c++) {
+			System.arraycopy(elements[c], 0, target, starts[c], elements[c].length);
+		}
+		return target;
+	}
+
+	/**
+	 * Last chunk whose first sequence number is not above the given one, or -1 if there is none
+	 */
+	private int chunkFor(long seq) {
+		int lo = 0;
+		int hi = elements.length - 1;
+		int found = -1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (seqs[mid][0] <= seq) {
+				found = mid;
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * New list with the chunks between two positions replaced; every other chunk is shared
+	 */
+	private ChunkedList<E> replaceChunks(int from, int to, Object[][] newElements, long[][] newSeqs) {
+		int chunks = elements.length - (to - from) + newElements.length;
+		Object[][] chunkElements = new Object[chunks][];
+		long[][] chunkSeqs = new long[chunks][];
+		System.arraycopy(elements, 0, chunkElements, 0, from);
+		System.arraycopy(seqs, 0, chunkSeqs, 0, from);
+		System.arraycopy(newElements, 0, chunkElements, from, newElements.length);
+		System.arraycopy(newSeqs, 0, chunkSeqs, from, newSeqs.length);
+		System.arraycopy(elements, to, chunkElements, from + newElements.length, elements.length - to);
+		System.arraycopy(seqs, to, chunkSeqs, from + newSeqs.length, seqs.length - to);
+		int[] chunkStarts = new int[chunks + 1];
+		System.arraycopy(starts, 0, chunkStarts, 0, from + 1);
+		for (int c = from; c < chunks; c++) {
+			chunkStarts[c + 1] = chunkStarts[c] + chunkElements[c].length;
+		}
+		return new ChunkedList<>(chunkElements, chunkSeqs, chunkStarts);
+	}
+}
@@ -0,0 +1,333 @@
+package carDealership;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Compact, column-oriented storage for large inventories
+ * Vehicles are kept as parallel primitive arrays: int ID, short year, price in cents as a long,
+ * a kind byte holding the {@link VehicleType} code and dictionary codes for make, model, colour and
+ * the type's attribute. A row costs
+ * roughly 50 bytes including its ID lookup slot, so a million vehicles fit in tens of megabytes
+ * instead of gigabytes of objects. {@link Vehicle} objects are only built on demand as short-lived
+ * views over a row; changing a view does not change the table until it is written back with
+ * {@link #put(Vehicle)}
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class CompactVehicleTable {
+	/**
+	 * Kind code of a {@link Car}
+	 */
+	public static final byte CAR = (byte) VehicleTypeRegistry.CAR.getCode();
+
+	/**
+	 * Kind code of a {@link Motorcycle}
+	 */
+	public static final byte MOTORCYCLE = (byte) VehicleTypeRegistry.MOTORCYCLE.getCode();
+
+	private static final int EMPTY = 0;
+
+	private final StringDictionary strings;
+	private int size;
+	private int[] ids;
+	private short[] years;
+	private long[] priceCents;
+	private byte[] kinds;
+	private int[] makes;
+	private int[] models;
+	private int[] colors;
+	private int[] types;
+
+	/**
+	 * Open-addressing map from vehicle ID to row; each slot holds ID and row + 1, 0 marks an empty slot
+	 */
+	private long[] slots = new long[16];
+
+	/**
+	 * Constructor for an empty table with its own dictionary
+	 */
+	public CompactVehicleTable() {
+		this(new StringDictionary(), 16);
+	}
+
+	/**
+	 * Constructor for the CompactVehicleTable class
+	 *
+	 * @param strings - the dictionary to encode strings with, possibly shared with other tables
+	 * @param initialCapacity - the number of rows to allocate up front
+	 */
+	public CompactVehicleTable(StringDictionary strings, int initialCapacity) {
+		this.strings = strings;
+		int capacity = Math.max(16, initialCapacity);
+		ids = new int[capacity];
+		years = new short[capacity];
+		priceCents = new long[capacity];
+		kinds = new byte[capacity];
+		makes = new int[capacity];
+		models = new int[capacity];
+		colors = new int[capacity];
+		types = new int[capacity];
+		while (slots.length < capacity * 2) {
+			slots = new long[slots.length * 2];
+		}
+	}
+
+	/**
+	 * Add a vehicle, or replace the row with the same ID
+	 * Returns a boolean so it can be used as an {@link InventoryLoader.VehicleSink}
+	 *
+	 * @param vehicle - the vehicle to store
+	 * @return true once the vehicle is stored
+	 */
+	public boolean put(Vehicle vehicle) {
+		int row = rowOf(vehicle.getId());
+		if (row < 0) {
+			if (size == ids.length) {
+				grow();
+			}
+			row = size++;
+			ids[row] = vehicle.getId();
+			insertSlot(vehicle.getId(), row);
+		}
+		years[row] = (short) vehicle.getYear();
+		priceCents[row] = vehicle.getPriceCents();
+		makes[row] = strings.encode(vehicle.getMake());
+		models[row] = strings.encode(vehicle.getModel());
+		colors[row] = strings.encode(vehicle.getColor());
+		VehicleType<?> type = VehicleTypeRegistry.of(vehicle);
+		kinds[row] = (byte) type.getCode();
+		types[row] = strings.encode(type.getAttribute(vehicle));
+		return true;
+	}
+
+	/**
+	 * Remove the vehicle with an ID
+	 * The last row moves into the freed row, so row numbers are not stable across removals
+	 *
+	 * @param id - the vehicle ID
+	 * @return true if a vehicle was removed
+	 */
+	public boolean remove(int id) {
+		int row = rowOf(id);
+		if (row < 0) {
+			return false;
+		}
+		deleteSlot(id);
+		int last = --size;
+		if (row != last) {
+			ids[row] = ids[last];
+			years[row] = years[last];
+			priceCents[row] = priceCents[last];
+			kinds[row] = kinds[last];
+			makes[row] = makes[last];
+			models[row] = models[last];
+			colors[row] = colors[last];
+			types[row] = types[last];
+			deleteSlot(ids[row]);
+			insertSlot(ids[row], row);
+		}
+		return true;
+	}
+
+	/**
+	 * Find the row holding a vehicle
+	 *
+	 * @param id - the vehicle ID
+	 * @return the row, or -1 if the vehicle is not in the table
+	 */
+	public int rowOf(int id) {
+		int mask = slots.length - 1;
+		for (int i = mix(id) & mask;; i = (i + 1) & mask) {
+			long slot = slots[i];
+			if (slot == EMPTY) {
+				return -1;
+			}
+			if ((int) (slot >>> 32) == id) {
+				return (int) slot - 1;
+			}
+		}
+	}
+
+	/**
+	 * Build a vehicle view of a row
+	 *
+	 * @param row - the row, from 0 to {@link #size()} - 1
+	 * @return a new vehicle of the row's type, sharing the dictionary's strings
+	 */
+	public Vehicle get(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+		}
+		Vehicle vehicle = VehicleTypeRegistry.byCode(kinds[row]).create(strings.decode(makes[row]),
+				strings.decode(models[row]), strings.decode(colors[row]), years[row], 0, strings.decode(types[row]));
+		vehicle.setPriceCents(priceCents[row]);
+		vehicle.setId(ids[row]);
+		return vehicle;
+	}
+
+	/**
+	 * Build a vehicle view by ID
+	 *
+	 * @param id - the vehicle ID
+	 * @return the vehicle, or null if it is not in the table
+	 */
+	public Vehicle find(int id) {
+		int row = rowOf(id);
+		return row < 0 ? null : get(row);
+	}
+
+	/**
+	 * Visit every row as a vehicle view, in row order
+	 *
+	 * @param consumer - receives each view
+	 */
+	public void forEach(Consumer<Vehicle> consumer) {
+		for (int row = 0; row < size; row++) {
+			consumer.accept(get(row));
+		}
+	}
+
+	/**
+	 * Getter method for the number of vehicles
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Getter method for a row's vehicle ID
+	 *
+	 * @param row - the row
+	 * @return the vehicle ID
+	 */
+	public int idAt(int row) {
+		return ids[row];
+	}
+
+	/**
+	 * Getter method for a row's price in cents
+	 *
+	 * @param row - the row
+	 * @return the price in cents
+	 */
+	public long priceCentsAt(int row) {
+		return priceCents[row];
+	}
+
+	/**
+	 * Getter method for a row's kind
+	 *
+	 * @param row - the row
+	 * @return the row's {@link VehicleType} code, e.g. {@link #CAR} or {@link #MOTORCYCLE}
+	 */
+	public byte kindAt(int row) {
+		return kinds[row];
+	}
+
+	/**
+	 * Sum the prices of every vehicle without building any views
+	 *
+	 * @return the total price in cents
+	 */
+	public long totalPriceCents() {
+		long total = 0;
+		for (int row = 0; row < size; row++) {
+			total += priceCents[row];
+		}
+		return total;
+	}
+
+	/**
+	 * Count the vehicles of one kind without building any views
+	 *
+	 * @param kind - a {@link VehicleType} code, e.g. {@link #CAR} or {@link #MOTORCYCLE}
+	 * @return the number of vehicles of that kind
+	 */
+	public int count(byte kind) {
+		int count = 0;
+		for (int row = 0; row < size; row++) {
+			if (kinds[row] == kind) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Approximate heap used by the table's arrays, excluding the shared dictionary
+	 *
+	 * @return the size in bytes
+	 */
+	public long estimatedBytes() {
+		long perRow = Integer.BYTES * 5L + Short.BYTES + Long.BYTES + Byte.BYTES;
+		return perRow * ids.length + (long) Long.BYTES * slots.length;
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		years = Arrays.copyOf(years, capacity);
+		priceCents = Arrays.copyOf(priceCents, capacity);
+		kinds = Arrays.copyOf(kinds, capacity);
+		makes = Arrays.copyOf(makes, capacity);
+		models = Arrays.copyOf(models, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		types = Arrays.copyOf(types, capacity);
+	}
+
+	private void insertSlot(int id, int row) {
+		// Keep the lookup table at most half full
+		if ((size + 1) * 2 > slots.length) {
+			long[] old = slots;
+			slots = new long[old.length * 2];
+			for (long slot : old) {
+				if (slot != EMPTY) {
+					place(slot);
+				}
+			}
+		}
+		place(((long) id << 32) | ((row + 1) & 0xFFFFFFFFL));
+	}
+
+	private void place(long slot) {
+		int mask = slots.length - 1;
+		int i = mix((int) (slot >>> 32)) & mask;
+		while (slots[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		slots[i] = slot;
+	}
+
+	private void deleteSlot(int id) {
+		int mask = slots.length - 1;
+		int i = mix(id) & mask;
+		while ((int) (slots[i] >>> 32) != id || slots[i] == EMPTY) {
+			i = (i + 1) & mask;
+		}
+		slots[i] = EMPTY;
+		// Shift later entries of the probe run back so lookups never stop at the hole
+		for (int j = (i + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+			int home = mix((int) (slots[j] >>> 32)) & mask;
+			boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+			if (!between) {
+				slots[i] = slots[j];
+				slots[j] = EMPTY;
+				i = j;
+			}
+		}
+	}
+
+	private static int mix(int id) {
+		int h = id * 0x9E3779B1;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,159 @@
+package carDealership;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the text console to many terminals at once over TCP
+ * Every accepted connection gets its own {@link ConsoleSession} on its own thread, so scripted
+ * clients (e.g. {@code nc localhost 8081 < script.txt}) and interactive users can work on one
+ * dealership together. Sessions spend most of their time waiting on their socket, so on runtimes
+ * with virtual threads each session gets one; older runtimes fall back to a growing pool of
+ * platform threads
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class ConsoleServer {
+	public static final int DEFAULT_PORT = 8081;
+
+	// Set by start(); sessions are only accepted after that
+	private Dealership dealership;
+	private final ServerSocket serverSocket;
+	private final ExecutorService sessions;
+	private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+	private Thread acceptor;
+
+	/**
+	 * Constructor for the ConsoleServer class
+	 * Binds the listening socket; call {@link #start(Dealership)} to begin accepting sessions
+	 *
+	 * @param address - the interface to listen on
+	 * @param port - the TCP port to listen on
+	 * @throws IOException if the port cannot be bound
+	 */
+	public ConsoleServer(InetAddress address, int port) throws IOException {
+		this.serverSocket = new ServerSocket();
+		serverSocket.setReuseAddress(true);
+		serverSocket.bind(new InetSocketAddress(address, port));
+		this.sessions = newSessionExecutor();
+	}
+
+	/**
+	 * One thread per session: virtual when the runtime has them (Java 21+), platform otherwise
+	 * The virtual-thread factory is looked up reflectively so the code still builds for older targets
+	 */
+	private static ExecutorService newSessionExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			AtomicInteger counter = new AtomicInteger();
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "console-session-" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Start accepting sessions on a background thread
+	 *
+	 * @param dealership - the dealership every session works on
+	 */
+	public synchronized void start(Dealership dealership) {
+		if (acceptor != null) {
+			return;
+		}
+		this.dealership = dealership;
+		acceptor = new Thread(this::acceptLoop, "console-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		System.out.println("Console server listening on " + serverSocket.getInetAddress().getHostAddress() + ":" + getPort());
+	}
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				sessions.execute(() -> serve(socket));
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					System.err.println("Console server accept failed: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		clients.add(socket);
+		try (Socket client = socket;
+			 Scanner input = new Scanner(client.getInputStream(), StandardCharsets.UTF_8);
+			 PrintStream out = new PrintStream(client.getOutputStream(), true, StandardCharsets.UTF_8)) {
+			new ConsoleSession(input, out, dealership).run();
+		} catch (IOException e) {
+			System.err.println("Console session ended with an error: " + e.getMessage());
+		} catch (RuntimeException e) {
+			// A failure in one session must not take the others down
+			System.err.println("Console session failed: " + e);
+		} finally {
+			clients.remove(socket);
+		}
+	}
+
+	/**
+	 * Getter method for the port being listened on
+	 *
+	 * @return the bound TCP port
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Getter method for the number of connected sessions
+	 *
+	 * @return the sessions currently running
+	 */
+	public int getActiveSessions() {
+		return clients.size();
+	}
+
+	/**
+	 * Stop accepting sessions and close the ones still open
+	 */
+	public void stop() {
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			System.err.println("Error closing console server: " + e.getMessage());
+		}
+		// Sessions blocked reading their socket only wake up when it is closed
+		for (Socket client : clients) {
+			try {
+				client.close();
+			} catch (IOException e) {
+				// already closing
+			}
+		}
+		sessions.shutdownNow();
+	}
+}
@@ -0,0 +1,472 @@
+package carDealership;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * One text-console session on the dealership
+ * Holds its own input and output, so any number of sessions can run against the same dealership at
+ * once, whether on the process's own terminal or on sockets accepted by {@link ConsoleServer}. The
+ * dealership does its own locking, and edits are made on a copy that is swapped in when complete
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class ConsoleSession implements Runnable {
+	private final Scanner input;
+	private final PrintStream out;
+	private final Dealership dealership;
+
+	/**
+	 * Constructor for the ConsoleSession class
+	 *
+	 * @param input - where the session reads its commands from
+	 * @param out - where the session writes its menus and results
+	 * @param dealership - the dealership to work on
+	 */
+	public ConsoleSession(Scanner input, PrintStream out, Dealership dealership) {
+		this.input = input;
+		this.out = out;
+		this.dealership = dealership;
+	}
+
+	/**
+	 * Show the main menu until the user quits or the input ends
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			out.println("\n-------------------------------------------\n");
+			out.println(dealership.getName() + " - Main Menu");
+			out.println("\nChoose an option:");
+			out.println("1. Add a vehicle");
+			out.println("2. Sell a vehicle");
+			out.println("3. Remove a vehicle");
+			out.println("4. Edit a vehicle");
+			out.println("5. Search cars by type");
+			out.println("6. Count cars within budget");
+			out.println("7. Change color");
+			out.println("8. Quit");
+
+			try {
+				switch (nextLine().trim()) {
+				case "1":
+					addVehicleMenu();
+					break;
+				case "2":
+					sellVehicleMenu();
+					break;
+				case "3":
+					removeVehicleMenu();
+					break;
+				case "4":
+					editVehicleMenu();
+					break;
+				case "5":
+					searchCarMenu();
+					break;
+				case "6":
+					budgetCarMenu();
+					break;
+				case "7":
+					changeColorMenu();
+					break;
+				case "8":
+					out.println("Goodbye.");
+					return;
+				default:
+					out.println("Invalid choice. Please try again.");
+				}
+			} catch (InputMismatchException e) {
+				out.println("Invalid input. Please enter a valid number.");
+				input.nextLine();
+			} catch (NoSuchElementException e) {
+				// The terminal or socket was closed
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Prompts are written without a newline, so flush before every read
+	 */
+	private String nextLine() {
+		out.flush();
+		return input.nextLine();
+	}
+
+	private int nextInt() {
+		out.flush();
+		return input.nextInt();
+	}
+
+	private double nextDouble() {
+		out.flush();
+		return input.nextDouble();
+	}
+
+	/**
+	 * Display a menu for adding vehicles to the dealership
+	 * Provides options to add either a car or motorcycle
+	 */
+	public void addVehicleMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Add a Vehicle");
+		out.println("\nChoose an option:");
+		out.println("1. Car");
+		out.println("2. Motorcycle");
+		out.println("3. Exit");
+
+		String choice = nextLine();
+
+		switch (choice) {
+		case "1":
+			addCarMenu();
+			break;
+		case "2":
+			addMotorcycleMenu();
+			break;
+		case "3":
+			return;
+		default:
+			out.println("Invalid choice. Please try again.");
+		}
+	}
+
+	/**
+	 * Display a menu for adding a car to the dealership
+	 * Collects car details from user input and adds the car to inventory
+	 */
+	public void addCarMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Add a Car");
+
+		out.print("\nEnter the make: ");
+		String make = nextLine();
+
+		out.print("Enter the model: ");
+		String model = nextLine();
+
+		out.print("Enter the color: ");
+		String color = nextLine();
+
+		out.print("Enter the year: ");
+		int year = nextInt();
+
+		out.print("Enter the price: ");
+		double price = nextDouble();
+
+		out.print("Enter the type: ");
+		nextLine();
+		String type = nextLine();
+
+		try {
+			if (dealership.addVehicle(new Car(make, model, color, year, price, type))) {
+				out.println("Car added succesfully.");
+			} else {
+				out.println("Couldn't add car.");
+			}
+		} catch (SQLException e) {
+			out.println("An error occurred while adding the car: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Display a menu for adding a motorcycle to the dealership
+	 * Collects motorcycle details from user input and adds it to inventory
+	 */
+	public void addMotorcycleMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Add a Motorcycle");
+
+		out.print("\nEnter the make: ");
+		String make = nextLine();
+
+		out.print("Enter the model: ");
+		String model = nextLine();
+
+		out.print("Enter the color: ");
+		String color = nextLine();
+
+		out.print("Enter the year: ");
+		int year = nextInt();
+
+		out.print("Enter the price: ");
+		double price = nextDouble();
+		nextLine();
+
+		out.print("Enter the handlebar type: ");
+		String handlebarType = nextLine();
+
+		try {
+			if (dealership.addVehicle(new Motorcycle(make, model, color, year, price, handlebarType))) {
+				out.println("Motorcycle added successfully.");
+			} else {
+				out.println("Couldn't add Motorcycle.");
+			}
+		} catch (SQLException e) {
+			out.println("An error occurred while adding the motorcycle: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Display a menu for selling a vehicle from the dealership
+	 * Collects vehicle ID and buyer information to process the sale
+	 */
+	public void sellVehicleMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Sell a Vehicle");
+
+		out.print("\nEnter the id of the vehicle: ");
+		int id = nextInt();
+		nextLine();
+
+		if (dealership.getIndexFromId(id) == -1) {
+			out.println("\nVehicle not found!");
+			return;
+		}
+
+		out.print("Enter the buyer's name: ");
+		String buyerName = nextLine();
+
+		out.print("Enter the buyer's contact: ");
+		String buyerContact = nextLine();
+
+		Vehicle vehicle = dealership.getVehicleFromId(id);
+
+		try {
+			if (dealership.sellVehicle(vehicle, buyerName, buyerContact)) {
+				out.println("Vehicle sold successfully.");
+			} else {
+				out.println("Couldn't sell vehicle");
+			}
+		} catch (SQLException e) {
+			out.println("An error occurred while selling the vehicle: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Display a menu for removing a vehicle from the dealership
+	 * Collects vehicle ID and removes the specified vehicle from inventory
+	 */
+	public void removeVehicleMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Remove a Vehicle");
+
+		out.print("\nEnter the id of the vehicle: ");
+		int id = nextInt();
+		nextLine();
+
+		if (dealership.getIndexFromId(id) == -1) {
+			out.println("\nVehicle not found!");
+			return;
+		}
+
+		Vehicle vehicle = dealership.getVehicleFromId(id);
+
+		try {
+			if (dealership.removeVehicle(vehicle)) {
+				out.println("Vehicle removed successfully.");
+			} else {
+				out.println("Couldn't remove vehicle");
+			}
+		} catch (SQLException e) {
+			out.println("An error occurred while removing the vehicle: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Display a menu for editing a vehicle in the dealership
+	 * Collects vehicle ID and redirects to appropriate edit method based on vehicle type
+	 */
+	public void editVehicleMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Edit a Vehicle");
+
+		out.print("\nEnter the id of the vehicle: ");
+		int id = nextInt();
+		nextLine();
+
+		if (dealership.getIndexFromId(id) == -1) {
+			out.println("\nVehicle not found!");
+			return;
+		}
+		out.println("\nEnter the new information");
+		// Edit a private copy so other sessions are not blocked while this one types
+		Vehicle current = dealership.getVehicleFromId(id);
+		if (current == null) {
+			out.println("\nVehicle not found!");
+			return;
+		}
+		Vehicle vehicle = VehicleTypeRegistry.of(current).copy(current);
+		out.println(vehicle);
+
+		if (vehicle instanceof Car) {
+			carEdit((Car) vehicle);
+		}
+		if (vehicle instanceof Motorcycle) {
+			motorcycleEdit((Motorcycle) vehicle);
+		}
+		if (!dealership.updateVehicle(vehicle)) {
+			out.println("\nVehicle was removed or sold by another session.");
+		}
+	}
+
+	/**
+	 * Edit the details of a car vehicle
+	 * 
+	 * @param c - the car to be edited
+	 */
+	public void carEdit(Car c) {
+		out.print("\nEnter the make: ");
+		String make = nextLine();
+
+		out.print("Enter the model: ");
+		String model = nextLine();
+
+		out.print("Enter the color: ");
+		String color = nextLine();
+
+		out.print("Enter the year: ");
+		int year = nextInt();
+
+		out.print("Enter the price: ");
+		double price = nextDouble();
+
+		out.print("Enter the type: ");
+		nextLine();
+		String type = nextLine();
+
+		c.setMake(make);
+		c.setModel(model);
+		c.setColor(color);
+		c.setYear(year);
+		c.setPrice(price);
+		c.setType(type);
+	}
+
+	/**
+	 * Edit the details of a motorcycle vehicle
+	 * 
+	 * @param m - the motorcycle to be edited
+	 */
+	public void motorcycleEdit(Motorcycle m) {
+		out.print("\nEnter the make: ");
+		String make = nextLine();
+
+		out.print("Enter the model: ");
+		String model = nextLine();
+
+		out.print("Enter the color: ");
+		String color = nextLine();
+
+		out.print("Enter the year: ");
+		int year = nextInt();
+
+		out.print("Enter the price: ");
+		double price = nextDouble();
+
+		out.print("Enter the handlebar type: ");
+		nextLine();
+		String handlebarType = nextLine();
+
+		m.setMake(make);
+		m.setModel(model);
+		m.setColor(color);
+		m.setYear(year);
+		m.setPrice(price);
+		m.setHandlebarType(handlebarType);
+	}
+
+	/**
+	 * Display a menu for searching cars by type
+	 * Shows all cars matching the specified type
+	 */
+	public void searchCarMenu() {
+		if (!(dealership.isEmpty())) {
+
+			out.println("Enter type: ");
+			String s = nextLine();
+
+			Car[] v = dealership.searchCar(s);
+			int total = 0;
+			if (v != null) {
+				for (int i = 0; i < v.length; i++) {
+					if (v[i] != null) {
+						out.println(v[i]);
+						out.println();
+						total++;
+					}
+				}
+			}
+			out.printf("Total found: [%d]\n", total);
+		} else
+			out.println("Sorry the inventory is empty.");
+	}
+
+	/**
+	 * Display a menu for changing the console text color
+	 * Provides options for different color schemes
+	 */
+	public void changeColorMenu() {
+		out.println("\n-------------------------------------------\n");
+		out.println("Add a Vehicle");
+		out.println("\nChoose an option:");
+		out.println("1. Blue");
+		out.println("2. Green");
+		out.println("3. White");
+		out.println("4. Exit");
+		String choice = nextLine();
+
+		switch (choice) {
+		case "1":
+			out.println("\u001B[36m"); // Changes color to Blue.
+			break;
+		case "2":
+			out.println("\u001B[32m"); // Changes color to Green.
+
+			break;
+		case "3":
+			out.println("\u001B[0m"); // Changes color back to White.
+
+			break;
+		case "4":
+			return;
+		default:
+			out.println("Invalid choice. Please try again.");
+		}
+	}
+
+	/**
+	 * Display a menu for searching cars within a specified budget
+	 * Shows the count of cars that fall within the given price range
+	 */
+	public void budgetCarMenu() {
+		if (!(dealership.isEmpty())) {
+
+			out.println("Enter budget: ");
+			String budget = nextLine();
+
+			for (int i = 0; i < budget.length(); i++) {
+				if (budget.charAt(i) < 48 || budget.charAt(i) > 57) { // Ascii digits from 0 to 9.
+					out.println("Invaild Input, Please enter postive numbers only.");
+					return;
+				}
+			}
+			{
+				int total = dealership.carBudget(Double.parseDouble(budget)); // Calling carBudget Method.
+				out.printf("Total [%d]\n", total);
+			}
+
+		} else
+			out.println("Sorry the inventory is empty.");
+	}
+}
@@ -0,0 +1,565 @@
+package carDealership;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import persistance.DBManager;
+
+/**
+ * Streaming export of a dealership's inventory and sales history
+ * Rows are read from a forward-only cursor and written straight to a channel through one reusable
+ * buffer, so memory use does not grow with the number of rows. Two formats are written:
+ * <ul>
+ * <li>CSV, with a header row, prices in dollars and sale times as ISO-8601 instants</li>
+ * <li>a compact columnar binary format, described below, for loading into analysis tools</li>
+ * </ul>
+ * A columnar file starts with the magic bytes "DCOL", a version byte and the column count, then
+ * each column's type byte and name. Rows follow in groups of up to 8192: the group's row count,
+ * then each column as its byte length and data. Numbers are stored as zigzag varint deltas from the
+ * previous row, with a presence bitmap in front; text is a per-group dictionary of UTF-8 strings
+ * followed by one varint code per row, 0 meaning null. A row count of 0 ends the file. All varints
+ * are unsigned LEB128
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class DataExporter {
+	private static final int FETCH_SIZE = 1000;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int ROW_GROUP_SIZE = 8192;
+	private static final byte[] MAGIC = { 'D', 'C', 'O', 'L' };
+	private static final byte VERSION = 1;
+
+	/**
+	 * Output format of an export
+	 */
+	public enum Format {
+		CSV("csv"), COLUMNAR("dcol");
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * Getter method for the usual file extension
+		 *
+		 * @return the extension, without a dot
+		 */
+		public String getExtension() {
+			return extension;
+		}
+
+		/**
+		 * Pick the format matching a file name's extension, defaulting to CSV
+		 *
+		 * @param file - the file being written
+		 * @return the format for the file
+		 */
+		public static Format forFile(Path file) {
+			String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+			return name.endsWith("." + COLUMNAR.extension) ? COLUMNAR : CSV;
+		}
+	}
+
+	/**
+	 * How a column's values are read and written; the code is stored in columnar file headers
+	 */
+	private enum ColumnType {
+		INTEGER(1), MONEY(2), TIMESTAMP(3), TEXT(4);
+
+		private final byte code;
+
+		ColumnType(int code) {
+			this.code = (byte) code;
+		}
+	}
+
+	private static final class Column {
+		private final String name;
+		private final ColumnType type;
+
+		private Column(String name, ColumnType type) {
+			this.name = name;
+			this.type = type;
+		}
+	}
+
+	private final int dealershipId;
+
+	/**
+	 * Constructor for the DataExporter class
+	 *
+	 * @param dealershipId - the dealership whose data to export
+	 */
+	public DataExporter(int dealershipId) {
+		this.dealershipId = dealershipId;
+	}
+
+	/**
+	 * Export the unsold inventory to a file
+	 *
+	 * @param file - the file to create or replace
+	 * @param format - the output format
+	 * @param progress - receives the running row count every {@link #FETCH_SIZE} rows and at the end, or null
+	 * @return the number of vehicles written
+	 * @throws SQLException if a database access error occurs
+	 * @throws IOException if the file cannot be written
+	 */
+	public long exportInventory(Path file, Format format, LongConsumer progress) throws SQLException, IOException {
+		try (FileChannel channel = open(file)) {
+			return exportInventory(channel, format, progress);
+		}
+	}
+
+	/**
+	 * Export the unsold inventory to a channel, ordered by vehicle ID
+	 * Every registered vehicle type's attribute column is included; it is empty for other types
+	 *
+	 * @param out - the channel to write to, left open
+	 * @param format - the output format
+	 * @param progress - receives the running row count every {@link #FETCH_SIZE} rows and at the end, or null
+	 * @return the number of vehicles written
+	 * @throws SQLException if a database access error occurs
+	 * @throws IOException if the channel cannot be written
+	 */
+	public long exportInventory(WritableByteChannel out, Format format, LongConsumer progress)
+			throws SQLException, IOException {
+		List<Column> columns = new ArrayList<>(Arrays.asList(
+				new Column("vehicle_id", ColumnType.INTEGER),
+				new Column("type", ColumnType.TEXT),
+				new Column("make", ColumnType.TEXT),
+				new Column("model", ColumnType.TEXT),
+				new Column("color", ColumnType.TEXT),
+				new Column("year", ColumnType.INTEGER),
+				new Column("price", ColumnType.MONEY)));
+		for (String attribute : VehicleTypeRegistry.attributeColumns()) {
+			columns.add(new Column(attribute, ColumnType.TEXT));
+		}
+		String sql = "SELECT vehicle_id, type, make, model, color, year, " + String.format(Money.SQL_CENTS, "price")
+				+ ", " + VehicleTypeRegistry.attributeColumnList(null)
+				+ " FROM Vehicle WHERE dealerships_id = ? AND is_sold = 0 ORDER BY vehicle_id";
+		return export(sql, columns, out, format, progress);
+	}
+
+	/**
+	 * Export the sales history to a file
+	 *
+	 * @param file - the file to create or replace
+	 * @param format - the output format
+	 * @param progress - receives the running row count every {@link #FETCH_SIZE} rows and at the end, or null
+	 * @return the number of sales written
+	 * @throws SQLException if a database access error occurs
+	 * @throws IOException if the file cannot be written
+	 */
+	public long exportSales(Path file, Format format, LongConsumer progress) throws SQLException, IOException {
+		try (FileChannel channel = open(file)) {
+			return exportSales(channel, format, progress);
+		}
+	}
+
+	/**
+	 * Export the sales history to a channel, oldest sale first
+	 *
+	 * @param out - the channel to write to, left open
+	 * @param format - the output format
+	 * @param progress - receives the running row count every {@link #FETCH_SIZE} rows and at the end, or null
+	 * @return the number of sales written
+	 * @throws SQLException if a database access error occurs
+	 * @throws IOException if the channel cannot be written
+	 */
+	public long exportSales(WritableByteChannel out, Format format, LongConsumer progress)
+			throws SQLException, IOException {
+		List<Column> columns = Arrays.asList(
+				new Column("sale_id", ColumnType.INTEGER),
+				new Column("vehicle_id", ColumnType.INTEGER),
+				new Column("salesperson_id", ColumnType.INTEGER),
+				new Column("buyer_name", ColumnType.TEXT),
+				new Column("buyer_contact", ColumnType.TEXT),
+				new Column("sale_price", ColumnType.MONEY),
+				new Column("sold_at", ColumnType.TIMESTAMP),
+				new Column("type", ColumnType.TEXT),
+				new Column("make", ColumnType.TEXT),
+				new Column("model", ColumnType.TEXT));
+		String sql = "SELECT s.sale_id, s.vehicle_id, s.user_id, s.buyer_name, s.buyer_contact, s.sale_price_cents, "
+				+ "s.sold_at_ms, v.type, v.make, v.model FROM Sales s JOIN Vehicle v ON s.vehicle_id = v.vehicle_id "
+				+ "WHERE v.dealerships_id = ? ORDER BY s.sale_id";
+		return export(sql, columns, out, format, progress);
+	}
+
+	private static FileChannel open(Path file) throws IOException {
+		return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+
+	private long export(String sql, List<Column> columns, WritableByteChannel out, Format format,
+			LongConsumer progress) throws SQLException, IOException {
+		DBManager db = DBManager.getInstance();
+		// A separate read-only connection keeps a long export from holding up writers on the shared one
+		Connection reader = db.openReaderConnection();
+		if (reader == null) {
+			// The test-mode database only exists on the shared connection, so hold it for the whole export
+			synchronized (db) {
+				return export(db.Connection(), sql, columns, out, format, progress);
+			}
+		}
+		try {
+			return export(reader, sql, columns, out, format, progress);
+		} finally {
+			reader.close();
+		}
+	}
+
+	private long export(Connection conn, String sql, List<Column> columns, WritableByteChannel out, Format format,
+			LongConsumer progress) throws SQLException, IOException {
+		try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setInt(1, dealershipId);
+			stmt.setFetchSize(FETCH_SIZE);
+			try (ResultSet rs = stmt.executeQuery()) {
+				RowWriter writer = format == Format.COLUMNAR ? new ColumnarWriter(columns, out)
+						: new CsvWriter(columns, out);
+				long rows = 0;
+				while (rs.next()) {
+					writer.row(rs);
+					rows++;
+					if (progress != null && rows % FETCH_SIZE == 0) {
+						progress.accept(rows);
+					}
+				}
+				writer.finish();
+				if (progress != null) {
+					progress.accept(rows);
+				}
+				return rows;
+			}
+		}
+	}
+
+	/**
+	 * Encodes rows into a reusable buffer and drains it to the channel whenever it fills
+	 */
+	private abstract static class RowWriter {
+		protected final List<Column> columns;
+		private final WritableByteChannel out;
+		protected final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		RowWriter(List<Column> columns, WritableByteChannel out) {
+			this.columns = columns;
+			this.out = out;
+		}
+
+		abstract void row(ResultSet rs) throws SQLException, IOException;
+
+		abstract void finish() throws IOException;
+
+		protected void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		protected void put(byte[] bytes, int length) throws IOException {
+			for (int offset = 0; offset < length;) {
+				if (!buffer.hasRemaining()) {
+					drain();
+				}
+				int chunk = Math.min(buffer.remaining(), length - offset);
+				buffer.put(bytes, offset, chunk);
+				offset += chunk;
+			}
+		}
+	}
+
+	private static final class CsvWriter extends RowWriter {
+		private final StringBuilder line = new StringBuilder(256);
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+		CsvWriter(List<Column> columns, WritableByteChannel out) throws IOException {
+			super(columns, out);
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					line.append(',');
+				}
+				line.append(columns.get(i).name);
+			}
+			writeLine();
+		}
+
+		@Override
+		void row(ResultSet rs) throws SQLException, IOException {
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					line.append(',');
+				}
+				int index = i + 1;
+				switch (columns.get(i).type) {
+				case TEXT:
+					appendText(rs.getString(index));
+					break;
+				case MONEY:
+					long cents = rs.getLong(index);
+					if (!rs.wasNull()) {
+						long abs = Math.abs(cents);
+						line.append(cents < 0 ? "-" : "").append(abs / 100).append('.');
+						line.append(abs % 100 < 10 ? "0" : "").append(abs % 100);
+					}
+					break;
+				case TIMESTAMP:
+					long millis = rs.getLong(index);
+					if (!rs.wasNull()) {
+						line.append(Instant.ofEpochMilli(millis));
+					}
+					break;
+				default:
+					long value = rs.getLong(index);
+					if (!rs.wasNull()) {
+						line.append(value);
+					}
+				}
+			}
+			writeLine();
+		}
+
+		@Override
+		void finish() throws IOException {
+			drain();
+		}
+
+		private void appendText(String value) {
+			if (value == null) {
+				return;
+			}
+			boolean quote = false;
+			for (int i = 0; i < value.length() && !quote; i++) {
+				char c = value.charAt(i);
+				quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+			}
+			if (!quote) {
+				line.append(value);
+				return;
+			}
+			line.append('"');
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '"') {
+					line.append('"');
+				}
+				line.append(c);
+			}
+			line.append('"');
+		}
+
+		private void writeLine() throws IOException {
+			line.append('\n');
+			CharBuffer chars = CharBuffer.wrap(line);
+			encoder.reset();
+			while (true) {
+				CoderResult result = encoder.encode(chars, buffer, true);
+				if (result.isOverflow()) {
+					drain();
+				} else if (result.isUnderflow()) {
+					break;
+				} else {
+					result.throwException();
+				}
+			}
+			line.setLength(0);
+		}
+	}
+
+	private static final class ColumnarWriter extends RowWriter {
+		private final long[][] numbers;
+		private final boolean[][] present;
+		private final int[][] codes;
+		private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+		private final ByteSink column = new ByteSink();
+		private int rows;
+
+		ColumnarWriter(List<Column> columns, WritableByteChannel out) throws IOException {
+			super(columns, out);
+			numbers = new long[columns.size()][];
+			present = new boolean[columns.size()][];
+			codes = new int[columns.size()][];
+			for (int i = 0; i < columns.size(); i++) {
+				if (columns.get(i).type == ColumnType.TEXT) {
+					codes[i] = new int[ROW_GROUP_SIZE];
+				} else {
+					numbers[i] = new long[ROW_GROUP_SIZE];
+					present[i] = new boolean[ROW_GROUP_SIZE];
+				}
+				dictionaries.add(new HashMap<>());
+			}
+
+			ByteSink header = new ByteSink();
+			header.write(MAGIC, MAGIC.length);
+			header.write(VERSION);
+			header.writeVarint(columns.size());
+			for (Column c : columns) {
+				byte[] name = c.name.getBytes(StandardCharsets.UTF_8);
+				header.write(c.type.code);
+				header.writeVarint(name.length);
+				header.write(name, name.length);
+			}
+			put(header.bytes, header.size);
+		}
+
+		@Override
+		void row(ResultSet rs) throws SQLException, IOException {
+			for (int i = 0; i < columns.size(); i++) {
+				if (codes[i] != null) {
+					String value = rs.getString(i + 1);
+					if (value == null) {
+						codes[i][rows] = 0;
+					} else {
+						Map<String, Integer> dictionary = dictionaries.get(i);
+						Integer code = dictionary.get(value);
+						if (code == null) {
+							code = dictionary.size() + 1;
+							dictionary.put(value, code);
+						}
+						codes[i][rows] = code;
+					}
+				} else {
+					numbers[i][rows] = rs.getLong(i + 1);
+					present[i][rows] = !rs.wasNull();
+				}
+			}
+			if (++rows == ROW_GROUP_SIZE) {
+				flushGroup();
+			}
+		}
+
+		@Override
+		void finish() throws IOException {
+			if (rows > 0) {
+				flushGroup();
+			}
+			column.reset();
+			column.writeVarint(0);
+			put(column.bytes, column.size);
+			drain();
+		}
+
+		private void flushGroup() throws IOException {
+			column.reset();
+			column.writeVarint(rows);
+			put(column.bytes, column.size);
+			for (int i = 0; i < columns.size(); i++) {
+				column.reset();
+				if (codes[i] != null) {
+					encodeText(i);
+				} else {
+					encodeNumbers(i);
+				}
+				ByteSink length = new ByteSink();
+				length.writeVarint(column.size);
+				put(length.bytes, length.size);
+				put(column.bytes, column.size);
+			}
+			rows = 0;
+		}
+
+		private void encodeNumbers(int i) {
+			for (int bit = 0; bit < rows; bit += 8) {
+				int mask = 0;
+				for (int j = bit; j < Math.min(rows, bit + 8); j++) {
+					mask |= present[i][j] ? 1 << (j - bit) : 0;
+				}
+				column.write((byte) mask);
+			}
+			long previous = 0;
+			for (int j = 0; j < rows; j++) {
+				if (present[i][j]) {
+					long delta = numbers[i][j] - previous;
+					column.writeVarint((delta << 1) ^ (delta >> 63));
+					previous = numbers[i][j];
+				}
+			}
+		}
+
+		private void encodeText(int i) {
+			Map<String, Integer> dictionary = dictionaries.get(i);
+			String[] values = new String[dictionary.size()];
+			for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+				values[entry.getValue() - 1] = entry.getKey();
+			}
+			column.writeVarint(values.length);
+			for (String value : values) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				column.writeVarint(bytes.length);
+				column.write(bytes, bytes.length);
+			}
+			for (int j = 0; j < rows; j++) {
+				column.writeVarint(codes[i][j]);
+			}
+			dictionary.clear();
+		}
+	}
+
+	/**
+	 * Growable byte array reused for each encoded column chunk
+	 */
+	private static final class ByteSink {
+		private byte[] bytes = new byte[1024];
+		private int size;
+
+		void reset() {
+			size = 0;
+		}
+
+		void write(byte b) {
+			ensure(1);
+			bytes[size++] = b;
+		}
+
+		void write(byte[] source, int length) {
+			ensure(length);
+			System.arraycopy(source, 0, bytes, size, length);
+			size += length;
+		}
+
+		void writeVarint(long value) {
+			ensure(10);
+			while ((value & ~0x7FL) != 0) {
+				bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			bytes[size++] = (byte) value;
+		}
+
+		private void ensure(int extra) {
+			if (size + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+			}
+		}
+	}
+}
@@ -4,14 +4,21 @@ import persistance.DBManager;
 import persistance.DealershipLayer;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 
 /**
  * Car Dealership System
@@ -26,14 +33,31 @@ import java.util.List;
  */
 public class Dealership implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    /**
+     * User ID that sales made outside a logged-in session are attributed to
+     */
+    public static final int DEFAULT_SALESPERSON_ID = 1;
+
+    // sale_date is kept for older readers; it is derived from the same instant as sold_at_ms
+    private static final String INSERT_SALE_SQL = "INSERT INTO Sales (vehicle_id, user_id, buyer_name, buyer_contact, "
+            + "sale_price_cents, sold_at_ms, sale_date) VALUES (?, ?, ?, ?, ?, ?, datetime(? / 1000, 'unixepoch'))";
+
     private String name;
     private String location;
-    private int nv;
-    private int ns;
-    private Vehicle[] inventory;
-    private Sale[] sales;
+    private int capacity;
+    private transient SalesLedger sales = new SalesLedger();
     private int nextId;
-    private transient DealershipLayer m_dealershipLayer;
+    private transient volatile DealershipLayer m_dealershipLayer;
+    private transient InventoryOverlay overlay;
+    private transient DealershipStats stats = new DealershipStats();
+    private transient VehicleLocks vehicleLocks = new VehicleLocks();
+    // Serializes writers to the inventory and sales ledger; readers use the published snapshot instead
+    private transient StampedLock lock = new StampedLock();
+    // The inventory and its indexes; writers replace it under the write lock, readers never lock
+    private transient volatile InventorySnapshot snapshot = InventorySnapshot.empty();
+    // Slots claimed by adds whose insert is still running; guarded by the write lock
+    private transient int pendingAdds;
 
     /**
      * Constructor for the Dealership class
@@ -46,14 +70,67 @@ public class Dealership implements Serializable {
     public Dealership(String name, String location, int maxInventory) throws SQLException {
         this.name = name;
         this.location = location;
-        inventory = new Vehicle[maxInventory];
-        sales = new Sale[maxInventory * 2];
-        nv = 0;
-        ns = 0;
+        capacity = maxInventory;
         nextId = 1; // Changed from 0 to match repository's logic for IDs starting at 1
         m_dealershipLayer = new DealershipLayer(name, location, maxInventory);
     }
 
+    /**
+     * Constructor for the Dealership class
+     * Binds to a dealership record that already exists in the database instead of inserting a new one
+     *
+     * @param layer - the dealership layer populated by {@link DealershipLayer#existsAndSet()}
+     */
+    public Dealership(DealershipLayer layer) {
+        this.name = layer.getNname();
+        this.location = layer.getLocation();
+        capacity = layer.getCapacity();
+        nextId = 1;
+        m_dealershipLayer = layer;
+    }
+
+    /**
+     * The saved form still holds the sales as a count and an array, so existing save files keep loading
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("name", String.class),
+            new ObjectStreamField("location", String.class),
+            new ObjectStreamField("nv", int.class),
+            new ObjectStreamField("ns", int.class),
+            new ObjectStreamField("inventory", Vehicle[].class),
+            new ObjectStreamField("sales", Sale[].class),
+            new ObjectStreamField("nextId", int.class)
+    };
+
+    /**
+     * Custom serialization method writing the inventory and sales ledger out as arrays
+     *
+     * @param out - the object output stream for serialization
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        long stamp = lock.readLock();
+        try {
+            Sale[] saved = new Sale[Math.toIntExact(sales.size())];
+            int i = 0;
+            for (Sale sale : sales) {
+                saved[i++] = sale;
+            }
+            InventorySnapshot current = snapshot;
+            ObjectOutputStream.PutField fields = out.putFields();
+            fields.put("name", name);
+            fields.put("location", location);
+            fields.put("nv", current.size());
+            fields.put("ns", saved.length);
+            fields.put("inventory", Arrays.copyOf(current.getVehicles(), capacity));
+            fields.put("sales", saved);
+            fields.put("nextId", nextId);
+            out.writeFields();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
      * Custom deserialization method to reinitialize transient fields
      *
@@ -61,15 +138,59 @@ public class Dealership implements Serializable {
      * @throws IOException if an I/O error occurs
      * @throws ClassNotFoundException if the class of a serialized object cannot be found
      */
-    private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
-        in.defaultReadObject();
-        try {
-            if (name != null && location != null && inventory != null) {
-                m_dealershipLayer = new DealershipLayer(name, location, inventory.length);
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        name = (String) fields.get("name", null);
+        location = (String) fields.get("location", null);
+        int nv = fields.get("nv", 0);
+        Vehicle[] inventory = (Vehicle[]) fields.get("inventory", null);
+        capacity = inventory.length;
+        nextId = fields.get("nextId", 1);
+        Sale[] saved = (Sale[]) fields.get("sales", null);
+        int ns = fields.get("ns", 0);
+        sales = new SalesLedger();
+        for (int i = 0; saved != null && i < ns; i++) {
+            sales.append(saved[i]);
+        }
+        stats = new DealershipStats();
+        vehicleLocks = new VehicleLocks();
+        lock = new StampedLock();
+        stats.resetSales(sales.size(), sales.getTotalPriceCents());
+        // Indexes are transient, so rebuild them from the restored inventory
+        snapshot = InventorySnapshot.of(inventory, nv);
+        countVehicles(snapshot);
+        // The database record is bound later, by attach() or on first use, so restoring never inserts a row
+        m_dealershipLayer = null;
+    }
+
+    /**
+     * Bind a dealership restored from save.data to the record found at startup
+     *
+     * @param layer - the dealership layer populated by {@link DealershipLayer#existsAndSet()}
+     */
+    public void attach(DealershipLayer layer) {
+        m_dealershipLayer = layer;
+    }
+
+    /**
+     * Database record of this dealership
+     * A restored dealership that was never attached looks its record up by name and location
+     */
+    private DealershipLayer layer() {
+        DealershipLayer layer = m_dealershipLayer;
+        if (layer == null) {
+            synchronized (this) {
+                if (m_dealershipLayer == null) {
+                    try {
+                        m_dealershipLayer = DealershipLayer.findOrCreate(name, location, capacity);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Could not find the database record of " + name, e);
+                    }
+                }
+                layer = m_dealershipLayer;
             }
-        } catch (SQLException e) {
-            throw new IOException("Failed to reinitialize DealershipLayer during deserialization", e);
         }
+        return layer;
     }
 
     /**
@@ -81,74 +202,207 @@ public class Dealership implements Serializable {
         return this.name;
     }
 
+    /**
+     * Getter method for the dealership location
+     *
+     * @return the dealership location
+     */
+    public String getLocation() {
+        return this.location;
+    }
+
+    /**
+     * Getter method for the dealership inventory capacity
+     *
+     * @return the maximum number of vehicles the inventory can hold
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter method for the database ID of the dealership
+     *
+     * @return the dealership ID used by the Vehicle table
+     */
+    public int getDealershipId() {
+        return layer().getDealershipId();
+    }
+
     /**
      * Add a vehicle to the dealership inventory
+     * A slot is reserved before the insert so concurrent adds cannot overfill the inventory, and the
+     * new ID comes back from the insert itself rather than a separate last_insert_rowid() query
      *
      * @param vehicle - the vehicle to be added
      * @return true if the vehicle was successfully added, false otherwise
      * @throws SQLException if a database access error occurs
      */
     public boolean addVehicle(Vehicle vehicle) throws SQLException {
-        if (nv == inventory.length) {
+        VehicleType<?> type = VehicleTypeRegistry.of(vehicle);
+        if (type == null) {
+            throw new IllegalArgumentException("Unregistered vehicle type: " + vehicle.getClass().getName());
+        }
+        if (reserveSlots(1) == 0) {
             return false;
         }
 
-        // Don't assign ID yet - we'll get it from the database
-        int vehicleIndex = nv;
-        
-        // Add to in-memory inventory
-        if (vehicle instanceof Car) {
-            inventory[nv++] = new Car((Car) vehicle);
-        } else if (vehicle instanceof Motorcycle) {
-            inventory[nv++] = new Motorcycle((Motorcycle) vehicle);
+        Vehicle copy = type.copy(vehicle);
+        int[] generatedId = new int[1];
+        try {
+            String query = "INSERT INTO Vehicle (make, model, color, year, price, type, " +
+                    type.getAttributeColumn() + ", dealerships_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING vehicle_id";
+            int dealershipId = getDealershipId();
+            DBManager.getInstance().runInTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setString(1, vehicle.getMake());
+                    stmt.setString(2, vehicle.getModel());
+                    stmt.setString(3, vehicle.getColor());
+                    stmt.setInt(4, vehicle.getYear());
+                    stmt.setDouble(5, vehicle.getPrice());
+                    stmt.setString(6, type.getName());
+                    stmt.setString(7, type.getAttribute(vehicle));
+                    stmt.setInt(8, dealershipId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        generatedId[0] = rs.getInt(1);
+                    }
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            // Nothing reached the inventory, so only the reservation needs giving back
+            releaseSlots(1);
+            throw e;
         }
 
+        // Update both the original vehicle and the inventory copy with the database ID
+        vehicle.setId(generatedId[0]);
+        copy.setId(generatedId[0]);
+        long stamp = lock.writeLock();
         try {
-            // Persist to database without specifying vehicle_id
-            DBManager db = DBManager.getInstance();
-            String query = "INSERT INTO Vehicle (make, model, color, year, price, " +
-                    (vehicle instanceof Car ? "car_type" : "handlebar_type") +
-                    ", dealerships_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            Object[] params = {
-                vehicle.getMake(), vehicle.getModel(), vehicle.getColor(),
-                vehicle.getYear(), vehicle.getPrice(),
-                vehicle instanceof Car ? ((Car) vehicle).getType() : ((Motorcycle) vehicle).getHandlebarType(),
-                m_dealershipLayer.getDealershipId()
-            };
-            
-            // Execute the insert
-            db.runInsert(query, params);
-            
-            // Get the auto-generated ID from the database
-            ResultSet rs = db.runQuery("SELECT last_insert_rowid()");
-            if (rs.next()) {
-                int generatedId = rs.getInt(1);
-                
-                // Update both the original vehicle and the inventory copy with the database ID
-                vehicle.setId(generatedId);
-                inventory[vehicleIndex].setId(generatedId);
-                
-                // Update nextId to be greater than any assigned ID to avoid future conflicts
-                if (generatedId >= nextId) {
-                    nextId = generatedId + 1;
+            pendingAdds--;
+            placeAdded(copy);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return true;
+    }
+
+    /**
+     * Claim free inventory slots for vehicles about to be inserted
+     *
+     * @param wanted - the number of slots needed
+     * @return the number claimed, fewer than wanted if the inventory is nearly full
+     */
+    private int reserveSlots(int wanted) {
+        long stamp = lock.writeLock();
+        try {
+            int granted = Math.max(0, Math.min(wanted, capacity - snapshot.size() - pendingAdds));
+            pendingAdds += granted;
+            return granted;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void releaseSlots(int count) {
+        long stamp = lock.writeLock();
+        try {
+            pendingAdds -= count;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Put a newly inserted vehicle into a reserved slot; the caller holds the write lock
+     */
+    private void placeAdded(Vehicle vehicle) {
+        snapshot = snapshot.withAdded(vehicle);
+        stats.vehicleAdded(VehicleTypeRegistry.of(vehicle).getLabel(), vehicle.getPriceCents());
+        if (overlay != null) {
+            overlay.recordAdded(vehicle.getId());
+        }
+        // Update nextId to be greater than any assigned ID to avoid future conflicts
+        if (vehicle.getId() >= nextId) {
+            nextId = vehicle.getId() + 1;
+        }
+    }
+
+    /**
+     * Add many vehicles in one database transaction
+     * Vehicles are taken in order until the inventory is full; either all of the taken vehicles are
+     * stored or, if the insert fails, none are. Each vehicle passed in gets its new database ID
+     *
+     * @param vehicles - the vehicles to add, all of registered types
+     * @return the number of vehicles added, which is less than requested if the inventory filled up
+     * @throws SQLException if a database access error occurs
+     */
+    public int importVehicles(List<Vehicle> vehicles) throws SQLException {
+        int count = reserveSlots(vehicles.size());
+        if (count == 0) {
+            return 0;
+        }
+        List<String> attributes = VehicleTypeRegistry.attributeColumns();
+        StringBuilder query = new StringBuilder("INSERT INTO Vehicle (make, model, color, year, price, type, ")
+                .append(VehicleTypeRegistry.attributeColumnList(null)).append(", dealerships_id) VALUES (?, ?, ?, ?, ?, ?");
+        for (int i = 0; i <= attributes.size(); i++) {
+            query.append(", ?");
+        }
+        query.append(") RETURNING vehicle_id");
+
+        int[] ids = new int[count];
+        int dealershipId = getDealershipId();
+        try {
+            DBManager.getInstance().runInTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+                    for (int i = 0; i < count; i++) {
+                        Vehicle vehicle = vehicles.get(i);
+                        VehicleType<?> type = VehicleTypeRegistry.of(vehicle);
+                        stmt.setString(1, vehicle.getMake());
+                        stmt.setString(2, vehicle.getModel());
+                        stmt.setString(3, vehicle.getColor());
+                        stmt.setInt(4, vehicle.getYear());
+                        stmt.setDouble(5, vehicle.getPrice());
+                        stmt.setString(6, type.getName());
+                        for (int a = 0; a < attributes.size(); a++) {
+                            stmt.setString(7 + a, attributes.get(a).equals(type.getAttributeColumn())
+                                    ? type.getAttribute(vehicle) : null);
+                        }
+                        stmt.setInt(7 + attributes.size(), dealershipId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            rs.next();
+                            ids[i] = rs.getInt(1);
+                        }
+                    }
                 }
-            }
-            return true;
-        } catch (SQLException e) {
-            // If database operation fails, remove the vehicle from inventory
-            if (vehicleIndex < nv) {
-                // Shift all elements after the failed vehicle one position back
-                for (int i = vehicleIndex; i < nv - 1; i++) {
-                    inventory[i] = inventory[i + 1];
+            });
+        } catch (SQLException | RuntimeException e) {
+            releaseSlots(count);
+            throw e;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            pendingAdds -= count;
+            Vehicle[] copies = new Vehicle[count];
+            for (int i = 0; i < count; i++) {
+                Vehicle vehicle = vehicles.get(i);
+                vehicle.setId(ids[i]);
+                copies[i] = VehicleTypeRegistry.of(vehicle).copy(vehicle);
+                stats.vehicleAdded(VehicleTypeRegistry.of(vehicle).getLabel(), vehicle.getPriceCents());
+                if (overlay != null) {
+                    overlay.recordAdded(ids[i]);
+                }
+                if (ids[i] >= nextId) {
+                    nextId = ids[i] + 1;
                 }
-                // Clear the last element and decrement count
-                inventory[nv - 1] = null;
-                nv--;
             }
-            // Re-throw the exception for proper handling upstream
-            throw e;
+            snapshot = snapshot.withAddedAll(copies, 0, count);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        // No need for additional return statement - the try block returns true if successful
+        return count;
     }
 
     /**
@@ -162,25 +416,51 @@ public class Dealership implements Serializable {
         if (vehicle == null) {
             return false;
         }
-        int index = getIndexFromId(vehicle.id);
-        if (index == -1) {
-            return false;
-        }
+        Lock vehicleLock = vehicleLocks.forId(vehicle.getId());
+        vehicleLock.lock();
+        try {
+            if (!isInInventory(vehicle.getId())) {
+                return false;
+            }
 
-        // Remove from database
-        DBManager db = DBManager.getInstance();
-        db.runUpdate("DELETE FROM Vehicle WHERE vehicle_id = ?", vehicle.getId());
+            // Remove from database
+            DBManager.getInstance().runInTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM Vehicle WHERE vehicle_id = ?")) {
+                    stmt.setInt(1, vehicle.getId());
+                    stmt.executeUpdate();
+                }
+            });
+            long stamp = lock.writeLock();
+            try {
+                dropFromInventory(vehicle.getId());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return true;
+        } finally {
+            vehicleLock.unlock();
+        }
+    }
 
-        // Shift in-memory inventory
-        for (int i = index; i < nv - 1; i++) {
-            inventory[i] = inventory[i + 1];
+    /**
+     * Take a vehicle out of memory, keeping the overlay and statistics in step; the caller holds the write lock
+     *
+     * @param id - the ID of the vehicle, which may already be gone
+     */
+    private void dropFromInventory(int id) {
+        Vehicle vehicle = snapshot.get(id);
+        if (vehicle == null) {
+            return;
         }
-        inventory[--nv] = null; // Clear last slot
-        return true;
+        if (overlay != null) {
+            overlay.recordChanged(id, vehicle);
+        }
+        snapshot = snapshot.without(id);
+        stats.vehicleRemoved(VehicleTypeRegistry.of(vehicle).getLabel(), vehicle.getPriceCents());
     }
 
     /**
-     * Sell a vehicle from the dealership inventory
+     * Sell a vehicle from the dealership inventory on behalf of the default account
      *
      * @param vehicle      - the vehicle to be sold
      * @param buyerName    - the name of the buyer
@@ -189,19 +469,74 @@ public class Dealership implements Serializable {
      * @throws SQLException if a database access error occurs
      */
     public boolean sellVehicle(Vehicle vehicle, String buyerName, String buyerContact) throws SQLException {
-        if (!removeVehicle(vehicle)) {
+        return sellVehicle(vehicle, buyerName, buyerContact, DEFAULT_SALESPERSON_ID);
+    }
+
+    /**
+     * Sell a vehicle from the dealership inventory
+     * The price, salesperson and time are recorded on the sale itself, and the vehicle row is kept
+     * and marked as sold, so sales reports stay correct after the vehicle is edited or removed
+     *
+     * @param vehicle       - the vehicle to be sold
+     * @param buyerName     - the name of the buyer
+     * @param buyerContact  - the contact information of the buyer
+     * @param salespersonId - the user ID of the salesperson making the sale
+     * @return true if the vehicle was successfully sold, false otherwise
+     * @throws SQLException if a database access error occurs
+     */
+    public boolean sellVehicle(Vehicle vehicle, String buyerName, String buyerContact, int salespersonId)
+            throws SQLException {
+        if (vehicle == null) {
             return false;
         }
+        // Holding the vehicle's lock across the check and the insert stops two sessions selling it twice
+        Lock vehicleLock = vehicleLocks.forId(vehicle.getId());
+        vehicleLock.lock();
+        try {
+            if (!isInInventory(vehicle.getId())) {
+                return false;
+            }
+            recordSale(vehicle, buyerName, buyerContact, salespersonId);
+            return true;
+        } finally {
+            vehicleLock.unlock();
+        }
+    }
 
-        // Add to sales in memory
-        sales[ns++] = new Sale(vehicle, buyerName, buyerContact, LocalDate.now());
-
-        // Persist sale to database
-        DBManager db = DBManager.getInstance();
-        db.runInsert("INSERT INTO Sales (vehicle_id, user_id, buyer_name, buyer_contact) VALUES (?, ?, ?, ?)",
-                vehicle.getId(), 1, buyerName, buyerContact); // user_id=1 as placeholder
+    /**
+     * Mark a vehicle sold in the database, then move it from the inventory to the sales ledger
+     * The caller holds the vehicle's lock
+     */
+    private void recordSale(Vehicle vehicle, String buyerName, String buyerContact, int salespersonId)
+            throws SQLException {
+        Sale sale = new Sale(vehicle, buyerName, buyerContact, salespersonId, vehicle.getPriceCents(),
+                System.currentTimeMillis());
 
-        return true;
+        // Mark the vehicle sold and record the sale in one step
+        DBManager.getInstance().runInTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE Vehicle SET is_sold = 1 WHERE vehicle_id = ?")) {
+                stmt.setInt(1, vehicle.getId());
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SALE_SQL)) {
+                stmt.setInt(1, vehicle.getId());
+                stmt.setInt(2, salespersonId);
+                stmt.setString(3, buyerName);
+                stmt.setString(4, buyerContact);
+                stmt.setLong(5, sale.getPriceCents());
+                stmt.setLong(6, sale.getSoldAtMillis());
+                stmt.setLong(7, sale.getSoldAtMillis());
+                stmt.executeUpdate();
+            }
+        });
+        long stamp = lock.writeLock();
+        try {
+            dropFromInventory(vehicle.getId());
+            sales.append(sale);
+            stats.saleRecorded(sale.getPriceCents());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -211,23 +546,102 @@ public class Dealership implements Serializable {
      * @return the index of the vehicle in the inventory, or -1 if not found
      */
     public int getIndexFromId(int id) {
-        for (int i = 0; i < nv; i++) {
-            if (inventory[i] != null && inventory[i].id == id) {
-                return i;
+        return snapshot().indexOf(id);
+    }
+
+    /**
+     * Check for a vehicle in the published snapshot; the caller's vehicle lock keeps the answer current
+     */
+    private boolean isInInventory(int id) {
+        return snapshot.get(id) != null;
+    }
+
+    /**
+     * Getter method for an immutable view of the inventory
+     * Writers publish a new one with every change, so searches run without locking and do not hold up writers
+     *
+     * @return the current snapshot
+     */
+    public InventorySnapshot snapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Start recording inventory changes as a test-mode overlay
+     * Test mode starts from a copy of the live database, so the in-memory inventory and indexes
+     * are shared as they are rather than reloaded
+     */
+    public void enterTestMode() {
+        long stamp = lock.writeLock();
+        try {
+            if (overlay == null) {
+                overlay = new InventoryOverlay(sales.size(), nextId);
             }
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return -1;
     }
-    
+
     /**
-     * Refreshes the dealership data when test mode is toggled
-     * Call this when entering or exiting test mode
-     * 
+     * Undo every inventory change made since {@link #enterTestMode()}
+     * Indexes are only touched for the vehicles the overlay recorded
+     */
+    public void exitTestMode() {
+        long stamp = lock.writeLock();
+        try {
+            InventoryOverlay journal = overlay;
+            overlay = null;
+            if (journal == null) {
+                return;
+            }
+
+            // Drop vehicles added in test mode and swap edited copies back for the live objects
+            InventorySnapshot current = snapshot;
+            List<Vehicle> restored = new ArrayList<>();
+            for (Map.Entry<Integer, Vehicle> change : journal.getOriginals().entrySet()) {
+                Vehicle vehicle = current.get(change.getKey());
+                Vehicle original = change.getValue();
+                if (vehicle == null) {
+                    if (original != null) {
+                        restored.add(original);
+                    }
+                } else if (original == null) {
+                    current = current.without(vehicle.getId());
+                    stats.vehicleRemoved(VehicleTypeRegistry.of(vehicle).getLabel(), vehicle.getPriceCents());
+                } else {
+                    current = current.withReplaced(original);
+                    stats.vehicleRepriced(vehicle.getPriceCents(), original.getPriceCents());
+                }
+            }
+            // Whatever is left was removed or sold in test mode. Every vehicle added in test mode was
+            // dropped above, so putting these back cannot take the lot past what it held on entry
+            for (Vehicle original : restored) {
+                current = current.withAdded(original);
+                stats.vehicleAdded(VehicleTypeRegistry.of(original).getLabel(), original.getPriceCents());
+            }
+            snapshot = current;
+
+            sales.truncate(journal.getSalesCount());
+            stats.resetSales(sales.size(), sales.getTotalPriceCents());
+            nextId = journal.getNextId();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Load the inventory from the current database connection
+     * Replaces whatever is currently held in memory
+     *
      * @throws SQLException if a database access error occurs
      */
-    public void refreshOnTestModeChange() throws SQLException {
-        // Clear the inventory and reload from the new database connection
-        reloadInventoryFromDatabase();
+    public void loadInventory() throws SQLException {
+        long stamp = lock.writeLock();
+        try {
+            reloadInventoryFromDatabase();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -239,7 +653,7 @@ public class Dealership implements Serializable {
     public Vehicle[] getVehicles() {
         // No need to reload every time - the inventory is already maintained by add/remove/sell
         // operations through the correct database connection
-        return inventory;
+        return snapshot().getVehicles();
     }
     
     /**
@@ -249,89 +663,182 @@ public class Dealership implements Serializable {
      * @throws SQLException if a database access error occurs
      */
     private void reloadInventoryFromDatabase() throws SQLException {
-        // Clear existing inventory
-        for (int i = 0; i < inventory.length; i++) {
-            inventory[i] = null;
-        }
-        nv = 0;
-        
-        // Reload from current database connection
-        DBManager db = DBManager.getInstance();
-        ResultSet rs = db.runQuery("SELECT * FROM Vehicle WHERE dealerships_id = ? AND is_sold = 0", 
-                                 m_dealershipLayer.getDealershipId());
-        
-        while (rs.next() && nv < inventory.length) {
-            int id = rs.getInt("vehicle_id");
-            String make = rs.getString("make");
-            String model = rs.getString("model");
-            String color = rs.getString("color");
-            int year = rs.getInt("year");
-            double price = rs.getDouble("price");
-            
-            // Determine if it's a car or motorcycle based on which specific field is not null
-            String carType = rs.getString("car_type");
-            String handlebarType = rs.getString("handlebar_type");
-            
-            if (carType != null) {
-                // It's a car
-                Car car = new Car(make, model, color, year, price, carType);
-                car.setId(id);
-                inventory[nv++] = car;
-            } else if (handlebarType != null) {
-                // It's a motorcycle
-                Motorcycle motorcycle = new Motorcycle(make, model, color, year, price, handlebarType);
-                motorcycle.setId(id);
-                inventory[nv++] = motorcycle;
+        // Stream from the current database connection into a fresh array; the snapshot and its
+        // indexes are built once afterwards rather than row by row
+        Vehicle[] loaded = new Vehicle[capacity];
+        int[] count = new int[1];
+        int rows = new InventoryLoader(layer().getDealershipId()).load(vehicle -> {
+            if (count[0] == loaded.length) {
+                return false;
             }
-            
+            loaded[count[0]++] = vehicle;
             // Update nextId to be greater than any loaded ID
-            if (id >= nextId) {
-                nextId = id + 1;
+            if (vehicle.getId() >= nextId) {
+                nextId = vehicle.getId() + 1;
             }
+            return true;
+        });
+        snapshot = InventorySnapshot.of(loaded, count[0]);
+        stats.clearInventory();
+        countVehicles(snapshot);
+        if (count[0] == capacity && rows > count[0]) {
+            System.err.println("Inventory capacity of " + capacity + " reached: " + (rows - count[0])
+                    + " unsold vehicles in the database were not loaded");
         }
     }
 
     /**
      * Find a vehicle by its ID
+     * The vehicle is shared with every reader; to change it, edit a copy and pass that to {@link #updateVehicle}
      *
      * @param id - the vehicle ID to search for
      * @return the vehicle with the specified ID, or null if not found
      */
     public Vehicle getVehicleFromId(int id) {
-        for (int i = 0; i < nv; i++) {
-            if (inventory[i] != null && inventory[i].id == id) {
-                return inventory[i];
+        return snapshot().get(id);
+    }
+
+    /**
+     * Replace a vehicle with an edited copy of it
+     * Lets a caller collect new values on its own copy without holding any lock, then swap the copy
+     * in at once. In test mode the vehicle being replaced is kept so it can be restored
+     *
+     * @param edited - a copy of an inventory vehicle, with the same ID, holding the new values
+     * @return true if the vehicle was replaced, false if it is no longer in the inventory
+     */
+    public boolean updateVehicle(Vehicle edited) {
+        Lock vehicleLock = vehicleLocks.forId(edited.getId());
+        vehicleLock.lock();
+        try {
+            long stamp = lock.writeLock();
+            try {
+                Vehicle current = snapshot.get(edited.getId());
+                if (current == null) {
+                    return false;
+                }
+                if (overlay != null && !overlay.isTouched(edited.getId())) {
+                    overlay.recordChanged(edited.getId(), current);
+                }
+                snapshot = snapshot.withReplaced(edited);
+                stats.vehicleRepriced(current.getPriceCents(), edited.getPriceCents());
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
             }
+        } finally {
+            vehicleLock.unlock();
+        }
+    }
+
+    /**
+     * Add every vehicle of a freshly built snapshot to the inventory statistics
+     *
+     * @param built - the snapshot holding the vehicles
+     */
+    private void countVehicles(InventorySnapshot built) {
+        for (Vehicle vehicle : built.getVehicles()) {
+            stats.vehicleAdded(VehicleTypeRegistry.of(vehicle).getLabel(), vehicle.getPriceCents());
         }
-        return null;
     }
 
     /**
-     * Count vehicles within a specified budget
+     * Search the inventory with optional filters
+     * A null filter is ignored; make and model are compared case-insensitively. Misspelled or
+     * partial words such as "toyta cam" are looked up with {@link #fuzzySearch} instead
+     *
+     * @param make - the make to match, or null
+     * @param model - the model to match, or null
+     * @param minYear - the minimum manufacturing year, or null
+     * @param maxPrice - the maximum price, or null
+     * @return list of vehicles matching every given filter
+     */
+    public List<Vehicle> searchVehicles(String make, String model, Integer minYear, Double maxPrice) {
+        return searchVehicles(make, model, minYear, null, maxPrice);
+    }
+
+    /**
+     * Search the inventory with optional filters, including a price range
+     * A null filter is ignored; make and model are compared case-insensitively
      *
-     * @param budget - the maximum price for vehicles
-     * @return the number of vehicles within the budget
+     * @param make - the make to match, or null
+     * @param model - the model to match, or null
+     * @param minYear - the minimum manufacturing year, or null
+     * @param minPrice - the minimum price, or null
+     * @param maxPrice - the maximum price, or null
+     * @return list of vehicles matching every given filter, cheapest first when a price bound is
+     *         given and in inventory order otherwise
+     */
+    public List<Vehicle> searchVehicles(String make, String model, Integer minYear, Double minPrice, Double maxPrice) {
+        return snapshot().search(make, model, minYear, minPrice, maxPrice);
+    }
+
+    /**
+     * Stream the vehicles matching the filters of {@link #searchVehicles} one at a time
+     * Matches are handed to the consumer as they are found in the current snapshot, so callers
+     * writing them out never hold the whole result
+     *
+     * @param make - the make to match, or null
+     * @param model - the model to match, or null
+     * @param minYear - the minimum manufacturing year, or null
+     * @param minPrice - the minimum price, or null
+     * @param maxPrice - the maximum price, or null
+     * @param consumer - receives each match in the order searchVehicles would return it
+     */
+    public void forEachVehicle(String make, String model, Integer minYear, Double minPrice, Double maxPrice,
+            Consumer<Vehicle> consumer) {
+        snapshot().forEachMatch(make, model, minYear, minPrice, maxPrice, consumer);
+    }
+
+    /**
+     * Free-text search over make, model, color and type
+     *
+     * @param query - the words to look for
+     * @return the matching vehicles, best match first
+     */
+    public List<Vehicle> fuzzySearch(String query) {
+        return snapshot().fuzzySearch(query);
+    }
+
+    /**
+     * Count cars within a specified budget
+     *
+     * @param budget - the maximum price for cars
+     * @return the number of cars within the budget
      */
     public int carBudget(double budget) {
-        int total = 0; // declare the variable "total" here
-        // method implementation...
-        return total; // return the total number of cars within the budget
+        return snapshot().countCarsWithin(budget);
     }
 
     /**
      * Find cars within a specified budget
      *
      * @param budget - the maximum price for cars
-     * @return array of cars within the specified budget
+     * @return array of cars within the specified budget, cheapest first
      */
     public Car[] carsWithinBudget(double budget) {
-        List<Car> cars = new ArrayList<>();
-        for (Vehicle vehicle : inventory) {
-            if (vehicle instanceof Car && vehicle.getPrice() <= budget) {
-                cars.add((Car) vehicle);
-            }
-        }
-        return cars.toArray(new Car[0]);
+        return snapshot().carsWithin(budget);
+    }
+
+    /**
+     * Count vehicles of any kind priced within a range
+     *
+     * @param minPrice - the lowest price to include
+     * @param maxPrice - the highest price to include
+     * @return the number of vehicles in the range
+     */
+    public int countInPriceRange(double minPrice, double maxPrice) {
+        return snapshot().countInPriceRange(minPrice, maxPrice);
+    }
+
+    /**
+     * Find vehicles of any kind priced within a range
+     *
+     * @param minPrice - the lowest price to include
+     * @param maxPrice - the highest price to include
+     * @return array of vehicles in the range, cheapest first
+     */
+    public Vehicle[] vehiclesInPriceRange(double minPrice, double maxPrice) {
+        return snapshot().inPriceRange(minPrice, maxPrice);
     }
 
     /**
@@ -345,47 +852,12 @@ public class Dealership implements Serializable {
         
         try {
             // Load sales from the database to ensure we're using the right connection
-            DBManager db = DBManager.getInstance();
-            ResultSet rs = db.runQuery(
-                "SELECT s.*, v.make, v.model, v.color, v.year, v.price, v.car_type, v.handlebar_type " +
-                "FROM Sales s JOIN Vehicle v ON s.vehicle_id = v.vehicle_id " +
-                "WHERE v.dealerships_id = ?",
-                m_dealershipLayer.getDealershipId()
-            );
-            
-            boolean hasSales = false;
-            
-            while (rs.next()) {
-                hasSales = true;
-                int vehicleId = rs.getInt("vehicle_id");
-                String make = rs.getString("make");
-                String model = rs.getString("model");
-                String color = rs.getString("color");
-                int year = rs.getInt("year");
-                double price = rs.getDouble("price");
-                String carType = rs.getString("car_type");
-                String handlebarType = rs.getString("handlebar_type");
-                
-                Vehicle vehicle;
-                if (carType != null) {
-                    vehicle = new Car(make, model, color, year, price, carType);
-                } else {
-                    vehicle = new Motorcycle(make, model, color, year, price, handlebarType);
-                }
-                vehicle.setId(vehicleId);
-                
-                String buyerName = rs.getString("buyer_name");
-                String buyerContact = rs.getString("buyer_contact");
-                String saleDate = rs.getString("sale_date");
-                
-                string.append("-------------------\n")
-                      .append(vehicle.toString()).append("\n")
-                      .append("Buyer Name: ").append(buyerName).append("\n")
-                      .append("Buyer Contact: ").append(buyerContact).append("\n")
-                      .append("Sale Date: ").append(saleDate).append("\n");
-            }
-            
-            if (!hasSales) {
+            int[] count = new int[1];
+            forEachSale(sale -> {
+                count[0]++;
+                appendSale(string, sale);
+            });
+            if (count[0] == 0) {
                 return "No sales recorded.";
             }
             
@@ -394,31 +866,84 @@ public class Dealership implements Serializable {
             e.printStackTrace();
             
             // Fallback to in-memory sales if DB access fails
-            if (ns == 0) {
-                return "No sales recorded.";
-            }
-            for (int i = 0; i < ns; i++) {
-                string.append("-------------------\n")
-                      .append(sales[i].getVehicle().toString()).append("\n")
-                      .append("Buyer Name: ").append(sales[i].getBuyerName()).append("\n")
-                      .append("Buyer Contact: ").append(sales[i].getBuyerContact()).append("\n")
-                      .append("Sale Date: ").append(sales[i].getSaleDate()).append("\n");
+            long stamp = lock.readLock();
+            try {
+                if (sales.size() == 0) {
+                    return "No sales recorded.";
+                }
+                for (Sale sale : sales) {
+                    appendSale(string, sale);
+                }
+            } finally {
+                lock.unlockRead(stamp);
             }
         }
         
         return string.append("-------------------\n").toString();
     }
 
+    private static void appendSale(StringBuilder string, Sale sale) {
+        string.append("-------------------\n")
+              .append(sale.getVehicle().toString()).append("\n")
+              .append("Sale Price: ").append(Money.format(sale.getPriceCents())).append("\n")
+              .append("Buyer Name: ").append(sale.getBuyerName()).append("\n")
+              .append("Buyer Contact: ").append(sale.getBuyerContact()).append("\n")
+              .append("Sale Date: ").append(sale.getSaleDate()).append("\n");
+    }
+
+    /**
+     * Stream the dealership's sales history from the database one sale at a time
+     * Rows are handed to the consumer as they are read, so callers never hold the whole history
+     *
+     * @param consumer - receives each sale in database order
+     * @throws SQLException if a database access error occurs
+     */
+    public void forEachSale(Consumer<Sale> consumer) throws SQLException {
+        DBManager db = DBManager.getInstance();
+        ResultSet rs = db.runQuery(
+            "SELECT s.vehicle_id, s.user_id, s.buyer_name, s.buyer_contact, s.sale_price_cents, s.sold_at_ms, " +
+            "v.make, v.model, v.color, v.year, v.price, v.type, " + VehicleTypeRegistry.attributeColumnList("v") + " " +
+            "FROM Sales s JOIN Vehicle v ON s.vehicle_id = v.vehicle_id " +
+            "WHERE v.dealerships_id = ? ORDER BY s.sale_id",
+            layer().getDealershipId()
+        );
+        try {
+            while (rs.next()) {
+                VehicleType<?> type = VehicleTypeRegistry.byName(rs.getString("type"));
+                if (type == null) {
+                    continue;
+                }
+                Vehicle vehicle = type.create(rs.getString("make"), rs.getString("model"), rs.getString("color"),
+                        rs.getInt("year"), rs.getDouble("price"), rs.getString(type.getAttributeColumn()));
+                vehicle.setId(rs.getInt("vehicle_id"));
+
+                // Sales recorded before prices were captured fall back to the vehicle's price
+                long priceCents = rs.getLong("sale_price_cents");
+                if (rs.wasNull()) {
+                    priceCents = vehicle.getPriceCents();
+                }
+                consumer.accept(new Sale(vehicle, rs.getString("buyer_name"), rs.getString("buyer_contact"),
+                        rs.getInt("user_id"), priceCents, rs.getLong("sold_at_ms")));
+            }
+        } finally {
+            rs.close();
+        }
+    }
+
     /**
      * Generate formatted information about the dealership for GUI display
      *
      * @return formatted string containing dealership information
      */
     public String getInfoGUI() {
-        return "Dealership name: [" + name + "]\nLocation: [" + location + "]\nInventory Size: [" + inventory.length
-                + "]\n\nAvailable space: " + (inventory.length - nv) + "\nTotal Cars: " + getTotalCars()
-                + "\nTotal Motorcycles: " + getTotalMotorcycles() + "\n\nTotal sales profit: " + salesProfit()
-                + "\nTotal vehicles sold: " + ns;
+        DealershipStats.Snapshot snapshot = stats.snapshot();
+        return "Dealership name: [" + name + "]\nLocation: [" + location + "]\nInventory Size: [" + capacity
+                + "]\n\nAvailable space: " + (capacity - snapshot.getInventoryCount())
+                + "\nTotal Cars: " + snapshot.getVehicleCount(VehicleTypeRegistry.CAR.getLabel())
+                + "\nTotal Motorcycles: " + snapshot.getVehicleCount(VehicleTypeRegistry.MOTORCYCLE.getLabel())
+                + "\nInventory value: " + Money.format(snapshot.getInventoryValueCents())
+                + "\n\nTotal sales profit: " + Money.format(snapshot.getRevenueCents())
+                + "\nTotal vehicles sold: " + snapshot.getSalesCount();
     }
 
     /**
@@ -426,14 +951,23 @@ public class Dealership implements Serializable {
      *
      * @return true if the inventory is full, false otherwise
      */
-    public boolean isFull() { return nv == inventory.length; }
+    public boolean isFull() { return getInventoryCount() == capacity; }
     
     /**
      * Check if the dealership inventory is empty
      *
      * @return true if the inventory is empty, false otherwise
      */
-    public boolean isEmpty() { return nv == 0; }
+    public boolean isEmpty() { return getInventoryCount() == 0; }
+
+    /**
+     * Count the vehicles currently in the inventory
+     *
+     * @return the number of vehicles in the inventory
+     */
+    public int getInventoryCount() {
+        return snapshot.size();
+    }
     
     /**
      * Count the total number of cars in the inventory
@@ -441,9 +975,7 @@ public class Dealership implements Serializable {
      * @return the number of cars in the inventory
      */
     public int getTotalCars() {
-        int total = 0;
-        for (int i = 0; i < nv; i++) if (inventory[i] instanceof Car) total++;
-        return total;
+        return stats.getVehicleCount(VehicleTypeRegistry.CAR.getLabel());
     }
     
     /**
@@ -452,9 +984,7 @@ public class Dealership implements Serializable {
      * @return the number of motorcycles in the inventory
      */
     public int getTotalMotorcycles() {
-        int total = 0;
-        for (int i = 0; i < nv; i++) if (inventory[i] instanceof Motorcycle) total++;
-        return total;
+        return stats.getVehicleCount(VehicleTypeRegistry.MOTORCYCLE.getLabel());
     }
 
     /**
@@ -464,29 +994,27 @@ public class Dealership implements Serializable {
      * @return array of cars matching the specified type
      */
     public Car[] searchCar(String type) {
-        // Implement the logic to search for cars by type
-        // For example:
-        Car[] cars = new Car[nv];
-        int count = 0;
-        for (int i = 0; i < nv; i++) {
-            if (inventory[i] instanceof Car && ((Car) inventory[i]).getType().equals(type)) {
-                cars[count++] = (Car) inventory[i];
-            }
-        }
-        Car[] result = new Car[count];
-        System.arraycopy(cars, 0, result, 0, count);
-        return result;
+        return snapshot().carsOfType(type);
     }
 
     /**
-     * Calculate the total profit from all sales
+     * Getter method for the running summary counters
      *
-     * @return the total sales profit
+     * @return the counters, updated on every inventory change and sale
      */
-    private int salesProfit() {
-        int total = 0;
-        for (int i = 0; i < ns; i++) total += sales[i].getVehicle().getPrice();
-        return total;
+    public DealershipStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Getter method for the in-memory sales ledger
+     *
+     * The ledger itself is not thread-safe; iterate it only while no sale can be made
+     *
+     * @return the sales made since the dealership was created or restored, oldest first
+     */
+    public SalesLedger getSales() {
+        return sales;
     }
 
     /**
@@ -533,6 +1061,7 @@ public class Dealership implements Serializable {
         DBManager db = DBManager.getInstance();
         String query = "UPDATE users SET password = ?, name = ?, email = ?, phone = ?, is_active = ? WHERE user_id = ?";
         db.runUpdate(query, user.password, user.name, user.email, user.phone, user.isActive ? 1 : 0, user.getId());
+        UserDirectory.getInstance().refresh(user.getId());
     }
 
     public void addPasswordResetRequest(User user) throws SQLException {
@@ -548,13 +1077,8 @@ public class Dealership implements Serializable {
      * @throws SQLException if a database access error occurs
      */
     public List<User> getPasswordResetRequests() throws SQLException, Exception {
-			DBManager db = DBManager.getInstance();
 			List<User> requests = new ArrayList<>();
-			PreparedStatement stmt = null;
-			ResultSet rs = null;
-			try {
-				stmt = db.Connection().prepareStatement("SELECT username FROM password_reset_requests");
-				rs = stmt.executeQuery();
+			try (ResultSet rs = DBManager.getInstance().runQuery("SELECT username FROM password_reset_requests")) {
 				while (rs.next()) {
 					String username = rs.getString("username");
 					User user = User.loadUser(username);
@@ -562,13 +1086,6 @@ public class Dealership implements Serializable {
 						requests.add(user);
 					}
 				}
-			} finally {
-				if (rs != null) {
-					rs.close();
-				}
-				if (stmt != null) {
-					stmt.close();
-				}
 			}
 			return requests;
 		}
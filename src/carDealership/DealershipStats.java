@@ -0,0 +1,186 @@
+package carDealership;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running summary counters for a dealership
+ * The dealership updates them on every inventory change and sale, so the info panel and the
+ * metrics endpoint read totals directly instead of scanning the inventory. All updates and
+ * {@link #snapshot()} share one lock, so a snapshot never shows half of a change
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class DealershipStats {
+	private final Map<String, Integer> vehiclesByType = new LinkedHashMap<>();
+	private int inventoryCount;
+	private long inventoryValueCents;
+	private long salesCount;
+	private long revenueCents;
+
+	/**
+	 * Count a vehicle entering the inventory
+	 *
+	 * @param type - the vehicle type, e.g. "Car"
+	 * @param priceCents - the vehicle price in cents
+	 */
+	public synchronized void vehicleAdded(String type, long priceCents) {
+		vehiclesByType.merge(type, 1, Integer::sum);
+		inventoryCount++;
+		inventoryValueCents += priceCents;
+	}
+
+	/**
+	 * Count a vehicle leaving the inventory
+	 *
+	 * @param type - the vehicle type, e.g. "Car"
+	 * @param priceCents - the price the vehicle was counted at, in cents
+	 */
+	public synchronized void vehicleRemoved(String type, long priceCents) {
+		vehiclesByType.merge(type, -1, Integer::sum);
+		inventoryCount--;
+		inventoryValueCents -= priceCents;
+	}
+
+	/**
+	 * Account for a vehicle whose price was edited
+	 *
+	 * @param oldPriceCents - the price the vehicle was counted at, in cents
+	 * @param newPriceCents - the new price in cents
+	 */
+	public synchronized void vehicleRepriced(long oldPriceCents, long newPriceCents) {
+		inventoryValueCents += newPriceCents - oldPriceCents;
+	}
+
+	/**
+	 * Reset the inventory counters, e.g. before the inventory is reloaded
+	 */
+	public synchronized void clearInventory() {
+		vehiclesByType.replaceAll((type, count) -> 0);
+		inventoryCount = 0;
+		inventoryValueCents = 0;
+	}
+
+	/**
+	 * Count a completed sale
+	 *
+	 * @param priceCents - the sale price in cents
+	 */
+	public synchronized void saleRecorded(long priceCents) {
+		salesCount++;
+		revenueCents += priceCents;
+	}
+
+	/**
+	 * Set the sales counters outright, e.g. after sales are restored or rolled back
+	 *
+	 * @param count - the number of sales
+	 * @param totalCents - the total of their prices in cents
+	 */
+	public synchronized void resetSales(long count, long totalCents) {
+		salesCount = count;
+		revenueCents = totalCents;
+	}
+
+	/**
+	 * Getter method for the number of vehicles of one type
+	 *
+	 * @param type - the vehicle type, e.g. "Car"
+	 * @return the number of vehicles of that type in the inventory
+	 */
+	public synchronized int getVehicleCount(String type) {
+		return vehiclesByType.getOrDefault(type, 0);
+	}
+
+	/**
+	 * Take a consistent copy of every counter
+	 *
+	 * @return the counters as of this moment
+	 */
+	public synchronized Snapshot snapshot() {
+		return new Snapshot(new LinkedHashMap<>(vehiclesByType), inventoryCount, inventoryValueCents, salesCount,
+				revenueCents);
+	}
+
+	/**
+	 * Immutable copy of the counters at one moment
+	 */
+	public static final class Snapshot {
+		private final Map<String, Integer> vehiclesByType;
+		private final int inventoryCount;
+		private final long inventoryValueCents;
+		private final long salesCount;
+		private final long revenueCents;
+
+		private Snapshot(Map<String, Integer> vehiclesByType, int inventoryCount, long inventoryValueCents,
+				long salesCount, long revenueCents) {
+			this.vehiclesByType = Collections.unmodifiableMap(vehiclesByType);
+			this.inventoryCount = inventoryCount;
+			this.inventoryValueCents = inventoryValueCents;
+			this.salesCount = salesCount;
+			this.revenueCents = revenueCents;
+		}
+
+		/**
+		 * Getter method for the vehicle counts per type
+		 *
+		 * @return the number of vehicles of each type, in the order the types were first seen
+		 */
+		public Map<String, Integer> getVehiclesByType() {
+			return vehiclesByType;
+		}
+
+		/**
+		 * Getter method for the number of vehicles of one type
+		 *
+		 * @param type - the vehicle type, e.g. "Car"
+		 * @return the number of vehicles of that type
+		 */
+		public int getVehicleCount(String type) {
+			return vehiclesByType.getOrDefault(type, 0);
+		}
+
+		/**
+		 * Getter method for the inventory size
+		 *
+		 * @return the number of vehicles in the inventory
+		 */
+		public int getInventoryCount() {
+			return inventoryCount;
+		}
+
+		/**
+		 * Getter method for the inventory value
+		 *
+		 * @return the sum of the prices of every vehicle in the inventory, in cents
+		 */
+		public long getInventoryValueCents() {
+			return inventoryValueCents;
+		}
+
+		/**
+		 * Getter method for the number of sales
+		 *
+		 * @return the number of sales recorded
+		 */
+		public long getSalesCount() {
+			return salesCount;
+		}
+
+		/**
+		 * Getter method for the sales revenue
+		 *
+		 * @return the total of all sale prices, in cents
+		 */
+		public long getRevenueCents() {
+			return revenueCents;
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package carDealership;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import persistance.DBManager;
+
+/**
+ * Filtered, sorted and paged view of the employee list
+ * Filtering by role, active flag and name prefix, sorting and paging all run in SQL, and the
+ * permissions of a whole page are read with one extra query, so showing a page of a large staff
+ * list costs two queries however many employees there are. Queries are immutable; the with
+ * methods return adjusted copies
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class EmployeeQuery {
+
+	/**
+	 * Columns the list can be sorted by; only these are ever placed in the ORDER BY clause
+	 */
+	public enum SortKey {
+		NAME("u.name COLLATE NOCASE"),
+		EMAIL("u.email COLLATE NOCASE"),
+		PHONE("u.phone"),
+		ROLE("r.role_name"),
+		USERNAME("u.username COLLATE NOCASE"),
+		ACTIVE("u.is_active"),
+		JOIN_DATE("u.join_date");
+
+		private final String column;
+
+		SortKey(String column) {
+			this.column = column;
+		}
+	}
+
+	/**
+	 * One employee as shown in the list
+	 */
+	public static final class Row {
+		public final int id;
+		public final String name;
+		public final String email;
+		public final String phone;
+		public final String role;
+		public final String username;
+		public final boolean isActive;
+		public final String permissions;
+
+		Row(int id, String name, String email, String phone, String role, String username, boolean isActive,
+				String permissions) {
+			this.id = id;
+			this.name = name;
+			this.email = email;
+			this.phone = phone;
+			this.role = role;
+			this.username = username;
+			this.isActive = isActive;
+			this.permissions = permissions;
+		}
+	}
+
+	private final String role;
+	private final Boolean active;
+	private final String namePrefix;
+	private final SortKey sortKey;
+	private final boolean ascending;
+
+	/**
+	 * Constructor for a query over all employees, sorted by name
+	 */
+	public EmployeeQuery() {
+		this(null, null, null, SortKey.NAME, true);
+	}
+
+	private EmployeeQuery(String role, Boolean active, String namePrefix, SortKey sortKey, boolean ascending) {
+		this.role = role;
+		this.active = active;
+		this.namePrefix = namePrefix;
+		this.sortKey = sortKey;
+		this.ascending = ascending;
+	}
+
+	/**
+	 * Copy of this query restricted to one role
+	 *
+	 * @param role - "Admin", "Manager" or "Salesperson", or null for all roles
+	 * @return the adjusted query
+	 */
+	public EmployeeQuery withRole(String role) {
+		return new EmployeeQuery(role, active, namePrefix, sortKey, ascending);
+	}
+
+	/**
+	 * Copy of this query restricted to active or inactive accounts
+	 *
+	 * @param active - true for active, false for inactive, or null for both
+	 * @return the adjusted query
+	 */
+	public EmployeeQuery withActive(Boolean active) {
+		return new EmployeeQuery(role, active, namePrefix, sortKey, ascending);
+	}
+
+	/**
+	 * Copy of this query restricted to names starting with a prefix, ignoring case
+	 *
+	 * @param namePrefix - the start of the name, or null or blank for any name
+	 * @return the adjusted query
+	 */
+	public EmployeeQuery withNamePrefix(String namePrefix) {
+		String prefix = namePrefix == null || namePrefix.trim().isEmpty() ? null : namePrefix.trim();
+		return new EmployeeQuery(role, active, prefix, sortKey, ascending);
+	}
+
+	/**
+	 * Copy of this query with a different sort order
+	 *
+	 * @param sortKey - the column to sort by
+	 * @param ascending - true for ascending order
+	 * @return the adjusted query
+	 */
+	public EmployeeQuery withSort(SortKey sortKey, boolean ascending) {
+		return new EmployeeQuery(role, active, namePrefix, sortKey, ascending);
+	}
+
+	/**
+	 * Getter method for the sort column
+	 *
+	 * @return the sort column
+	 */
+	public SortKey getSortKey() {
+		return sortKey;
+	}
+
+	/**
+	 * Getter method for the sort direction
+	 *
+	 * @return true if ascending
+	 */
+	public boolean isAscending() {
+		return ascending;
+	}
+
+	/**
+	 * Count the employees matching the filters
+	 *
+	 * @return the number of matching employees
+	 * @throws SQLException if a database access error occurs
+	 */
+	public int count() throws SQLException {
+		List<Object> params = new ArrayList<>();
+		String sql = "SELECT COUNT(*) FROM users u JOIN roles r ON u.role_id = r.role_id" + where(params);
+		ResultSet rs = DBManager.getInstance().runQuery(sql, params.toArray());
+		try {
+			return rs.next() ? rs.getInt(1) : 0;
+		} finally {
+			rs.close();
+		}
+	}
+
+	/**
+	 * Fetch one page of matching employees in sort order
+	 *
+	 * @param offset - number of matching employees to skip
+	 * @param limit - maximum number of employees to return
+	 * @return the employees on the page
+	 * @throws SQLException if a database access error occurs
+	 */
+	public List<Row> page(int offset, int limit) throws SQLException {
+		List<Object> params = new ArrayList<>();
+		String sql = "SELECT u.user_id, u.name, u.email, u.phone, r.role_name, u.username, u.is_active "
+				+ "FROM users u JOIN roles r ON u.role_id = r.role_id" + where(params)
+				+ " ORDER BY " + sortKey.column + (ascending ? " ASC" : " DESC") + ", u.user_id"
+				+ " LIMIT ? OFFSET ?";
+		params.add(limit);
+		params.add(offset);
+
+		List<Object[]> fields = new ArrayList<>();
+		ResultSet rs = DBManager.getInstance().runQuery(sql, params.toArray());
+		try {
+			while (rs.next()) {
+				fields.add(new Object[] { rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+						rs.getString(5), rs.getString(6), rs.getInt(7) == 1 });
+			}
+		} finally {
+			rs.close();
+		}
+		if (fields.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Integer, String> permissions = enabledPermissions(fields);
+		List<Row> rows = new ArrayList<>(fields.size());
+		for (Object[] f : fields) {
+			int id = (Integer) f[0];
+			boolean isActive = (Boolean) f[6];
+			rows.add(new Row(id, (String) f[1], (String) f[2], (String) f[3], (String) f[4], (String) f[5], isActive,
+					isActive ? permissions.getOrDefault(id, "") : "None (Inactive)"));
+		}
+		return rows;
+	}
+
+	/**
+	 * Enabled permission names of every user on a page, read with a single IN query
+	 */
+	private static Map<Integer, String> enabledPermissions(List<Object[]> fields) throws SQLException {
+		StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+		Object[] ids = new Object[fields.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = fields.get(i)[0];
+			placeholders.add("?");
+		}
+		Map<Integer, String> byUser = new HashMap<>();
+		ResultSet rs = DBManager.getInstance().runQuery("SELECT up.user_id, p.permission_name FROM user_permissions up "
+				+ "JOIN permissions p ON up.permission_id = p.permission_id "
+				+ "WHERE up.is_enabled = 1 AND up.user_id IN " + placeholders + " ORDER BY up.user_id, p.permission_id", ids);
+		try {
+			while (rs.next()) {
+				byUser.merge(rs.getInt(1), rs.getString(2), (a, b) -> a + ", " + b);
+			}
+		} finally {
+			rs.close();
+		}
+		return byUser;
+	}
+
+	private String where(List<Object> params) {
+		List<String> clauses = new ArrayList<>();
+		if (role != null) {
+			clauses.add("r.role_name = ?");
+			params.add(role);
+		}
+		if (active != null) {
+			clauses.add("u.is_active = ?");
+			params.add(active ? 1 : 0);
+		}
+		if (namePrefix != null) {
+			clauses.add("u.name LIKE ? ESCAPE '\\'");
+			params.add(namePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+		}
+		return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+	}
+}
@@ -0,0 +1,167 @@
+package carDealership;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table model for the employee list that fetches rows a page at a time
+ * Only the row count is read up front; a page is queried the first time one of its rows is
+ * drawn, and a handful of recently used pages are kept. Sorting and filtering replace the
+ * {@link EmployeeQuery} and start again from an empty cache
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class EmployeeTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	private static final int PAGE_SIZE = 100;
+	private static final int CACHED_PAGES = 8;
+
+	private static final String[] COLUMN_NAMES = { "Name", "Email", "Phone", "Role", "Username", "Active", "Permissions" };
+
+	/**
+	 * Sort column for each table column; permissions cannot be sorted in SQL
+	 */
+	private static final EmployeeQuery.SortKey[] SORT_KEYS = { EmployeeQuery.SortKey.NAME, EmployeeQuery.SortKey.EMAIL,
+			EmployeeQuery.SortKey.PHONE, EmployeeQuery.SortKey.ROLE, EmployeeQuery.SortKey.USERNAME,
+			EmployeeQuery.SortKey.ACTIVE, null };
+
+	private EmployeeQuery query;
+	private int rowCount;
+	private final Map<Integer, List<EmployeeQuery.Row>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, List<EmployeeQuery.Row>> eldest) {
+			return size() > CACHED_PAGES;
+		}
+	};
+
+	/**
+	 * Constructor for the EmployeeTableModel class
+	 *
+	 * @param query - the initial filters and sort order
+	 * @throws SQLException if the employees cannot be counted
+	 */
+	public EmployeeTableModel(EmployeeQuery query) throws SQLException {
+		this.query = query;
+		this.rowCount = query.count();
+	}
+
+	/**
+	 * Getter method for the current query
+	 *
+	 * @return the filters and sort order in use
+	 */
+	public EmployeeQuery getQuery() {
+		return query;
+	}
+
+	/**
+	 * Show the employees matching a different query
+	 *
+	 * @param query - the new filters and sort order
+	 * @throws SQLException if the employees cannot be counted
+	 */
+	public void setQuery(EmployeeQuery query) throws SQLException {
+		this.query = query;
+		refresh();
+	}
+
+	/**
+	 * Sort by a table column, reversing the order if it is already the sort column
+	 *
+	 * @param column - the table column index
+	 * @throws SQLException if the employees cannot be counted
+	 */
+	public void sortByColumn(int column) throws SQLException {
+		if (column < 0 || column >= SORT_KEYS.length || SORT_KEYS[column] == null) {
+			return;
+		}
+		EmployeeQuery.SortKey key = SORT_KEYS[column];
+		boolean ascending = key != query.getSortKey() || !query.isAscending();
+		setQuery(query.withSort(key, ascending));
+	}
+
+	/**
+	 * Drop the cached pages and re-count, e.g. after an employee was edited
+	 *
+	 * @throws SQLException if the employees cannot be counted
+	 */
+	public void refresh() throws SQLException {
+		pages.clear();
+		rowCount = query.count();
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Getter method for the employee shown in a row
+	 *
+	 * @param row - the table row index
+	 * @return the employee, or null if the page could not be loaded
+	 */
+	public EmployeeQuery.Row getRow(int row) {
+		int page = row / PAGE_SIZE;
+		List<EmployeeQuery.Row> rows = pages.get(page);
+		if (rows == null) {
+			try {
+				rows = query.page(page * PAGE_SIZE, PAGE_SIZE);
+			} catch (SQLException e) {
+				System.err.println("Error loading employees: " + e.getMessage());
+				return null;
+			}
+			pages.put(page, rows);
+		}
+		int index = row % PAGE_SIZE;
+		return index < rows.size() ? rows.get(index) : null;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMN_NAMES.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMN_NAMES[column];
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		EmployeeQuery.Row row = getRow(rowIndex);
+		if (row == null) {
+			return "";
+		}
+		switch (columnIndex) {
+			case 0:
+				return row.name;
+			case 1:
+				return row.email;
+			case 2:
+				return row.phone;
+			case 3:
+				return row.role;
+			case 4:
+				return row.username;
+			case 5:
+				return row.isActive ? "Yes" : "No";
+			default:
+				return row.permissions;
+		}
+	}
+}
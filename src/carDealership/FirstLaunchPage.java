@@ -8,11 +8,9 @@ import javax.swing.JButton;
 import javax.swing.JTextField;
 import javax.swing.JLabel;
 import java.awt.Font;
-import javax.swing.ImageIcon;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.sql.SQLException;
-import java.awt.Toolkit;
 
 /**
  * Launch Page Class
@@ -39,7 +37,7 @@ public class FirstLaunchPage extends JFrame {
 	 * This frame collects dealership name, location, and inventory capacity
 	 */
 	public FirstLaunchPage() {
-		setIconImage(Toolkit.getDefaultToolkit().getImage("src/images/icon.jpg"));
+		setIconImage(IconCache.image("icon.jpg"));
 		setTitle("Dealership System");
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		setBounds(100, 100, 650, 400);
@@ -57,7 +55,7 @@ public class FirstLaunchPage extends JFrame {
 		panel.setLayout(null);
 
 		JLabel lblNewLabel_1 = new JLabel("");
-		lblNewLabel_1.setIcon(new ImageIcon("src/images/bg.jpg"));
+		lblNewLabel_1.setIcon(IconCache.icon("bg.jpg"));
 		lblNewLabel_1.setBounds(-242, 0, 509, 256);
 		panel.add(lblNewLabel_1);
 
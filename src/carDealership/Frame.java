@@ -8,7 +8,6 @@ import java.sql.SQLException;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridLayout;
-import java.awt.Toolkit;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -23,7 +22,6 @@ import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 import javax.swing.ImageIcon;
-import java.awt.Image;
 
 
 /**
@@ -87,41 +85,15 @@ public class Frame extends JFrame implements ActionListener {
 
 		jf1.setJMenuBar(menuBar);
 		
-		// Load and scale icons
-		ImageIcon addIcon = new ImageIcon("src/images/add.png");
-		ImageIcon deleteIcon = new ImageIcon("src/images/delete.png");
-		ImageIcon editIcon = new ImageIcon("src/images/edit.png");
-		ImageIcon historyIcon = new ImageIcon("src/images/history.png");
-		ImageIcon infoIcon = new ImageIcon("src/images/info.png");
-		ImageIcon searchIcon = new ImageIcon("src/images/search.png");
-		ImageIcon sellIcon = new ImageIcon("src/images/sell.png");
-		ImageIcon displayallIcon = new ImageIcon("src/images/displayall.png");
-		
-		Image addImg = addIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledAddIcon = new ImageIcon(addImg);
-
-		Image deleteImg = deleteIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledDeleteIcon = new ImageIcon(deleteImg);
-		
-
-		Image editImg = editIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledEditIcon = new ImageIcon(editImg);
-
-		Image historyImg = historyIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledHistoryIcon = new ImageIcon(historyImg);
-		
-		Image infoImg = infoIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledInfoIcon = new ImageIcon(infoImg);
-
-		Image searchImg = searchIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledSearchIcon = new ImageIcon(searchImg);
-		
-		Image sellImg = sellIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledSellIcon = new ImageIcon(sellImg);
-
-		Image displayallImg = displayallIcon.getImage().getScaledInstance(15, 15, Image.SCALE_SMOOTH);
-		ImageIcon scaledDisplayallIcon = new ImageIcon(displayallImg);
-		
+		// Icons are decoded and scaled once, then shared by every window
+		ImageIcon scaledAddIcon = IconCache.icon("add.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledDeleteIcon = IconCache.icon("delete.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledEditIcon = IconCache.icon("edit.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledHistoryIcon = IconCache.icon("history.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledInfoIcon = IconCache.icon("info.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledSearchIcon = IconCache.icon("search.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledSellIcon = IconCache.icon("sell.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
+		ImageIcon scaledDisplayallIcon = IconCache.icon("displayall.png", IconCache.BUTTON_ICON_SIZE, IconCache.BUTTON_ICON_SIZE);
 
 		// ----------jbuttons stuff------------- //
 		m_displayAllButton = new JButton("Display all", scaledDisplayallIcon);
@@ -183,7 +155,7 @@ public class Frame extends JFrame implements ActionListener {
 		jf1.setVisible(true);
 		jf1.setBounds(0, 0, 1170, 600);
 		jf1.setResizable(false);
-		jf1.setIconImage(Toolkit.getDefaultToolkit().getImage("src/images/icon.jpg"));
+		jf1.setIconImage(IconCache.image("icon.jpg"));
 
 		jf1.add(m_displayAllButton);
 		jf1.add(m_addVehicleButton);
@@ -414,7 +386,13 @@ public class Frame extends JFrame implements ActionListener {
 				JOptionPane.showMessageDialog(null, "X Vehicle not found!");
 				return;
 			}
-			Vehicle vehicle = Main.m_dealership.getVehicleFromId(id);
+			// Edit a private copy and swap it in, so the live vehicle never changes under a reader
+			Vehicle current = Main.m_dealership.getVehicleFromId(id);
+			if (current == null) {
+				JOptionPane.showMessageDialog(null, "X Vehicle not found!");
+				return;
+			}
+			Vehicle vehicle = VehicleTypeRegistry.of(current).copy(current);
 
 			JTextField makeField = new JTextField();
 			JTextField modelField = new JTextField();
@@ -501,7 +479,11 @@ public class Frame extends JFrame implements ActionListener {
 					motorcycle.setPrice(Double.parseDouble(priceField.getText()));
 					motorcycle.setHandlebarType(handlebarField.getText());
 				}
-				JOptionPane.showMessageDialog(null, "Success! Vehicle edited successfully.");
+				if (Main.m_dealership.updateVehicle(vehicle)) {
+					JOptionPane.showMessageDialog(null, "Success! Vehicle edited successfully.");
+				} else {
+					JOptionPane.showMessageDialog(null, "X Vehicle was removed or sold while it was being edited.");
+				}
 			}
 		} catch (NumberFormatException e) {
 			JOptionPane.showMessageDialog(null, "Warning: Invalid input. Year and price must be numeric values.");
@@ -0,0 +1,204 @@
+package carDealership;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import api.ApiServer;
+import persistance.DBManager;
+import persistance.DealershipLayer;
+
+/**
+ * Headless start-up path for server and scripted use
+ * Never references Swing or AWT, binds to the dealership record already in the database
+ * instead of restoring save.data, and binds the server ports while the database is being opened
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class HeadlessLauncher {
+
+	private HeadlessLauncher() {
+	}
+
+	/**
+	 * Check whether the command line asks for a headless start
+	 *
+	 * @param args - command line arguments
+	 * @return true if "--headless" or "--server" is present
+	 */
+	public static boolean isRequested(String[] args) {
+		for (String arg : args) {
+			if ("--headless".equals(arg) || "--server".equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find the API port requested on the command line
+	 * Accepts "--port N", or "--server" optionally followed by a port number
+	 *
+	 * @param args - command line arguments
+	 * @return the port to serve the JSON API on
+	 * @throws IllegalArgumentException if a port value is not a number
+	 */
+	static int parsePort(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			boolean port = "--port".equals(args[i]);
+			if ((port || "--server".equals(args[i])) && i + 1 < args.length && !args[i + 1].startsWith("--")) {
+				try {
+					return Integer.parseInt(args[i + 1]);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid port: " + args[i + 1]);
+				}
+			}
+			if (port) {
+				throw new IllegalArgumentException("--port requires a value");
+			}
+		}
+		return ApiServer.DEFAULT_PORT;
+	}
+
+	/**
+	 * Find the console port requested on the command line
+	 *
+	 * @param args - command line arguments
+	 * @return the port given with "--console-port N", or -1 if no console server was asked for
+	 * @throws IllegalArgumentException if the port value is missing or not a number
+	 */
+	static int parseConsolePort(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			if ("--console-port".equals(args[i])) {
+				if (i + 1 == args.length) {
+					throw new IllegalArgumentException("--console-port requires a value");
+				}
+				try {
+					return Integer.parseInt(args[i + 1]);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid port: " + args[i + 1]);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Find the interface the servers should listen on
+	 * Defaults to loopback, so nothing is reachable from other machines unless "--bind ADDRESS"
+	 * (e.g. "--bind 0.0.0.0") asks for it
+	 *
+	 * @param args - command line arguments
+	 * @return the address to bind the API and console sockets to
+	 * @throws IOException if the address cannot be resolved
+	 * @throws IllegalArgumentException if the address value is missing
+	 */
+	static InetAddress parseBindAddress(String[] args) throws IOException {
+		for (int i = 0; i < args.length; i++) {
+			if ("--bind".equals(args[i])) {
+				if (i + 1 == args.length) {
+					throw new IllegalArgumentException("--bind requires a value");
+				}
+				return InetAddress.getByName(args[i + 1]);
+			}
+		}
+		return InetAddress.getLoopbackAddress();
+	}
+
+	/**
+	 * Start the dealership without a GUI and serve the JSON API, plus the text console when
+	 * "--console-port N" is given
+	 * The listening sockets are bound while the database is opened and its schema checked, since
+	 * neither needs the other. The phases that read the database stay in order: they share one
+	 * SQLite connection, so running them side by side would only queue them on it. The inventory
+	 * load spreads large tables over its own reader connections
+	 *
+	 * @param args - command line arguments
+	 * @return the loaded dealership, or null if startup failed
+	 */
+	public static Dealership launch(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		StartupTimer timer = new StartupTimer();
+		CompletableFuture<ApiServer> api = null;
+		CompletableFuture<ConsoleServer> console = null;
+		try {
+			int port = parsePort(args);
+			int consolePort = parseConsolePort(args);
+			InetAddress address = parseBindAddress(args);
+			api = inBackground(timer, "api-bind", () -> new ApiServer(address, port));
+			console = consolePort < 0 ? CompletableFuture.completedFuture(null)
+					: inBackground(timer, "console-bind", () -> new ConsoleServer(address, consolePort));
+
+			timer.time("database", DBManager::getInstance);
+			DealershipLayer layer = new DealershipLayer();
+			if (!timer.time("dealership-probe", layer::existsAndSet)) {
+				System.err.println("No dealership is set up yet. Run once without --headless to create one.");
+				stopAll(api, console);
+				return null;
+			}
+			// The dealership's name, location and capacity are read here, on first use
+			Dealership dealership = timer.time("dealership-bind", () -> new Dealership(layer));
+			timer.time("inventory-load", dealership::loadInventory);
+
+			// Nothing is served until the inventory is in memory
+			join(api).start(dealership);
+			ConsoleServer consoleServer = join(console);
+			if (consoleServer != null) {
+				consoleServer.start(dealership);
+			}
+
+			System.out.println("Loaded " + dealership.getInventoryCount() + " vehicles for " + dealership.getName());
+			System.out.println(timer.report());
+			return dealership;
+		} catch (Exception e) {
+			stopAll(api, console);
+			System.err.println("Headless startup failed: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Run a timed startup phase on a pool thread
+	 */
+	private static <T> CompletableFuture<T> inBackground(StartupTimer timer, String name, Callable<T> phase) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return timer.time(name, phase);
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	private static <T> T join(CompletableFuture<T> phase) throws Exception {
+		try {
+			return phase.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Release whichever sockets were bound before startup failed
+	 */
+	private static void stopAll(CompletableFuture<ApiServer> api, CompletableFuture<ConsoleServer> console) {
+		if (api != null) {
+			api.thenAccept(server -> server.stop(0));
+		}
+		if (console != null) {
+			console.thenAccept(server -> {
+				if (server != null) {
+					server.stop();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package carDealership;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Shared cache for the images under /images
+ * Each image is decoded once from the classpath and every requested size is scaled once,
+ * so opening a window after the first time does no image decoding or scaling
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class IconCache {
+	/**
+	 * Size of the button icons on the dashboard frame
+	 */
+	public static final int BUTTON_ICON_SIZE = 15;
+
+	/**
+	 * Size of the vehicle kind icons in the add-vehicle menu
+	 */
+	public static final int MENU_ICON_SIZE = 30;
+
+	private static final String[] BUTTON_ICONS = { "add.png", "delete.png", "edit.png", "history.png", "info.png",
+			"search.png", "sell.png", "displayall.png" };
+	private static final String[] MENU_ICONS = { "auto.png", "moto.png" };
+
+	// Images that could not be loaded are cached as empty too, so they are only looked for once
+	private static final ConcurrentMap<String, Optional<BufferedImage>> originals = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, Optional<ImageIcon>> icons = new ConcurrentHashMap<>();
+
+	private IconCache() {
+	}
+
+	/**
+	 * Get an image at its original size
+	 *
+	 * @param name - the file name under /images, e.g. "icon.jpg"
+	 * @return the decoded image, or null if it cannot be found
+	 */
+	public static BufferedImage image(String name) {
+		return originals.computeIfAbsent(name, key -> Optional.ofNullable(load(key))).orElse(null);
+	}
+
+	/**
+	 * Get an icon at its original size
+	 *
+	 * @param name - the file name under /images
+	 * @return the icon, or null if the image cannot be found
+	 */
+	public static ImageIcon icon(String name) {
+		return icons.computeIfAbsent(name, key -> Optional.ofNullable(image(key)).map(ImageIcon::new)).orElse(null);
+	}
+
+	/**
+	 * Get an icon scaled to the given size
+	 *
+	 * @param name - the file name under /images
+	 * @param width - the icon width in pixels
+	 * @param height - the icon height in pixels
+	 * @return the scaled icon, or null if the image cannot be found
+	 */
+	public static ImageIcon icon(String name, int width, int height) {
+		return icons.computeIfAbsent(name + "@" + width + "x" + height,
+				key -> Optional.ofNullable(image(name)).map(image -> new ImageIcon(scale(image, width, height))))
+				.orElse(null);
+	}
+
+	/**
+	 * Decode the window icon and build every scaled icon the dashboards use on a background thread,
+	 * so the first dashboard opens without decoding or scaling anything on the event thread
+	 */
+	public static void warmUp() {
+		Thread loader = new Thread(() -> {
+			image("icon.jpg");
+			for (String name : BUTTON_ICONS) {
+				icon(name, BUTTON_ICON_SIZE, BUTTON_ICON_SIZE);
+			}
+			for (String name : MENU_ICONS) {
+				icon(name, MENU_ICON_SIZE, MENU_ICON_SIZE);
+			}
+		}, "icon-preload");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	private static Image scale(BufferedImage source, int width, int height) {
+		BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = scaled.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			g.dispose();
+		}
+		return scaled;
+	}
+
+	private static BufferedImage load(String name) {
+		try (InputStream in = IconCache.class.getResourceAsStream("/images/" + name)) {
+			if (in != null) {
+				return ImageIO.read(in);
+			}
+			// Running from a build that did not copy the resources; fall back to the source tree
+			File file = new File("src/images/" + name);
+			return file.exists() ? ImageIO.read(file) : null;
+		} catch (IOException e) {
+			System.err.println("Error loading image " + name + ": " + e.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package carDealership;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import persistance.DBManager;
+
+/**
+ * Streaming loader for a dealership's unsold inventory
+ * Only the columns a vehicle needs are selected, they are read by position, and rows are handed
+ * to a {@link VehicleSink} as they are decoded, so no intermediate list of the whole table is
+ * built. For large tables the ID range can be split across several read-only connections that
+ * decode in parallel; their results are still delivered to the sink in ID order on the calling thread
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class InventoryLoader {
+	private static final String FROM_VEHICLES = " FROM Vehicle WHERE dealerships_id = ? AND is_sold = 0";
+	private static final int FETCH_SIZE = 1000;
+	private static final int FIRST_ATTRIBUTE_COLUMN = 8;
+
+	/**
+	 * Rows a table needs before the ID range is split across parallel readers
+	 */
+	private static final int PARALLEL_THRESHOLD = 50000;
+
+	/**
+	 * Receives decoded vehicles in ID order
+	 */
+	@FunctionalInterface
+	public interface VehicleSink {
+		/**
+		 * Take one loaded vehicle
+		 *
+		 * @param vehicle - the vehicle, with its database ID set
+		 * @return false to stop loading, e.g. because the inventory is full
+		 */
+		boolean accept(Vehicle vehicle);
+	}
+
+	private final int dealershipId;
+	private final int readers;
+
+	/**
+	 * Common columns, the type discriminator, then every registered type's attribute column
+	 */
+	private final String selectVehicles = "SELECT vehicle_id, make, model, color, year, price, type, "
+			+ VehicleTypeRegistry.attributeColumnList(null) + FROM_VEHICLES;
+
+	/**
+	 * Position of each type's attribute column in the result, indexed by type code
+	 */
+	private final int[] attributeColumn;
+
+	/**
+	 * Loaded vehicles share one instance of each repeated make, model, colour and type
+	 */
+	private final StringDictionary strings = new StringDictionary();
+
+	/**
+	 * Constructor for the InventoryLoader class
+	 * The number of parallel readers is set with -Ddealership.load.readers=N (default: up to 4)
+	 *
+	 * @param dealershipId - the dealership whose vehicles to load
+	 */
+	public InventoryLoader(int dealershipId) {
+		this(dealershipId, Integer.getInteger("dealership.load.readers",
+				Math.min(4, Runtime.getRuntime().availableProcessors())));
+	}
+
+	/**
+	 * Constructor for the InventoryLoader class
+	 *
+	 * @param dealershipId - the dealership whose vehicles to load
+	 * @param readers - maximum number of connections reading in parallel
+	 */
+	public InventoryLoader(int dealershipId, int readers) {
+		this.dealershipId = dealershipId;
+		this.readers = Math.max(1, readers);
+		List<VehicleType<?>> types = VehicleTypeRegistry.types();
+		List<String> columns = VehicleTypeRegistry.attributeColumns();
+		attributeColumn = new int[types.size()];
+		for (VehicleType<?> type : types) {
+			attributeColumn[type.getCode()] = FIRST_ATTRIBUTE_COLUMN + columns.indexOf(type.getAttributeColumn());
+		}
+	}
+
+	/**
+	 * Load every unsold vehicle of the dealership into a sink
+	 *
+	 * @param sink - receives the vehicles in ID order
+	 * @return the number of rows read, which is more than the sink accepted if it stopped early
+	 * @throws SQLException if a database access error occurs
+	 */
+	public int load(VehicleSink sink) throws SQLException {
+		DBManager db = DBManager.getInstance();
+		if (readers > 1 && !db.isInTestMode()) {
+			int[] bounds;
+			synchronized (db) {
+				bounds = idBounds(db.Connection());
+			}
+			if (bounds[2] >= PARALLEL_THRESHOLD) {
+				return loadParallel(db, bounds[0], bounds[1], sink);
+			}
+		}
+		// The cursor stays open on the shared connection for the whole scan, so hold it until the end
+		synchronized (db) {
+			try (PreparedStatement stmt = db.Connection().prepareStatement(selectVehicles + " ORDER BY vehicle_id")) {
+				stmt.setInt(1, dealershipId);
+				return stream(stmt, sink);
+			}
+		}
+	}
+
+	/**
+	 * Load every unsold vehicle of the dealership into compact column storage
+	 * Suited to very large lots that are read in bulk, e.g. for reports and exports
+	 *
+	 * @return a table holding the vehicles, sharing this loader's string dictionary
+	 * @throws SQLException if a database access error occurs
+	 */
+	public CompactVehicleTable loadCompact() throws SQLException {
+		CompactVehicleTable table = new CompactVehicleTable(strings, 1024);
+		load(table::put);
+		return table;
+	}
+
+	private int loadParallel(DBManager db, int minId, int maxId, VehicleSink sink) throws SQLException {
+		long span = (long) maxId - minId + 1;
+		List<CompletableFuture<List<Vehicle>>> parts = new ArrayList<>(readers);
+		// Open every connection before starting any reader; each reader then closes its own, and any
+		// connection not yet handed to a reader is closed here if something fails on the way
+		Connection[] conns = new Connection[readers];
+		int opened = 0;
+		try {
+			for (; opened < readers; opened++) {
+				conns[opened] = db.openReaderConnection();
+			}
+			for (int i = 0; i < readers; i++) {
+				int from = (int) (minId + span * i / readers);
+				int to = (int) (minId + span * (i + 1) / readers - 1);
+				Connection conn = conns[i];
+				parts.add(CompletableFuture.supplyAsync(() -> readRange(conn, from, to)));
+				conns[i] = null;
+			}
+		} finally {
+			for (int i = 0; i < opened; i++) {
+				if (conns[i] != null) {
+					try {
+						conns[i].close();
+					} catch (SQLException e) {
+						// Already failing; the original error is the one worth reporting
+					}
+				}
+			}
+		}
+
+		int rows = 0;
+		boolean accepting = true;
+		for (CompletableFuture<List<Vehicle>> part : parts) {
+			List<Vehicle> vehicles;
+			try {
+				vehicles = part.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
+			}
+			rows += vehicles.size();
+			for (int i = 0; accepting && i < vehicles.size(); i++) {
+				accepting = sink.accept(vehicles.get(i));
+			}
+		}
+		return rows;
+	}
+
+	private List<Vehicle> readRange(Connection conn, int from, int to) {
+		List<Vehicle> vehicles = new ArrayList<>();
+		try {
+			try (PreparedStatement stmt = conn.prepareStatement(
+					selectVehicles + " AND vehicle_id BETWEEN ? AND ? ORDER BY vehicle_id")) {
+				stmt.setInt(1, dealershipId);
+				stmt.setInt(2, from);
+				stmt.setInt(3, to);
+				stream(stmt, vehicles::add);
+			} finally {
+				conn.close();
+			}
+		} catch (SQLException e) {
+			throw new CompletionException(e);
+		}
+		return vehicles;
+	}
+
+	private int[] idBounds(Connection conn) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(
+				"SELECT MIN(vehicle_id), MAX(vehicle_id), COUNT(*) FROM Vehicle WHERE dealerships_id = ? AND is_sold = 0")) {
+			stmt.setInt(1, dealershipId);
+			try (ResultSet rs = stmt.executeQuery()) {
+				rs.next();
+				return new int[] { rs.getInt(1), rs.getInt(2), rs.getInt(3) };
+			}
+		}
+	}
+
+	/**
+	 * Decode rows by column position and pass them on; rows of an unregistered type are skipped
+	 */
+	private int stream(PreparedStatement stmt, VehicleSink sink) throws SQLException {
+		stmt.setFetchSize(FETCH_SIZE);
+		int rows = 0;
+		try (ResultSet rs = stmt.executeQuery()) {
+			boolean accepting = true;
+			while (rs.next()) {
+				rows++;
+				if (!accepting) {
+					continue; // keep counting so the caller can report what did not fit
+				}
+				Vehicle vehicle = decode(rs);
+				if (vehicle != null) {
+					accepting = sink.accept(vehicle);
+				}
+			}
+		}
+		return rows;
+	}
+
+	private Vehicle decode(ResultSet rs) throws SQLException {
+		// Columns: 1 vehicle_id, 2 make, 3 model, 4 color, 5 year, 6 price, 7 type, 8.. attribute columns
+		VehicleType<?> type = VehicleTypeRegistry.byName(rs.getString(7));
+		if (type == null || type.getCode() >= attributeColumn.length) {
+			return null;
+		}
+		Vehicle vehicle = type.create(strings.intern(rs.getString(2)), strings.intern(rs.getString(3)),
+				strings.intern(rs.getString(4)), rs.getInt(5), rs.getDouble(6),
+				strings.intern(rs.getString(attributeColumn[type.getCode()])));
+		vehicle.setId(rs.getInt(1));
+		return vehicle;
+	}
+}
@@ -0,0 +1,93 @@
+package carDealership;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copy-on-write journal of inventory changes made in test mode
+ * Test mode keeps reading and writing the live in-memory inventory and indexes. Vehicles are never
+ * modified in place: an edit is made on a copy that {@link Dealership#updateVehicle} swaps in. The
+ * first time a vehicle is replaced or removed, the overlay remembers the live object (or that there
+ * was none, for a vehicle added in test mode). Leaving test mode puts back only what it recorded
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class InventoryOverlay {
+	private final Map<Integer, Vehicle> originals = new LinkedHashMap<>();
+	private final long salesCount;
+	private final int nextId;
+
+	/**
+	 * Constructor for the InventoryOverlay class
+	 *
+	 * @param salesCount - number of in-memory sales when test mode started
+	 * @param nextId - the dealership's next vehicle ID when test mode started
+	 */
+	public InventoryOverlay(long salesCount, int nextId) {
+		this.salesCount = salesCount;
+		this.nextId = nextId;
+	}
+
+	/**
+	 * Record that a vehicle is about to be replaced or removed
+	 * Only the first change to each ID is kept, so the live object is what gets restored
+	 *
+	 * @param id - the vehicle ID
+	 * @param live - the vehicle currently in the inventory
+	 */
+	public void recordChanged(int id, Vehicle live) {
+		originals.putIfAbsent(id, live);
+	}
+
+	/**
+	 * Record that a vehicle was added in test mode and must be dropped on exit
+	 *
+	 * @param id - the new vehicle's ID
+	 */
+	public void recordAdded(int id) {
+		originals.putIfAbsent(id, null);
+	}
+
+	/**
+	 * Check whether a vehicle was already replaced, removed or added in test mode
+	 *
+	 * @param id - the vehicle ID
+	 * @return true if the overlay already holds what to restore for it
+	 */
+	public boolean isTouched(int id) {
+		return originals.containsKey(id);
+	}
+
+	/**
+	 * Getter method for the recorded originals
+	 *
+	 * @return vehicle IDs mapped to the live vehicle to restore, or null for vehicles added in test mode
+	 */
+	public Map<Integer, Vehicle> getOriginals() {
+		return originals;
+	}
+
+	/**
+	 * Getter method for the sales count at the start of test mode
+	 *
+	 * @return the number of in-memory sales to keep
+	 */
+	public long getSalesCount() {
+		return salesCount;
+	}
+
+	/**
+	 * Getter method for the next vehicle ID at the start of test mode
+	 *
+	 * @return the next vehicle ID to restore
+	 */
+	public int getNextId() {
+		return nextId;
+	}
+}
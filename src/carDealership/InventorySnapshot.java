@@ -0,0 +1,380 @@
+package carDealership;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of the inventory and its indexes at one moment
+ * {@link Dealership} publishes one through a volatile field; each writer derives the next snapshot
+ * from the current one while holding the write lock and publishes it before unlocking. The order,
+ * ID lookup and price indexes are persistent structures, so a new snapshot copies only the chunks
+ * and trie paths the change touched and shares the rest with its predecessor. Nothing a snapshot
+ * can reach is modified after it is published, so any number of threads can search it at once
+ * without taking a lock. The vehicles themselves are never modified either: every edit goes through
+ * {@link Dealership#updateVehicle}, which swaps in an edited copy
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public final class InventorySnapshot {
+	/**
+	 * Text index slots a snapshot may leave behind through edits and removals before the text index
+	 * is rebuilt from the live vehicles, as long as they also outnumber the live ones
+	 */
+	private static final int COMPACT_THRESHOLD = 64;
+
+	private final ChunkedList<Vehicle> vehicles;
+	private final PersistentIntMap<Entry> vehiclesById;
+	private final VehicleSearchIndex searchIndex;
+	private final int slotBound;
+	private final int deadSlots;
+	private final PriceIndex priceIndex;
+	private final PriceIndex carPriceIndex;
+	private final long nextSeq;
+
+	/**
+	 * Where a vehicle sits: its sequence number, which orders the inventory, and its text index slot
+	 */
+	private static final class Entry {
+		private final Vehicle vehicle;
+		private final long seq;
+		private final int slot;
+
+		private Entry(Vehicle vehicle, long seq, int slot) {
+			this.vehicle = vehicle;
+			this.seq = seq;
+			this.slot = slot;
+		}
+	}
+
+	private InventorySnapshot(ChunkedList<Vehicle> vehicles, PersistentIntMap<Entry> vehiclesById,
+			VehicleSearchIndex searchIndex, int slotBound, int deadSlots, PriceIndex priceIndex,
+			PriceIndex carPriceIndex, long nextSeq) {
+		this.vehicles = vehicles;
+		this.vehiclesById = vehiclesById;
+		this.searchIndex = searchIndex;
+		this.slotBound = slotBound;
+		this.deadSlots = deadSlots;
+		this.priceIndex = priceIndex;
+		this.carPriceIndex = carPriceIndex;
+		this.nextSeq = nextSeq;
+	}
+
+	/**
+	 * Build a snapshot of an empty inventory, with a text index of its own
+	 *
+	 * @return the new snapshot
+	 */
+	static InventorySnapshot empty() {
+		return of(new Vehicle[0], 0);
+	}
+
+	/**
+	 * Build a snapshot holding some vehicles, in order
+	 * Every structure is bulk-built, so a full reload costs one pass plus the price sorts
+	 *
+	 * @param inventory - the array holding the vehicles; null entries are skipped
+	 * @param count - the number of positions to take from the front of the array
+	 * @return the new snapshot
+	 */
+	static InventorySnapshot of(Vehicle[] inventory, int count) {
+		Vehicle[] added = new Vehicle[count];
+		int n = 0;
+		for (int i = 0; i < count; i++) {
+			if (inventory[i] != null) {
+				added[n++] = inventory[i];
+			}
+		}
+		VehicleSearchIndex searchIndex = new VehicleSearchIndex();
+		int firstSlot = searchIndex.addAll(added, 0, n);
+		int[] ids = new int[n];
+		Entry[] entries = new Entry[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = added[i].getId();
+			entries[i] = new Entry(added[i], i, firstSlot + i);
+		}
+		return new InventorySnapshot(ChunkedList.<Vehicle>empty().appendAll(0, added, 0, n),
+				PersistentIntMap.of(ids, entries, n), searchIndex, searchIndex.getSlotCount(), 0,
+				withPrices(PriceIndex.EMPTY, added, 0, n, false), withPrices(PriceIndex.EMPTY, added, 0, n, true), n);
+	}
+
+	/**
+	 * Derive a snapshot with a vehicle added at the end
+	 *
+	 * @param vehicle - the vehicle, whose ID is not yet in the snapshot
+	 * @return the new snapshot
+	 */
+	InventorySnapshot withAdded(Vehicle vehicle) {
+		int slot = searchIndex.add(vehicle);
+		return new InventorySnapshot(vehicles.append(nextSeq, vehicle),
+				vehiclesById.with(vehicle.getId(), new Entry(vehicle, nextSeq, slot)), searchIndex,
+				searchIndex.getSlotCount(), deadSlots, priceIndex.with(vehicle.getId(), vehicle.getPrice()),
+				vehicle instanceof Car ? carPriceIndex.with(vehicle.getId(), vehicle.getPrice()) : carPriceIndex,
+				nextSeq + 1);
+	}
+
+	/**
+	 * Derive a snapshot with many vehicles added at the end, in order
+	 *
+	 * @param added - the array holding the vehicles, none of them null and none already in the snapshot
+	 * @param from - the position of the first vehicle to add
+	 * @param to - the position after the last vehicle to add
+	 * @return the new snapshot
+	 */
+	InventorySnapshot withAddedAll(Vehicle[] added, int from, int to) {
+		if (vehicles.size() == 0) {
+			return of(Arrays.copyOfRange(added, from, to), to - from);
+		}
+		int firstSlot = searchIndex.addAll(added, from, to);
+		PersistentIntMap<Entry> byId = vehiclesById;
+		for (int i = from; i < to; i++) {
+			byId = byId.with(added[i].getId(), new Entry(added[i], nextSeq + i - from, firstSlot + i - from));
+		}
+		return new InventorySnapshot(vehicles.appendAll(nextSeq, added, from, to), byId, searchIndex,
+				searchIndex.getSlotCount(), deadSlots, withPrices(priceIndex, added, from, to, false),
+				withPrices(carPriceIndex, added, from, to, true), nextSeq + to - from);
+	}
+
+	/**
+	 * Derive a snapshot with a vehicle replaced in place by an edited copy
+	 *
+	 * @param edited - the edited vehicle, whose ID is in the snapshot
+	 * @return the new snapshot
+	 */
+	InventorySnapshot withReplaced(Vehicle edited) {
+		int id = edited.getId();
+		Entry old = vehiclesById.get(id);
+		int slot = searchIndex.add(edited);
+		PriceIndex prices = priceIndex.without(id, old.vehicle.getPrice()).with(id, edited.getPrice());
+		PriceIndex carPrices = old.vehicle instanceof Car ? carPriceIndex.without(id, old.vehicle.getPrice())
+				: carPriceIndex;
+		if (edited instanceof Car) {
+			carPrices = carPrices.with(id, edited.getPrice());
+		}
+		return new InventorySnapshot(vehicles.set(old.seq, edited), vehiclesById.with(id, new Entry(edited, old.seq, slot)),
+				searchIndex, searchIndex.getSlotCount(), deadSlots + 1, prices, carPrices, nextSeq).compacted();
+	}
+
+	/**
+	 * Derive a snapshot with a vehicle removed
+	 *
+	 * @param id - the vehicle ID, which is in the snapshot
+	 * @return the new snapshot
+	 */
+	InventorySnapshot without(int id) {
+		Entry old = vehiclesById.get(id);
+		return new InventorySnapshot(vehicles.remove(old.seq), vehiclesById.without(id), searchIndex, slotBound,
+				deadSlots + 1, priceIndex.without(id, old.vehicle.getPrice()),
+				old.vehicle instanceof Car ? carPriceIndex.without(id, old.vehicle.getPrice()) : carPriceIndex,
+				nextSeq).compacted();
+	}
+
+	/**
+	 * This snapshot, or once dead slots outnumber the live vehicles, an equal one over a fresh text index
+	 * Older snapshots keep the old index, so readers still searching them are unaffected
+	 */
+	private InventorySnapshot compacted() {
+		if (deadSlots <= COMPACT_THRESHOLD || deadSlots <= vehicles.size()) {
+			return this;
+		}
+		int n = vehicles.size();
+		Vehicle[] live = vehicles.toArray(new Vehicle[n]);
+		VehicleSearchIndex fresh = new VehicleSearchIndex();
+		int firstSlot = fresh.addAll(live, 0, n);
+		int[] ids = new int[n];
+		Entry[] entries = new Entry[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = live[i].getId();
+			entries[i] = new Entry(live[i], vehiclesById.get(ids[i]).seq, firstSlot + i);
+		}
+		return new InventorySnapshot(vehicles, PersistentIntMap.of(ids, entries, n), fresh, fresh.getSlotCount(), 0,
+				priceIndex, carPriceIndex, nextSeq);
+	}
+
+	private static PriceIndex withPrices(PriceIndex index, Vehicle[] added, int from, int to, boolean carsOnly) {
+		int[] ids = new int[to - from];
+		double[] prices = new double[to - from];
+		int n = 0;
+		for (int i = from; i < to; i++) {
+			if (!carsOnly || added[i] instanceof Car) {
+				ids[n] = added[i].getId();
+				prices[n++] = added[i].getPrice();
+			}
+		}
+		return index.withAll(ids, prices, n);
+	}
+
+	/**
+	 * Getter method for the vehicles in the snapshot
+	 *
+	 * @return a copy of the vehicles in inventory order
+	 */
+	public Vehicle[] getVehicles() {
+		return vehicles.toArray(new Vehicle[vehicles.size()]);
+	}
+
+	/**
+	 * Getter method for the number of vehicles
+	 *
+	 * @return the number of vehicles in the snapshot
+	 */
+	public int size() {
+		return vehicles.size();
+	}
+
+	/**
+	 * Find a vehicle by its ID
+	 *
+	 * @param id - the vehicle ID
+	 * @return the vehicle, or null if not found
+	 */
+	public Vehicle get(int id) {
+		Entry entry = vehiclesById.get(id);
+		return entry == null ? null : entry.vehicle;
+	}
+
+	/**
+	 * Find the inventory index of a vehicle
+	 *
+	 * @param id - the vehicle ID
+	 * @return the vehicle's position, or -1 if not found
+	 */
+	public int indexOf(int id) {
+		Entry entry = vehiclesById.get(id);
+		return entry == null ? -1 : vehicles.positionOf(entry.seq);
+	}
+
+	/**
+	 * Search with optional filters, as described at {@link Dealership#searchVehicles}
+	 *
+	 * @param make - the make to match, or null
+	 * @param model - the model to match, or null
+	 * @param minYear - the minimum manufacturing year, or null
+	 * @param minPrice - the minimum price, or null
+	 * @param maxPrice - the maximum price, or null
+	 * @return list of vehicles matching every given filter
+	 */
+	public List<Vehicle> search(String make, String model, Integer minYear, Double minPrice, Double maxPrice) {
+		List<Vehicle> matches = new ArrayList<>();
+		forEachMatch(make, model, minYear, minPrice, maxPrice, matches::add);
+		return matches;
+	}
+
+	/**
+	 * Hand each vehicle matching the filters to a consumer as it is found
+	 * Nothing is collected, so a caller writing the matches out holds one vehicle at a time
+	 *
+	 * @param make - the make to match, or null
+	 * @param model - the model to match, or null
+	 * @param minYear - the minimum manufacturing year, or null
+	 * @param minPrice - the minimum price, or null
+	 * @param maxPrice - the maximum price, or null
+	 * @param consumer - receives the matches, cheapest first when a price bound is given and in
+	 *        inventory order otherwise
+	 */
+	public void forEachMatch(String make, String model, Integer minYear, Double minPrice, Double maxPrice,
+			Consumer<Vehicle> consumer) {
+		Consumer<Vehicle> filter = vehicle -> {
+			if (make != null && !vehicle.getMake().equalsIgnoreCase(make)) return;
+			if (model != null && !vehicle.getModel().equalsIgnoreCase(model)) return;
+			if (minYear != null && vehicle.getYear() < minYear) return;
+			if (minPrice != null && vehicle.getPrice() < minPrice) return;
+			if (maxPrice != null && vehicle.getPrice() > maxPrice) return;
+			consumer.accept(vehicle);
+		};
+		if (minPrice != null || maxPrice != null) {
+			priceIndex.forEachInRange(minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+					maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice, id -> filter.accept(get(id)));
+		} else {
+			vehicles.forEach(filter);
+		}
+	}
+
+	/**
+	 * Free-text search over make, model, color and type
+	 *
+	 * @param query - the words to look for
+	 * @return the matching vehicles, best match first
+	 */
+	public List<Vehicle> fuzzySearch(String query) {
+		return searchIndex.search(query, slotBound, id -> {
+			Entry entry = vehiclesById.get(id);
+			return entry == null ? -1 : entry.slot;
+		});
+	}
+
+	/**
+	 * Count vehicles priced within a range
+	 *
+	 * @param minPrice - the lowest price to include
+	 * @param maxPrice - the highest price to include
+	 * @return the number of vehicles in the range
+	 */
+	public int countInPriceRange(double minPrice, double maxPrice) {
+		return priceIndex.count(minPrice, maxPrice);
+	}
+
+	/**
+	 * Find vehicles priced within a range
+	 *
+	 * @param minPrice - the lowest price to include
+	 * @param maxPrice - the highest price to include
+	 * @return the vehicles in the range, cheapest first
+	 */
+	public Vehicle[] inPriceRange(double minPrice, double maxPrice) {
+		int[] ids = priceIndex.range(minPrice, maxPrice);
+		Vehicle[] matches = new Vehicle[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			matches[i] = get(ids[i]);
+		}
+		return matches;
+	}
+
+	/**
+	 * Count cars at or below a budget
+	 *
+	 * @param budget - the maximum price
+	 * @return the number of cars within the budget
+	 */
+	public int countCarsWithin(double budget) {
+		return carPriceIndex.count(Double.NEGATIVE_INFINITY, budget);
+	}
+
+	/**
+	 * Find cars at or below a budget
+	 *
+	 * @param budget - the maximum price
+	 * @return the cars within the budget, cheapest first
+	 */
+	public Car[] carsWithin(double budget) {
+		int[] ids = carPriceIndex.range(Double.NEGATIVE_INFINITY, budget);
+		Car[] cars = new Car[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			cars[i] = (Car) get(ids[i]);
+		}
+		return cars;
+	}
+
+	/**
+	 * Find cars of a body type
+	 *
+	 * @param type - the car type to match exactly
+	 * @return the matching cars in inventory order
+	 */
+	public Car[] carsOfType(String type) {
+		List<Car> cars = new ArrayList<>();
+		vehicles.forEach(vehicle -> {
+			if (vehicle instanceof Car && ((Car) vehicle).getType().equals(type)) {
+				cars.add((Car) vehicle);
+			}
+		});
+		return cars.toArray(new Car[0]);
+	}
+}
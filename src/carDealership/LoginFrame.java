@@ -14,8 +14,14 @@ import java.io.ObjectOutputStream;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.time.LocalDate;
 
 /**
@@ -38,6 +44,11 @@ public class LoginFrame extends JFrame {
     private JLabel statusLabel;
     private Dealership dealership;
     private JButton forgotPasswordButton;
+
+    /**
+     * Identifies this login window to the login throttle
+     */
+    private final String sessionId = "gui-" + UUID.randomUUID();
     
     public LoginFrame(Dealership dealership) {
         this.dealership = dealership;
@@ -108,133 +119,16 @@ public class LoginFrame extends JFrame {
 
 
     /**
-     * Helper method to create appropriate user subclass from the role
+     * Load a user by username, ignoring case
+     * Served from the in-memory user directory; "admin" resolves to the built-in emergency administrator
+     *
+     * @param username - the username to search for
+     * @return the user if found, null otherwise
+     * @throws SQLException if the user directory cannot be loaded
      */
-    private static User createUserFromRole(ResultSet rs, String role, String password, 
-                                          boolean isTempPassword, boolean isActive) throws SQLException {
-        switch (role) {
-            case "Admin":
-                return new Admin(rs.getInt("user_id"), rs.getString("username"), password,
-                                 rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                 isTempPassword, isActive);
-            case "Manager":
-                return new Manager(rs.getInt("user_id"), rs.getString("username"), password,
-                                  rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                  isTempPassword, isActive);
-            case "Salesperson":
-                return new Salesperson(rs.getInt("user_id"), rs.getString("username"), password,
-                                      rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                      isTempPassword, isActive);
-            default:
-                throw new SQLException("Unknown role: " + role);
-        }
-    }
-
-    public static User loadUser(String username) throws SQLException, Exception {
-    DBManager db = DBManager.getInstance();
-    
-    // EMERGENCY DEBUGGING: Check database tables and dump user info
-    System.out.println("\n--- EMERGENCY DATABASE CHECK ---");
-    
-    // Check if users table exists and dump all users
-    try {
-        System.out.println("Dumping all users in database:");
-        ResultSet allUsers = db.runQuery("SELECT * FROM users");
-        boolean hasUsers = false;
-        
-        while (allUsers.next()) {
-            hasUsers = true;
-            int userId = allUsers.getInt("user_id");
-            String userUsername = allUsers.getString("username");
-            String userPassword = allUsers.getString("password");
-            int userRoleId = allUsers.getInt("role_id");
-            int userIsActive = allUsers.getInt("is_active");
-            
-            System.out.println("User #" + userId + ": " + userUsername + 
-                              " (role_id=" + userRoleId + 
-                              ", password=" + userPassword + 
-                              ", is_active=" + userIsActive + ")");
-        }
-        
-        if (!hasUsers) {
-            System.out.println("NO USERS FOUND IN DATABASE!");
-        }
-    } catch (SQLException e) {
-        System.out.println("Error dumping users: " + e.getMessage());
-    }
-    
-    System.out.println("Looking for user: '" + username + "'");
-    System.out.println("--- END EMERGENCY CHECK ---\n");
-    
-    // HARDCODED USER CREATION FOR EMERGENCY USE
-    if (username.equalsIgnoreCase("admin")) {
-        System.out.println("Creating emergency admin user!");
-        Admin admin = new Admin(999, "admin", "admin", "Emergency Admin", "admin@example.com", "123-456-7890", false, true);
-        return admin;
-    }
-    
-    // First check if the roles table exists
-    try {
-        db.runQuery("SELECT * FROM roles LIMIT 1");
-        System.out.println("Roles table exists");
-    } catch (SQLException e) {
-        System.out.println("Roles table doesn't exist: " + e.getMessage());
-        // Create roles table if it doesn't exist
-        try {
-            db.runUpdate("CREATE TABLE IF NOT EXISTS roles (role_id INTEGER PRIMARY KEY, role_name TEXT NOT NULL)");
-            db.runUpdate("INSERT INTO roles (role_id, role_name) VALUES (1, 'Admin')");
-            db.runUpdate("INSERT INTO roles (role_id, role_name) VALUES (2, 'Manager')");
-            db.runUpdate("INSERT INTO roles (role_id, role_name) VALUES (3, 'Salesperson')");
-            System.out.println("Created roles table with default values");
-        } catch (SQLException e2) {
-            System.out.println("Failed to create roles table: " + e2.getMessage());
-        }
-    }
-    
-    // Try first with JOIN
-    try {
-        ResultSet rs = db.runQuery("SELECT u.*, r.role_name FROM users u JOIN roles r " +
-                                  "ON u.role_id = r.role_id WHERE LOWER(u.username) = LOWER(?)", username);
-        if (rs.next()) {
-            // Join query worked
-            String role = rs.getString("role_name");
-            String password = rs.getString("password");
-            boolean isTempPassword = rs.getInt("is_temp_password") == 1;
-            int rawIsActive = rs.getInt("is_active"); // Get raw value
-            boolean isActive = rawIsActive == 1;
-            System.out.println("Raw is_active from DB for " + username + ": " + rawIsActive);
-            System.out.println("Computed isActive: " + isActive);
-            
-            return createUserFromRole(rs, role, password, isTempPassword, isActive);
-        }
-    } catch (SQLException e) {
-        System.out.println("Join query failed: " + e.getMessage());
+    public static User loadUser(String username) throws SQLException {
+        return AuthService.getInstance().findUser(username);
     }
-    
-    // Fallback to direct query without join
-    System.out.println("Trying direct query without join...");
-    ResultSet rs = db.runQuery("SELECT * FROM users WHERE LOWER(username) = LOWER(?)", username);
-    if (rs.next()) {
-        String password = rs.getString("password");
-        boolean isTempPassword = rs.getInt("is_temp_password") == 1;
-        int rawIsActive = rs.getInt("is_active");
-        boolean isActive = rawIsActive == 1;
-        int roleId = rs.getInt("role_id");
-        System.out.println("User found. Role ID: " + roleId);
-        
-        // Determine role based on role_id
-        String role;
-        if (roleId == 1) role = "Admin";
-        else if (roleId == 2) role = "Manager";
-        else role = "Salesperson";
-        
-        System.out.println("Using role: " + role);
-        return createUserFromRole(rs, role, password, isTempPassword, isActive);
-    }
-    
-    // No user found
-    return null;
-}
 
     private void forcePasswordChange(User user) {
         JPanel panel = new JPanel(new GridLayout(2, 2));
@@ -262,20 +156,27 @@ public class LoginFrame extends JFrame {
                 statusLabel.setForeground(Color.RED);
                 forcePasswordChange(user); // Re-prompt
             } else {
-                try {
+                // Hashing the new password is slow, so it runs on an authentication worker
+                statusLabel.setText("Updating password...");
+                statusLabel.setForeground(Color.BLACK);
+                AuthService.getInstance().submit(() -> {
                     user.setPassword(newPassword); // Updates DB and clears is_temp_password
-                    statusLabel.setText("Password changed successfully! Please log in again.");
-                    statusLabel.setForeground(Color.GREEN);
-                    // Force re-login
-                    usernameField.setText("");
-                    passwordField.setText("");
-                } catch (SQLException ex) {
-                    statusLabel.setText("Error updating password: " + ex.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                } catch (Exception ex) {
-                    statusLabel.setText("An error occured: " + ex.getMessage());
-                    statusLabel.setForeground(Color.RED);
-                }
+                    return null;
+                }).whenComplete((ignored, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (ex == null) {
+                        statusLabel.setText("Password changed successfully! Please log in again.");
+                        statusLabel.setForeground(Color.GREEN);
+                        // Force re-login
+                        usernameField.setText("");
+                        passwordField.setText("");
+                    } else if (ex instanceof SQLException) {
+                        statusLabel.setText("Error updating password: " + ex.getMessage());
+                        statusLabel.setForeground(Color.RED);
+                    } else {
+                        statusLabel.setText("An error occured: " + ex.getMessage());
+                        statusLabel.setForeground(Color.RED);
+                    }
+                }));
             }
         } else {
             statusLabel.setText("Password change required to proceed.");
@@ -286,120 +187,72 @@ public class LoginFrame extends JFrame {
     private void authenticateUser() {
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
-        
-        try {
-            User user = loadUser(username);
-            if (user == null) {
-                // User not found
+
+        // Password hashing runs on the authentication workers; the result is handled back on the EDT
+        loginButton.setEnabled(false);
+        statusLabel.setText("Signing in...");
+        statusLabel.setForeground(Color.BLACK);
+        AuthService.getInstance().authenticateAsync(username, password, sessionId)
+            .whenComplete((result, ex) -> SwingUtilities.invokeLater(() -> {
+                loginButton.setEnabled(true);
+                if (ex == null) {
+                    handleLoginResult(result);
+                } else if (ex instanceof RejectedExecutionException) {
+                    statusLabel.setText("Too many sign-ins in progress. Please try again.");
+                    statusLabel.setForeground(Color.RED);
+                } else {
+                    statusLabel.setText((ex instanceof SQLException ? "Database error: " : "Error: ") + ex.getMessage());
+                    statusLabel.setForeground(Color.RED);
+                    System.out.println("Login error: " + ex.getMessage());
+                    ex.printStackTrace();
+                }
+            }));
+    }
+
+    private void handleLoginResult(AuthService.Result result) {
+        switch (result.status) {
+            case UNKNOWN_USER:
                 statusLabel.setText("Username not found");
-                statusLabel.setForeground(Color.RED);
-                return;
-            }
-            
-            // Always check the database for account status to ensure we have the latest
-            DBManager db = DBManager.getInstance();
-            ResultSet checkActive = db.runQuery("SELECT is_active FROM users WHERE user_id = ?", user.getId());
-            boolean isAccountActive = true;
-            if (checkActive.next()) {
-                isAccountActive = checkActive.getInt("is_active") == 1;
-            }
-            
-            // Check if account is active (non-admin users only) - use result directly from database
-            if (!(user instanceof Admin) && !isAccountActive) {
-                System.err.println("DEBUG: BLOCKED LOGIN ATTEMPT - Account is locked for user: " + user.getUsername());
+                break;
+            case ACCOUNT_LOCKED:
                 statusLabel.setText("Account is locked. Contact an administrator.");
-                statusLabel.setForeground(Color.RED);
-                
-                // Show the account locked dialog
-                JOptionPane.showMessageDialog(this, 
-                    "Your account has been locked due to too many failed attempts.\n" +
-                    "Please contact an administrator to unlock your account.",
-                    "Account Locked", JOptionPane.WARNING_MESSAGE);
-                
-                return;
-            }
-            
-            // Also update our in-memory value to match database
-            user.setActive(isAccountActive);
-            
-            // Verify password
-            if (user.checkPassword(password)) {
-                // Login successful, reset failed attempts counter if any
-                try {
-                    user.resetFailedAttempts();
-                } catch (SQLException e) {
-                    System.err.println("Error resetting failed attempts: " + e.getMessage());
-                }
-                
-                // Check if user needs to change password
-                if (user.isTempPassword()) {
-                    forcePasswordChange(user);
+                showAccountLockedDialog();
+                break;
+            case ATTEMPTS_EXHAUSTED:
+                statusLabel.setText("Account locked due to too many failed attempts. Contact an administrator.");
+                showAccountLockedDialog();
+                break;
+            case THROTTLED:
+                statusLabel.setText("Too many failed attempts. Try again in " +
+                                  ((result.retryAfterMillis + 999) / 1000) + " s.");
+                break;
+            case INVALID_PASSWORD:
+                if (result.remainingAttempts > 0) {
+                    statusLabel.setText("Invalid password. " + result.remainingAttempts +
+                                      " attempt" + (result.remainingAttempts == 1 ? "" : "s") + " remaining.");
                 } else {
-                    // Login successful, no password change needed
-                    statusLabel.setText("Login successful!");
-                    statusLabel.setForeground(Color.GREEN);
-                    loginSuccessful(user);
-                }
-            } else {
-                // Incorrect password - increment failed attempts counter
-                try {
-                    // Admins are immune to account locking
-                    if (!(user instanceof Admin)) {
-                        boolean wasLocked = user.incrementFailedAttempts();
-                        
-                        // Get real-time count from the database to be absolutely sure
-                        ResultSet rs = db.runQuery("SELECT failed_attempts FROM users WHERE user_id = ?", user.getId());
-                        int currentAttempts = 0;
-                        if (rs.next()) {
-                            currentAttempts = rs.getInt("failed_attempts");
-                        }
-                        
-                        System.err.println("DEBUG: User " + user.getUsername() + 
-                                         " has " + currentAttempts + " failed attempts according to DB");
-                    
-                        if (currentAttempts >= 3) {
-                            // Account has been blocked - make extra sure it's marked as inactive in the database
-                            db.runUpdate("UPDATE users SET is_active = 0 WHERE user_id = ?", user.getId());
-                            user.setActive(false);
-                            
-                            statusLabel.setText("Account locked due to too many failed attempts. Contact an administrator.");
-                            
-                            // Show dialog when account is locked 
-                            JOptionPane.showMessageDialog(this, 
-                                "Your account has been locked due to too many failed attempts.\n" +
-                                "Please contact an administrator to unlock your account.",
-                                "Account Locked", JOptionPane.WARNING_MESSAGE);
-                        } else {
-                            // Show remaining attempts
-                            int remainingAttempts = 3 - currentAttempts;
-                            statusLabel.setText("Invalid password. " + remainingAttempts + 
-                                              " attempt" + (remainingAttempts == 1 ? "" : "s") + " remaining.");
-                        }
-                    } else {
-                        statusLabel.setText("Invalid password");
-                    }
-                    statusLabel.setForeground(Color.RED);
-                } catch (SQLException e) {
-                    // If we can't track attempts, just show generic message
                     statusLabel.setText("Invalid password");
-                    statusLabel.setForeground(Color.RED);
-                    System.err.println("Error tracking failed attempts: " + e.getMessage());
                 }
-            }
-        } catch (SQLException e) {
-            // Handle SQLException
-            statusLabel.setText("Database error: " + e.getMessage());
-            statusLabel.setForeground(Color.RED);
-            System.out.println("SQL Error: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) {
-            // Handle other exceptions
-            statusLabel.setText("Error: " + e.getMessage());
-            statusLabel.setForeground(Color.RED);
-            System.out.println("Error: " + e.getMessage());
-            e.printStackTrace();
+                break;
+            case PASSWORD_CHANGE_REQUIRED:
+                forcePasswordChange(result.user);
+                return;
+            case SUCCESS:
+                statusLabel.setText("Login successful!");
+                statusLabel.setForeground(Color.GREEN);
+                loginSuccessful(result.user);
+                return;
         }
+        statusLabel.setForeground(Color.RED);
     }
+
+    private void showAccountLockedDialog() {
+        JOptionPane.showMessageDialog(this, 
+            "Your account has been locked due to too many failed attempts.\n" +
+            "Please contact an administrator to unlock your account.",
+            "Account Locked", JOptionPane.WARNING_MESSAGE);
+    }
+
     private void loginSuccessful(User user) {
         dispose(); // Close the login frame
         openDashboard(user);
@@ -407,13 +260,14 @@ public class LoginFrame extends JFrame {
     
     private void openDashboard(User user) {
         dispose();
+        Session session = Session.open(user);
         SwingUtilities.invokeLater(() -> {
             if (user instanceof Admin) {
-                new AdminDashboard(user, dealership).setVisible(true);
+                new AdminDashboard(session, dealership).setVisible(true);
             } else if (user instanceof Manager) {
-                new ManagerDashboard(user, dealership).setVisible(true);
+                new ManagerDashboard(session, dealership).setVisible(true);
             } else if (user instanceof Salesperson) {
-                new SalespersonDashboard(user, dealership).setVisible(true);
+                new SalespersonDashboard(session, dealership).setVisible(true);
             }
         });
     }
@@ -421,6 +275,7 @@ public class LoginFrame extends JFrame {
     // Dashboard views by Role
     class AdminDashboard extends JFrame implements ActionListener {
         private Dealership dealership;
+        private Session session;
         private User user;
         private JButton searchCarButton, addVehicleButton, sellVehicleButton, removeVehicleButton,
                 editVehicleButton, salesHistoryButton, dealershipInfoButton,
@@ -430,15 +285,16 @@ public class LoginFrame extends JFrame {
         private JScrollPane scrollPane;
         private JMenuBar menuBar;
         private JMenu fileMenu;
-        private JMenuItem saveItem, deleteDealershipItem;
+        private JMenuItem saveItem, deleteDealershipItem, importFeedItem, exportInventoryItem, exportSalesItem;
         private JButton logoutButton = new JButton("Logout");
         // Test mode indicator components
         private JPanel testModeIndicator;
         private JLabel testModeLabel;
         
     
-        public AdminDashboard(User user, Dealership dealership) {
-            this.user = user;
+        public AdminDashboard(Session session, Dealership dealership) {
+            this.session = session;
+            this.user = session.getUser();
             this.dealership = dealership;
             setTitle("Admin Dashboard - " + dealership.getName());
             setSize(1200, 700);
@@ -462,7 +318,13 @@ public class LoginFrame extends JFrame {
             fileMenu = new JMenu("File");
             saveItem = new JMenuItem("Save");
             deleteDealershipItem = new JMenuItem("Delete Dealership");
+            importFeedItem = new JMenuItem("Import Vehicle Feed...");
+            exportInventoryItem = new JMenuItem("Export Inventory...");
+            exportSalesItem = new JMenuItem("Export Sales History...");
             fileMenu.add(saveItem);
+            fileMenu.add(importFeedItem);
+            fileMenu.add(exportInventoryItem);
+            fileMenu.add(exportSalesItem);
             fileMenu.add(deleteDealershipItem);
             menuBar.add(fileMenu);
         
@@ -574,6 +436,9 @@ public class LoginFrame extends JFrame {
             // Add action listeners for menu items
             saveItem.addActionListener(this);
             deleteDealershipItem.addActionListener(this);
+            importFeedItem.addActionListener(this);
+            exportInventoryItem.addActionListener(this);
+            exportSalesItem.addActionListener(this);
         }
     
         /**
@@ -649,7 +514,7 @@ public class LoginFrame extends JFrame {
                 // Confirmation dialog for entering test mode
                 int confirm = JOptionPane.showConfirmDialog(
                     this,
-                    "Enter test mode? This will create a temporary database environment.\n" +
+                    "Enter test mode? This will work on a temporary copy of the live database.\n" +
                     "All changes made in test mode will be discarded when you exit test mode.",
                     "Enter Test Mode",
                     JOptionPane.YES_NO_OPTION,
@@ -737,7 +602,7 @@ public class LoginFrame extends JFrame {
                     String buyerName = JOptionPane.showInputDialog(this, "Enter the buyer's name:");
                     String buyerContact = JOptionPane.showInputDialog(this, "Enter the buyer's contact:");
                     Vehicle vehicle = dealership.getVehicleFromId(id);
-                    if (dealership.sellVehicle(vehicle, buyerName, buyerContact)) {
+                    if (dealership.sellVehicle(vehicle, buyerName, buyerContact, user.getId())) {
                         JOptionPane.showMessageDialog(this, "Vehicle sold successfully.");
                     } else {
                         JOptionPane.showMessageDialog(this, "Couldn't sell vehicle.");
@@ -769,7 +634,13 @@ public class LoginFrame extends JFrame {
                         JOptionPane.showMessageDialog(this, "Vehicle not found!");
                         return;
                     }
-                    Vehicle vehicle = dealership.getVehicleFromId(id);
+                    // Edit a private copy and swap it in, so the live vehicle never changes under a reader
+                    Vehicle current = dealership.getVehicleFromId(id);
+                    if (current == null) {
+                        JOptionPane.showMessageDialog(this, "Vehicle not found!");
+                        return;
+                    }
+                    Vehicle vehicle = VehicleTypeRegistry.of(current).copy(current);
                     JTextField makeField = new JTextField();
                     JTextField modelField = new JTextField();
                     JTextField colorField = new JTextField();
@@ -815,7 +686,11 @@ public class LoginFrame extends JFrame {
                             motorcycle.setPrice(Double.parseDouble(priceField.getText()));
                             motorcycle.setHandlebarType(handlebarField.getText());
                         }
-                        JOptionPane.showMessageDialog(this, "Vehicle edited successfully.");
+                        if (dealership.updateVehicle(vehicle)) {
+                            JOptionPane.showMessageDialog(this, "Vehicle edited successfully.");
+                        } else {
+                            JOptionPane.showMessageDialog(this, "Vehicle was removed or sold while it was being edited.");
+                        }
                     }
                 } else if (e.getSource() == salesHistoryButton) {
                     textArea = new JTextArea(dealership.showSalesHistory());
@@ -864,6 +739,12 @@ public class LoginFrame extends JFrame {
                     } catch (IOException ex) {
                         JOptionPane.showMessageDialog(this, "Error saving dealership: " + ex.getMessage());
                     }
+                } else if (e.getSource() == importFeedItem) {
+                    importFeed();
+                } else if (e.getSource() == exportInventoryItem) {
+                    exportData(false);
+                } else if (e.getSource() == exportSalesItem) {
+                    exportData(true);
                 } else if (e.getSource() == deleteDealershipItem) {
                     int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete the dealership?",
                             "Confirmation", JOptionPane.YES_NO_OPTION);
@@ -890,18 +771,8 @@ public class LoginFrame extends JFrame {
 
         private String filterInventory(String make, String model, Integer minYear, Double maxPrice) {
             StringBuilder result = new StringBuilder();
-            for (Vehicle vehicle : dealership.getVehicles()) {
-                if (vehicle == null) continue;
-                boolean matches = true;
-    
-                if (make != null && !vehicle.getMake().equalsIgnoreCase(make)) matches = false;
-                if (model != null && !vehicle.getModel().equalsIgnoreCase(model)) matches = false;
-                if (minYear != null && vehicle.getYear() < minYear) matches = false;
-                if (maxPrice != null && vehicle.getPrice() > maxPrice) matches = false;
-    
-                if (matches) {
-                    result.append(vehicle.toString()).append("\n--------------------\n");
-                }
+            for (Vehicle vehicle : dealership.searchVehicles(make, model, minYear, maxPrice)) {
+                result.append(vehicle.toString()).append("\n--------------------\n");
             }
             return result.length() > 0 ? result.toString() : "No vehicles found matching the criteria.";
         }
@@ -944,40 +815,39 @@ public class LoginFrame extends JFrame {
                 }
     
                 String tempPassword = "temp" + System.currentTimeMillis();
-                ((Admin) user).createUser(role, username, tempPassword, name, email, phone);
-
+                // Hashing the temporary password is slow, so it runs on an authentication worker
+                AuthService.getInstance().submit(() -> {
+                    ((Admin) user).createUser(role, username, tempPassword, name, email, phone);
+                    return null;
+                }).whenComplete((ignored, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (ex != null) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "Error creating profile: " + ex.getMessage());
+                        return;
+                    }
 
-                JOptionPane.showMessageDialog(this, 
-                "New Employee Profile Created!\n\nUsername: " + username + 
-                "\nTemporary Password: " + tempPassword + 
-                "\n\nShare this manually with the employee.", 
-                "Profile Created", JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.showMessageDialog(AdminDashboard.this, 
+                    "New Employee Profile Created!\n\nUsername: " + username + 
+                    "\nTemporary Password: " + tempPassword + 
+                    "\n\nShare this manually with the employee.", 
+                    "Profile Created", JOptionPane.INFORMATION_MESSAGE);
 
 
-                JOptionPane.showMessageDialog(this,
-                        "Profile created for " + name + "\nCredentials sent to " + email + ":\nUsername: " + username + "\nPassword: " + tempPassword,
-                        "New Profile Created", JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.showMessageDialog(AdminDashboard.this,
+                            "Profile created for " + name + "\nCredentials sent to " + email + ":\nUsername: " + username + "\nPassword: " + tempPassword,
+                            "New Profile Created", JOptionPane.INFORMATION_MESSAGE);
+                }));
             }
         }
 
 
         private void showEmployeeList() throws SQLException {
-            List<User> users = dealership.getUsers();
-            if (users.isEmpty()) {
+            // Rows are fetched a page at a time; filtering and sorting run in the database
+            EmployeeTableModel tableModel = new EmployeeTableModel(new EmployeeQuery());
+            if (tableModel.getRowCount() == 0) {
                 JOptionPane.showMessageDialog(this, "No employees found.");
                 return;
             }
         
-            String[] columnNames = {"Name", "Email", "Phone", "Role", "Username", "Active", "Permissions"};
-            DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
-            for (User u : users) {
-                tableModel.addRow(new Object[]{
-                    u.getName(), u.getEmail(), u.getPhone(),
-                    u.getRole(), u.getUsername(), u.isActive() ? "Yes" : "No",
-                    getPermissions(u)
-                });
-            }
-        
             JTable table = new JTable(tableModel) {
                 @Override
                 public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
@@ -991,9 +861,43 @@ public class LoginFrame extends JFrame {
                 }
             };
             table.setEnabled(false);
+            table.getTableHeader().addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    try {
+                        tableModel.sortByColumn(table.columnAtPoint(e.getPoint()));
+                    } catch (SQLException ex) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "SQL Error: " + ex.getMessage());
+                    }
+                }
+            });
             JScrollPane scrollPaneTable = new JScrollPane(table);
             scrollPaneTable.setPreferredSize(new Dimension(600, 300));
         
+            JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            JComboBox<String> roleFilter = new JComboBox<>(new String[]{"All Roles", "Admin", "Manager", "Salesperson"});
+            JComboBox<String> activeFilter = new JComboBox<>(new String[]{"All", "Active", "Inactive"});
+            JTextField nameFilter = new JTextField(10);
+            JButton applyFilterButton = new JButton("Filter");
+            filterPanel.add(new JLabel("Role:"));
+            filterPanel.add(roleFilter);
+            filterPanel.add(new JLabel("Status:"));
+            filterPanel.add(activeFilter);
+            filterPanel.add(new JLabel("Name starts with:"));
+            filterPanel.add(nameFilter);
+            filterPanel.add(applyFilterButton);
+        
+            applyFilterButton.addActionListener(e -> {
+                String role = roleFilter.getSelectedIndex() == 0 ? null : (String) roleFilter.getSelectedItem();
+                Boolean active = activeFilter.getSelectedIndex() == 0 ? null : activeFilter.getSelectedIndex() == 1;
+                try {
+                    tableModel.setQuery(tableModel.getQuery().withRole(role).withActive(active)
+                            .withNamePrefix(nameFilter.getText()));
+                } catch (SQLException ex) {
+                    JOptionPane.showMessageDialog(this, "SQL Error: " + ex.getMessage());
+                }
+            });
+        
             JPanel optionsPanel = new JPanel(new GridLayout(2, 1));
             JButton toggleActiveButton = new JButton("Toggle Active Status");
             JButton editPermissionsButton = new JButton("Edit Permissions");
@@ -1002,7 +906,7 @@ public class LoginFrame extends JFrame {
         
             toggleActiveButton.addActionListener(e -> {
                 try {
-                    toggleActiveStatus(users);
+                    toggleActiveStatus();
                     refreshEmployeeTable(table);
                 } catch (SQLException ex) {
                     JOptionPane.showMessageDialog(this, "SQL Error: " + ex.getMessage());
@@ -1011,27 +915,18 @@ public class LoginFrame extends JFrame {
                 }
             });
         
-            editPermissionsButton.addActionListener(e -> editPermissions(users, table));
+            editPermissionsButton.addActionListener(e -> editPermissions(table));
         
-            JOptionPane.showOptionDialog(this, new Object[]{scrollPaneTable, optionsPanel}, "Employee List",
+            JOptionPane.showOptionDialog(this, new Object[]{filterPanel, scrollPaneTable, optionsPanel}, "Employee List",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, new Object[]{"OK"}, "OK");
         }
         
         private void refreshEmployeeTable(JTable table) throws SQLException {
-            List<User> updatedUsers = dealership.getUsers();
-            DefaultTableModel model = (DefaultTableModel) table.getModel();
-            model.setRowCount(0); // Clear existing rows
-            for (User u : updatedUsers) {
-                model.addRow(new Object[]{
-                    u.getName(), u.getEmail(), u.getPhone(),
-                    u.getRole(), u.getUsername(), u.isActive() ? "Yes" : "No",
-                    getPermissions(u)
-                });
-            }
-            model.fireTableDataChanged(); // Refresh the table display
+            // Re-counts and drops cached pages; visible rows are re-read as they are drawn
+            ((EmployeeTableModel) table.getModel()).refresh();
         }
     
-        private void toggleActiveStatus(List<User> users) throws SQLException, Exception {
+        private void toggleActiveStatus() throws SQLException, Exception {
             String username = JOptionPane.showInputDialog(this, "Enter username to toggle active status:");
             if (username == null) return;
             User targetUser = User.loadUser(username);
@@ -1058,7 +953,7 @@ public class LoginFrame extends JFrame {
             }
         }
     
-        private void editPermissions(List<User> users, JTable table) {
+        private void editPermissions(JTable table) {
             String username = JOptionPane.showInputDialog(this, "Enter username to edit permissions:");
             if (username == null) return;
         
@@ -1108,12 +1003,6 @@ public class LoginFrame extends JFrame {
                     JOptionPane.showMessageDialog(this, "Permissions updated for " + username + ": " + targetUser.getPermissions());
                     // Refresh the Employee List table
                     refreshEmployeeTable(table);
-                    // Refresh current admin's permissions if self-editing
-                    if (targetUser.getUsername().equals(this.user.getUsername())) {
-                        this.user.loadPermissions();
-                    }
-                    // Add the logout prompt here
-                    JOptionPane.showMessageDialog(this, "Permissions updated. Please log out and log back in to see changes.");
                 }
             } catch (SQLException ex) {
                 JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage());
@@ -1124,26 +1013,128 @@ public class LoginFrame extends JFrame {
         
         // Helper method to update permissions in the database
         private void updatePermissionsInDB(User user, JCheckBox[] checkBoxes, String[] dbPermissions) throws SQLException {
-            DBManager db = DBManager.getInstance();
-            // Clear existing permissions for the user
-            db.runUpdate("DELETE FROM user_permissions WHERE user_id = ?", user.getId());
-        
-            // Insert new permissions based on checkbox selections
+            Set<String> enabled = new HashSet<>();
             for (int i = 0; i < checkBoxes.length; i++) {
                 if (checkBoxes[i].isSelected()) {
-                    ResultSet rs = db.runQuery("SELECT permission_id FROM permissions WHERE permission_name = ?", dbPermissions[i]);
-                    if (rs.next()) {
-                        int permissionId = rs.getInt("permission_id");
-                        db.runUpdate("INSERT INTO user_permissions (user_id, permission_id, is_enabled) VALUES (?, ?, 1)",
-                                     user.getId(), permissionId);
-                    } else {
-                        JOptionPane.showMessageDialog(this, "Permission " + dbPermissions[i] + " not found in database!");
-                    }
+                    enabled.add(dbPermissions[i]);
                 }
             }
+            // Only the changed permissions are written, in one transaction
+            PermissionService.getInstance().setPermissions(user.getId(), enabled);
         }
                 
     
+        private void importFeed() {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Import Vehicle Feed");
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+            java.nio.file.Path file = chooser.getSelectedFile().toPath();
+            ProgressMonitor monitor = new ProgressMonitor(this, "Importing " + file.getFileName(), null, 0, 100);
+
+            // Parsing and inserting run off the event thread; each committed batch reports back here
+            SwingWorker<VehicleFeedImporter.Report, String> worker = new SwingWorker<VehicleFeedImporter.Report, String>() {
+                @Override
+                protected VehicleFeedImporter.Report doInBackground() throws Exception {
+                    return new VehicleFeedImporter(dealership).importFile(file, (fraction, imported, rejected) -> {
+                        if (isCancelled()) {
+                            throw new CancellationException();
+                        }
+                        setProgress((int) Math.min(99, fraction * 100));
+                        publish(imported + " imported, " + rejected + " rejected");
+                    });
+                }
+
+                @Override
+                protected void process(List<String> notes) {
+                    monitor.setNote(notes.get(notes.size() - 1));
+                    monitor.setProgress(getProgress());
+                    if (monitor.isCanceled()) {
+                        cancel(false);
+                    }
+                }
+
+                @Override
+                protected void done() {
+                    monitor.close();
+                    try {
+                        textArea = new JTextArea(get().toString());
+                        textArea.setEditable(false);
+                        scrollPane = new JScrollPane(textArea);
+                        scrollPane.setPreferredSize(new Dimension(500, 300));
+                        JOptionPane.showMessageDialog(AdminDashboard.this, scrollPane, "Import Results", JOptionPane.PLAIN_MESSAGE);
+                    } catch (CancellationException ex) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this,
+                                "Import cancelled. Batches committed before cancelling stay in the inventory.");
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "Error importing feed: " + ex.getCause().getMessage());
+                    }
+                }
+            };
+            worker.execute();
+        }
+
+        private void exportData(boolean salesHistory) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle(salesHistory ? "Export Sales History" : "Export Inventory");
+            chooser.setSelectedFile(new File(salesHistory ? "sales.csv" : "inventory.csv"));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+            // A .dcol file gets the columnar format, anything else CSV
+            java.nio.file.Path file = chooser.getSelectedFile().toPath();
+            DataExporter exporter = new DataExporter(dealership.getDealershipId());
+            String noun = salesHistory ? " sales" : " vehicles";
+            // The live counters give the expected row count, so the bar can show a percentage
+            DealershipStats.Snapshot stats = dealership.getStats().snapshot();
+            long expected = salesHistory ? stats.getSalesCount() : stats.getInventoryCount();
+            ProgressMonitor monitor = new ProgressMonitor(this, "Exporting to " + file.getFileName(), null, 0, 100);
+
+            // The export reads the database and writes the file off the event thread
+            SwingWorker<Long, Long> worker = new SwingWorker<Long, Long>() {
+                @Override
+                protected Long doInBackground() throws Exception {
+                    java.util.function.LongConsumer progress = rows -> {
+                        if (isCancelled()) {
+                            throw new CancellationException();
+                        }
+                        publish(rows);
+                    };
+                    DataExporter.Format format = DataExporter.Format.forFile(file);
+                    return salesHistory ? exporter.exportSales(file, format, progress)
+                            : exporter.exportInventory(file, format, progress);
+                }
+
+                @Override
+                protected void process(List<Long> chunks) {
+                    long rows = chunks.get(chunks.size() - 1);
+                    monitor.setNote(rows + noun + " written");
+                    if (expected > 0) {
+                        monitor.setProgress((int) Math.min(99, rows * 100 / expected));
+                    }
+                    if (monitor.isCanceled()) {
+                        cancel(false);
+                    }
+                }
+
+                @Override
+                protected void done() {
+                    monitor.close();
+                    try {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "Exported " + get() + noun + " to " + file);
+                    } catch (CancellationException ex) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "Export cancelled; " + file + " is incomplete.");
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, "Error exporting data: " + ex.getCause().getMessage());
+                    }
+                }
+            };
+            worker.execute();
+        }
+
         private void managePasswords() throws SQLException, Exception {
             if (!(user instanceof Admin)) {
                 JOptionPane.showMessageDialog(this, "Only admins can manage passwords!");
@@ -1174,8 +1165,15 @@ public class LoginFrame extends JFrame {
                             "Confirm Reset", JOptionPane.YES_NO_OPTION);
                     if (confirm == JOptionPane.YES_OPTION) {
                         String newPassword = "reset" + System.currentTimeMillis();
-                        ((Admin) user).resetPassword(targetUser, newPassword);
-                        JOptionPane.showMessageDialog(this, "Password reset for " + username + ". New password: " + newPassword + "\nEmail sent to " + targetUser.getEmail());
+                        // Hashing the new password is slow, so it runs on an authentication worker
+                        AuthService.getInstance().submit(() -> ((Admin) user).resetPassword(targetUser, newPassword))
+                            .whenComplete((ignored, ex) -> SwingUtilities.invokeLater(() -> {
+                                if (ex != null) {
+                                    JOptionPane.showMessageDialog(AdminDashboard.this, "Error resetting password: " + ex.getMessage());
+                                } else {
+                                    JOptionPane.showMessageDialog(AdminDashboard.this, "Password reset for " + username + ". New password: " + newPassword + "\nEmail sent to " + targetUser.getEmail());
+                                }
+                            }));
                     }
                 } else {
                     JOptionPane.showMessageDialog(this, "No reset request found for " + username);
@@ -1247,6 +1245,7 @@ public class LoginFrame extends JFrame {
 
     class ManagerDashboard extends JFrame implements ActionListener {
         private Dealership dealership;
+        private Session session;
         private User user;
         private JButton searchCarButton, addVehicleButton, sellVehicleButton, removeVehicleButton,
                 editVehicleButton, salesHistoryButton, dealershipInfoButton;
@@ -1257,8 +1256,9 @@ public class LoginFrame extends JFrame {
         private JMenuItem saveItem;
 
 
-        public ManagerDashboard(User user, Dealership dealership) {
-            this.user = user;
+        public ManagerDashboard(Session session, Dealership dealership) {
+            this.session = session;
+            this.user = session.getUser();
             this.dealership = dealership;
             setTitle("Manager Dashboard - " + dealership.getName());
             setSize(1200, 700); // Same size as AdminDashboard
@@ -1267,6 +1267,13 @@ public class LoginFrame extends JFrame {
             getContentPane().setBackground(Color.decode("#ADD8E6")); // Same background as AdminDashboard
             initializeUI();
             setLocationRelativeTo(null);
+            // Pick up permission edits made while this dashboard was open
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowActivated(WindowEvent e) {
+                    refreshPermissions();
+                }
+            });
         }
 
         private void initializeUI() {
@@ -1302,7 +1309,7 @@ public class LoginFrame extends JFrame {
             int spacing = 160;
         
             // Conditionally add buttons based on permissions
-            if (user.getPermissionsMap().getOrDefault("SEARCH_VEHICLES", true)) {
+            if (session.hasPermission("SEARCH_VEHICLES", true)) {
                 searchCarButton = new JButton("Search");
                 searchCarButton.setBackground(Color.decode("#F09EA7"));
                 searchCarButton.setForeground(Color.BLACK);
@@ -1314,7 +1321,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
         
-            if (user.getPermissionsMap().getOrDefault("ADD_VEHICLE", false)) {
+            if (session.hasPermission("ADD_VEHICLE")) {
                 addVehicleButton = new JButton("Add Vehicle");
                 addVehicleButton.setBackground(Color.decode("#F6CA94"));
                 addVehicleButton.setForeground(Color.BLACK);
@@ -1326,7 +1333,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
         
-            if (user.getPermissionsMap().getOrDefault("SELL_VEHICLE", false)) {
+            if (session.hasPermission("SELL_VEHICLE")) {
                 sellVehicleButton = new JButton("Sell Vehicle");
                 sellVehicleButton.setBackground(Color.decode("#FAFABE"));
                 sellVehicleButton.setForeground(Color.GREEN);
@@ -1338,7 +1345,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
         
-            if (user.getPermissionsMap().getOrDefault("REMOVE_VEHICLE", false)) {
+            if (session.hasPermission("REMOVE_VEHICLE")) {
                 removeVehicleButton = new JButton("Remove Vehicle");
                 removeVehicleButton.setBackground(Color.decode("#C1EBC0"));
                 removeVehicleButton.setForeground(Color.RED);
@@ -1350,7 +1357,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
         
-            if (user.getPermissionsMap().getOrDefault("EDIT_VEHICLE", false)) {
+            if (session.hasPermission("EDIT_VEHICLE")) {
                 editVehicleButton = new JButton("Edit Vehicle");
                 editVehicleButton.setBackground(Color.decode("#C7CAFF"));
                 editVehicleButton.setForeground(Color.BLACK);
@@ -1362,7 +1369,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
         
-            if (user.getPermissionsMap().getOrDefault("VIEW_SALES_HISTORY", false)) {
+            if (session.hasPermission("VIEW_SALES_HISTORY")) {
                 salesHistoryButton = new JButton("Sales History");
                 salesHistoryButton.setBackground(Color.decode("#CDABEB"));
                 salesHistoryButton.setForeground(Color.BLACK);
@@ -1375,7 +1382,7 @@ public class LoginFrame extends JFrame {
             }
         
         
-            if (user.getPermissionsMap().getOrDefault("VIEW_DEALERSHIP_INFO", false)) {
+            if (session.hasPermission("VIEW_DEALERSHIP_INFO")) {
                 dealershipInfoButton = new JButton("Dealership Info");
                 dealershipInfoButton.setBackground(Color.decode("#FFD700"));
                 dealershipInfoButton.setForeground(Color.BLACK);
@@ -1387,8 +1394,38 @@ public class LoginFrame extends JFrame {
             }
         }
 
+        /**
+         * Rebuild the buttons if this user's permissions were edited since they were drawn
+         */
+        private void refreshPermissions() {
+            if (session.refreshIfStale()) {
+                getContentPane().removeAll();
+                searchCarButton = addVehicleButton = sellVehicleButton = removeVehicleButton = null;
+                editVehicleButton = salesHistoryButton = dealershipInfoButton = null;
+                initializeUI();
+                revalidate();
+                repaint();
+            }
+        }
+
+        private boolean isPermitted(Object source) {
+            if (source == searchCarButton) return session.hasPermission("SEARCH_VEHICLES", true);
+            if (source == addVehicleButton) return session.hasPermission("ADD_VEHICLE");
+            if (source == sellVehicleButton) return session.hasPermission("SELL_VEHICLE");
+            if (source == removeVehicleButton) return session.hasPermission("REMOVE_VEHICLE");
+            if (source == editVehicleButton) return session.hasPermission("EDIT_VEHICLE");
+            if (source == salesHistoryButton) return session.hasPermission("VIEW_SALES_HISTORY");
+            if (source == dealershipInfoButton) return session.hasPermission("VIEW_DEALERSHIP_INFO");
+            return true;
+        }
+
         @Override
         public void actionPerformed(ActionEvent e) {
+            if (!isPermitted(e.getSource())) {
+                JOptionPane.showMessageDialog(this, "You no longer have permission to do this.");
+                refreshPermissions();
+                return;
+            }
             if (e.getSource() == searchCarButton) {
                 if (dealership.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "Inventory is empty!");
@@ -1440,7 +1477,7 @@ public class LoginFrame extends JFrame {
                     String buyerContact = JOptionPane.showInputDialog(this, "Enter the buyer's contact:");
                     Vehicle vehicle = dealership.getVehicleFromId(id);
                     try {
-                        if (dealership.sellVehicle(vehicle, buyerName, buyerContact)) {
+                        if (dealership.sellVehicle(vehicle, buyerName, buyerContact, user.getId())) {
                             JOptionPane.showMessageDialog(this, "Vehicle sold successfully.");
                         } else {
                             JOptionPane.showMessageDialog(this, "Couldn't sell vehicle.");
@@ -1488,7 +1525,13 @@ public class LoginFrame extends JFrame {
                         JOptionPane.showMessageDialog(this, "Vehicle not found!");
                         return;
                     }
-                    Vehicle vehicle = dealership.getVehicleFromId(id);
+                    // Edit a private copy and swap it in, so the live vehicle never changes under a reader
+                    Vehicle current = dealership.getVehicleFromId(id);
+                    if (current == null) {
+                        JOptionPane.showMessageDialog(this, "Vehicle not found!");
+                        return;
+                    }
+                    Vehicle vehicle = VehicleTypeRegistry.of(current).copy(current);
                     JTextField makeField = new JTextField();
                     JTextField modelField = new JTextField();
                     JTextField colorField = new JTextField();
@@ -1535,7 +1578,11 @@ public class LoginFrame extends JFrame {
                             motorcycle.setPrice(Double.parseDouble(priceField.getText()));
                             motorcycle.setHandlebarType(handlebarField.getText());
                         }
-                        JOptionPane.showMessageDialog(this, "Vehicle edited successfully.");
+                        if (dealership.updateVehicle(vehicle)) {
+                            JOptionPane.showMessageDialog(this, "Vehicle edited successfully.");
+                        } else {
+                            JOptionPane.showMessageDialog(this, "Vehicle was removed or sold while it was being edited.");
+                        }
                     }
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(this, "Invalid input. Year and price must be numeric values.");
@@ -1598,18 +1645,8 @@ public class LoginFrame extends JFrame {
 
         private String filterInventory(String make, String model, Integer minYear, Double maxPrice) {
             StringBuilder result = new StringBuilder();
-            for (Vehicle vehicle : dealership.getVehicles()) {
-                if (vehicle == null) continue;
-                boolean matches = true;
-    
-                if (make != null && !vehicle.getMake().equalsIgnoreCase(make)) matches = false;
-                if (model != null && !vehicle.getModel().equalsIgnoreCase(model)) matches = false;
-                if (minYear != null && vehicle.getYear() < minYear) matches = false;
-                if (maxPrice != null && vehicle.getPrice() > maxPrice) matches = false;
-    
-                if (matches) {
-                    result.append(vehicle.toString()).append("\n--------------------\n");
-                }
+            for (Vehicle vehicle : dealership.searchVehicles(make, model, minYear, maxPrice)) {
+                result.append(vehicle.toString()).append("\n--------------------\n");
             }
             return result.length() > 0 ? result.toString() : "No vehicles found matching the criteria.";
         }
@@ -1664,6 +1701,7 @@ public class LoginFrame extends JFrame {
 
     class SalespersonDashboard extends JFrame implements ActionListener {
         private Dealership dealership;
+        private Session session;
         private User user;
         private JButton sellVehicleButton, searchCarButton, salesHistoryButton, addVehicleButton, removeVehicleButton;
         private JTextArea textArea;
@@ -1672,8 +1710,9 @@ public class LoginFrame extends JFrame {
         private JMenu fileMenu;
         private JMenuItem saveItem;
     
-        public SalespersonDashboard(User user, Dealership dealership) {
-            this.user = user;
+        public SalespersonDashboard(Session session, Dealership dealership) {
+            this.session = session;
+            this.user = session.getUser();
             this.dealership = dealership;
             setTitle("Salesperson Dashboard - " + dealership.getName());
             setSize(1200, 700);
@@ -1682,6 +1721,13 @@ public class LoginFrame extends JFrame {
             getContentPane().setBackground(Color.decode("#ADD8E6"));
             initializeUI();
             setLocationRelativeTo(null);
+            // Pick up permission edits made while this dashboard was open
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowActivated(WindowEvent e) {
+                    refreshPermissions();
+                }
+            });
         }
     
         private void initializeUI() {
@@ -1706,7 +1752,7 @@ public class LoginFrame extends JFrame {
             int buttonHeight = 70;
             int spacing = 160;
     
-            if (user.getPermissionsMap().getOrDefault("ADD_VEHICLE", false)) {
+            if (session.hasPermission("ADD_VEHICLE")) {
                 addVehicleButton = new JButton("Add Vehicle");
                 addVehicleButton.setBackground(Color.decode("#F6CA94"));
                 addVehicleButton.setForeground(Color.BLACK);
@@ -1718,7 +1764,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
     
-            if (user.getPermissionsMap().getOrDefault("SELL_VEHICLE", false)) {
+            if (session.hasPermission("SELL_VEHICLE")) {
                 sellVehicleButton = new JButton("Sell Vehicle");
                 sellVehicleButton.setBackground(Color.decode("#FAFABE"));
                 sellVehicleButton.setForeground(Color.GREEN);
@@ -1730,7 +1776,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
     
-            if (user.getPermissionsMap().getOrDefault("REMOVE_VEHICLE", false)) {
+            if (session.hasPermission("REMOVE_VEHICLE")) {
                 removeVehicleButton = new JButton("Remove Vehicle");
                 removeVehicleButton.setBackground(Color.decode("#C1EBC0"));
                 removeVehicleButton.setForeground(Color.RED);
@@ -1742,7 +1788,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
     
-            if (user.getPermissionsMap().getOrDefault("SEARCH_VEHICLES", false)) {
+            if (session.hasPermission("SEARCH_VEHICLES")) {
                 searchCarButton = new JButton("Search");
                 searchCarButton.setBackground(Color.decode("#F6C2F3"));
                 searchCarButton.setForeground(Color.BLACK);
@@ -1754,7 +1800,7 @@ public class LoginFrame extends JFrame {
                 xPos += spacing;
             }
     
-            if (user.getPermissionsMap().getOrDefault("VIEW_SALES_HISTORY", false)) {
+            if (session.hasPermission("VIEW_SALES_HISTORY")) {
                 salesHistoryButton = new JButton("Sales History");
                 salesHistoryButton.setBackground(Color.decode("#CDABEB"));
                 salesHistoryButton.setForeground(Color.BLACK);
@@ -1766,8 +1812,35 @@ public class LoginFrame extends JFrame {
             }
         }
     
+        /**
+         * Rebuild the buttons if this user's permissions were edited since they were drawn
+         */
+        private void refreshPermissions() {
+            if (session.refreshIfStale()) {
+                getContentPane().removeAll();
+                sellVehicleButton = searchCarButton = salesHistoryButton = addVehicleButton = removeVehicleButton = null;
+                initializeUI();
+                revalidate();
+                repaint();
+            }
+        }
+
+        private boolean isPermitted(Object source) {
+            if (source == addVehicleButton) return session.hasPermission("ADD_VEHICLE");
+            if (source == sellVehicleButton) return session.hasPermission("SELL_VEHICLE");
+            if (source == removeVehicleButton) return session.hasPermission("REMOVE_VEHICLE");
+            if (source == searchCarButton) return session.hasPermission("SEARCH_VEHICLES");
+            if (source == salesHistoryButton) return session.hasPermission("VIEW_SALES_HISTORY");
+            return true;
+        }
+    
         @Override
 public void actionPerformed(ActionEvent e) {
+    if (!isPermitted(e.getSource())) {
+        JOptionPane.showMessageDialog(this, "You no longer have permission to do this.");
+        refreshPermissions();
+        return;
+    }
     if (e.getSource() instanceof JButton && "Log Out".equals(((JButton) e.getSource()).getText())) {
         dispose();
         new LoginFrame(dealership).setVisible(true);
@@ -1799,7 +1872,7 @@ public void actionPerformed(ActionEvent e) {
             String buyerContact = JOptionPane.showInputDialog(this, "Enter the buyer's contact:");
             Vehicle vehicle = dealership.getVehicleFromId(id);
             try {
-                if (dealership.sellVehicle(vehicle, buyerName, buyerContact)) {
+                if (dealership.sellVehicle(vehicle, buyerName, buyerContact, user.getId())) {
                     JOptionPane.showMessageDialog(this, "Vehicle sold successfully.");
                     showInventory();
                 } else {
@@ -1887,18 +1960,8 @@ public void actionPerformed(ActionEvent e) {
 
 private String filterInventory(String make, String model, Integer minYear, Double maxPrice) {
     StringBuilder result = new StringBuilder();
-    for (Vehicle vehicle : dealership.getVehicles()) {
-        if (vehicle == null) continue;
-        boolean matches = true;
-
-        if (make != null && !vehicle.getMake().equalsIgnoreCase(make)) matches = false;
-        if (model != null && !vehicle.getModel().equalsIgnoreCase(model)) matches = false;
-        if (minYear != null && vehicle.getYear() < minYear) matches = false;
-        if (maxPrice != null && vehicle.getPrice() > maxPrice) matches = false;
-
-        if (matches) {
-            result.append(vehicle.toString()).append("\n--------------------\n");
-        }
+    for (Vehicle vehicle : dealership.searchVehicles(make, model, minYear, maxPrice)) {
+        result.append(vehicle.toString()).append("\n--------------------\n");
     }
     return result.length() > 0 ? result.toString() : "No vehicles found matching the criteria.";
 }
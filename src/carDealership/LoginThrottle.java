@@ -0,0 +1,153 @@
+package carDealership;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, in-memory throttle for failed logins
+ * Failures are counted per username and per session in a fixed-size count-min sketch: each key
+ * hashes to one slot in each of two rows, and its estimate is the smaller of the two counts.
+ * The rows take the two halves of a 64-bit hash of the key's UTF-8 bytes, seeded at random per
+ * instance, so keys that collide in one row are unlikely to collide in the other and an attacker
+ * cannot work out in advance which names share a victim's slots.
+ * Every slot packs the window it belongs to with its count in a single long updated by CAS,
+ * so counts decay simply by the window moving on and no locks or maps are ever needed.
+ * A throttled attempt is rejected before any password hashing or database access
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class LoginThrottle {
+	private static final int ROWS = 2;
+	private static final int SLOTS_PER_ROW = 4096;
+	private static final int COUNT_BITS = 20;
+	private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+	private final AtomicLongArray slots = new AtomicLongArray(ROWS * SLOTS_PER_ROW);
+	private final long seed = new SecureRandom().nextLong();
+	private final long windowMillis;
+	private final int maxPerUsername;
+	private final int maxPerSession;
+
+	/**
+	 * Constructor for the LoginThrottle class
+	 *
+	 * @param windowMillis - length of a counting window in milliseconds
+	 * @param maxPerUsername - failures allowed for one username within a window
+	 * @param maxPerSession - failures allowed from one session within a window, across all usernames
+	 */
+	public LoginThrottle(long windowMillis, int maxPerUsername, int maxPerSession) {
+		this.windowMillis = windowMillis;
+		this.maxPerUsername = maxPerUsername;
+		this.maxPerSession = maxPerSession;
+	}
+
+	/**
+	 * Check whether another attempt should be refused without touching the database
+	 *
+	 * @param username - the username being tried
+	 * @param session - the session or client address making the attempt, or null
+	 * @return true if either the username or the session is over its limit for the current window
+	 */
+	public boolean isThrottled(String username, String session) {
+		long window = currentWindow();
+		if (username != null && estimate(userKey(username), window) >= maxPerUsername) {
+			return true;
+		}
+		return session != null && estimate(sessionKey(session), window) >= maxPerSession;
+	}
+
+	/**
+	 * Count a failed attempt
+	 *
+	 * @param username - the username that was tried
+	 * @param session - the session or client address that made the attempt, or null
+	 */
+	public void recordFailure(String username, String session) {
+		long window = currentWindow();
+		if (username != null) {
+			increment(userKey(username), window);
+		}
+		if (session != null) {
+			increment(sessionKey(session), window);
+		}
+	}
+
+	/**
+	 * Time until the current window ends and throttled keys may try again
+	 *
+	 * @return milliseconds until the next window
+	 */
+	public long retryAfterMillis() {
+		return windowMillis - System.currentTimeMillis() % windowMillis;
+	}
+
+	private long currentWindow() {
+		return System.currentTimeMillis() / windowMillis;
+	}
+
+	private int estimate(String key, long window) {
+		long hash = hash(key);
+		int min = Integer.MAX_VALUE;
+		for (int row = 0; row < ROWS; row++) {
+			long packed = slots.get(index(hash, row));
+			int count = (packed >>> COUNT_BITS) == window ? (int) (packed & COUNT_MASK) : 0;
+			min = Math.min(min, count);
+		}
+		return min;
+	}
+
+	private void increment(String key, long window) {
+		long hash = hash(key);
+		for (int row = 0; row < ROWS; row++) {
+			int i = index(hash, row);
+			while (true) {
+				long packed = slots.get(i);
+				long count = (packed >>> COUNT_BITS) == window ? packed & COUNT_MASK : 0;
+				if (count == COUNT_MASK) {
+					break;
+				}
+				long next = (window << COUNT_BITS) | (count + 1);
+				if (slots.compareAndSet(i, packed, next)) {
+					break;
+				}
+			}
+		}
+	}
+
+	private static int index(long hash, int row) {
+		int h = (int) (row == 0 ? hash : hash >>> 32);
+		return row * SLOTS_PER_ROW + (h & (SLOTS_PER_ROW - 1));
+	}
+
+	/**
+	 * Seeded 64-bit hash of a key's UTF-8 bytes: FNV-1a over the bytes, then a 64-bit finalizer so
+	 * both halves depend on every byte
+	 */
+	private long hash(String key) {
+		long h = seed ^ 0xCBF29CE484222325L;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+
+	private static String userKey(String username) {
+		return "u:" + username.toLowerCase(Locale.ROOT);
+	}
+
+	private static String sessionKey(String session) {
+		return "s:" + session;
+	}
+}
@@ -37,25 +37,36 @@ public class Main {
 	 * Initializes the dealership from saved data or creates a new one
 	 * Launches the appropriate GUI interface based on application state
 	 *
-	 * @param args - command line arguments (not used)
+	 * @param args - command line arguments; "--headless [--port N] [--console-port N] [--bind ADDRESS]" (or "--server [port]") starts the JSON API, and optionally the multi-session text console, without the GUI
 	 * @throws IOException if an I/O error occurs
 	 * @throws ClassNotFoundException if the serialized class cannot be found
 	 * @throws SQLException if a database access error occurs
 	 */
 	public static void main(String args[]) throws IOException, ClassNotFoundException, SQLException {
 		try {
-			// Add a shutdown hook to reset failed password attempts when application exits
+			// Add a shutdown hook to clear pending password reset requests when application exits
 			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 				try {
-					// Reset all failed attempts on application exit
-					resetAllFailedAttempts();
+					clearPasswordResetRequests();
 				} catch (Exception e) {
 					System.err.println("Error in shutdown hook: " + e.getMessage());
 				}
 			}));
-			
+
+			if (HeadlessLauncher.isRequested(args)) {
+				m_dealership = HeadlessLauncher.launch(args);
+				return;
+			}
+
+			// Decode the window icons while the database is being opened
+			IconCache.warmUp();
+
+			// Opening the database checks the schema with a single sqlite_master query
+			StartupTimer timer = new StartupTimer();
+			timer.time("database", DBManager::getInstance);
+
 			var dealershipLayer = new DealershipLayer();
-			if (!dealershipLayer.existsAndSet()) {
+			if (!timer.time("dealership-probe", dealershipLayer::existsAndSet)) {
 				SwingUtilities.invokeLater(() -> {
 					new FirstLaunchPage();
 				});
@@ -65,15 +76,17 @@ public class Main {
 				if (saveFile.exists()) {
 					try (FileInputStream fileIn = new FileInputStream(saveFile);
 						 ObjectInputStream objIn = new ObjectInputStream(fileIn)) {
-						m_dealership = (Dealership) objIn.readObject();
+						m_dealership = timer.time("save-restore", () -> (Dealership) objIn.readObject());
+						// Tie the restored dealership to the record just found rather than inserting a new one
+						m_dealership.attach(dealershipLayer);
 					} catch (Exception e) {
 						System.err.println("Error loading dealership from save.data: " + e.getMessage());
-						// Fallback to creating a new Dealership
-						m_dealership = new Dealership(dealershipLayer.getNname(), dealershipLayer.getLocation(), dealershipLayer.getCapacity());
+						// Fall back to the dealership already in the database
+						m_dealership = bindDealership(timer, dealershipLayer);
 					}
 				} else {
-					// If save.data doesn't exist, create a new Dealership
-					m_dealership = new Dealership(dealershipLayer.getNname(), dealershipLayer.getLocation(), dealershipLayer.getCapacity());
+					// If save.data doesn't exist, use the dealership already in the database
+					m_dealership = bindDealership(timer, dealershipLayer);
 				}
 				SwingUtilities.invokeLater(() -> {
 					LoginFrame loginFrame = new LoginFrame(m_dealership);
@@ -81,37 +94,33 @@ public class Main {
 					loginFrame.setVisible(true);
 				});
 			}
+			System.out.println(timer.report());
 		} catch (Exception e) {
 			System.err.println("Error in main: " + e.getMessage());
 		}
 	}
 
+	/**
+	 * Bind to the dealership record found at startup and load its unsold vehicles
+	 * The name, location and capacity are only read from the database at this point
+	 *
+	 * @param timer - the startup timer to record the phases in
+	 * @param layer - the dealership layer populated by {@link DealershipLayer#existsAndSet()}
+	 * @return the dealership
+	 * @throws Exception if the database cannot be read
+	 */
+	private static Dealership bindDealership(StartupTimer timer, DealershipLayer layer) throws Exception {
+		Dealership dealership = timer.time("dealership-bind", () -> new Dealership(layer));
+		timer.time("inventory-load", dealership::loadInventory);
+		return dealership;
+	}
+
 	/**
 	 * Display a menu for adding vehicles to the dealership
 	 * Provides options to add either a car or motorcycle
 	 */
 	public static void addVehicleMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Add a Vehicle");
-		System.out.println("\nChoose an option:");
-		System.out.println("1. Car");
-		System.out.println("2. Motorcycle");
-		System.out.println("3. Exit");
-
-		String choice = input.nextLine();
-
-		switch (choice) {
-		case "1":
-			addCarMenu();
-			break;
-		case "2":
-			addMotorcycleMenu();
-			break;
-		case "3":
-			return;
-		default:
-			System.out.println("Invalid choice. Please try again.");
-		}
+		console().addVehicleMenu();
 	}
 
 	/**
@@ -119,37 +128,7 @@ public class Main {
 	 * Collects car details from user input and adds the car to inventory
 	 */
 	public static void addCarMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Add a Car");
-
-		System.out.print("\nEnter the make: ");
-		String make = input.nextLine();
-
-		System.out.print("Enter the model: ");
-		String model = input.nextLine();
-
-		System.out.print("Enter the color: ");
-		String color = input.nextLine();
-
-		System.out.print("Enter the year: ");
-		int year = input.nextInt();
-
-		System.out.print("Enter the price: ");
-		double price = input.nextDouble();
-
-		System.out.print("Enter the type: ");
-		input.nextLine();
-		String type = input.nextLine();
-
-		try {
-			if (m_dealership.addVehicle(new Car(make, model, color, year, price, type))) {
-				System.out.println("Car added succesfully.");
-			} else {
-				System.out.println("Couldn't add car.");
-			}
-		} catch (SQLException e) {
-			System.out.println("An error occurred while adding the car: " + e.getMessage());
-		}
+		console().addCarMenu();
 	}
 
 	/**
@@ -157,37 +136,7 @@ public class Main {
 	 * Collects motorcycle details from user input and adds it to inventory
 	 */
 	public static void addMotorcycleMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Add a Motorcycle");
-
-		System.out.print("\nEnter the make: ");
-		String make = input.nextLine();
-
-		System.out.print("Enter the model: ");
-		String model = input.nextLine();
-
-		System.out.print("Enter the color: ");
-		String color = input.nextLine();
-
-		System.out.print("Enter the year: ");
-		int year = input.nextInt();
-
-		System.out.print("Enter the price: ");
-		double price = input.nextDouble();
-		input.nextLine();
-
-		System.out.print("Enter the handlebar type: ");
-		String handlebarType = input.nextLine();
-
-		try {
-			if (m_dealership.addVehicle(new Motorcycle(make, model, color, year, price, handlebarType))) {
-				System.out.println("Motorcycle added successfully.");
-			} else {
-				System.out.println("Couldn't add Motorcycle.");
-			}
-		} catch (SQLException e) {
-			System.out.println("An error occurred while adding the motorcycle: " + e.getMessage());
-		}
+		console().addMotorcycleMenu();
 	}
 
 	/**
@@ -195,35 +144,7 @@ public class Main {
 	 * Collects vehicle ID and buyer information to process the sale
 	 */
 	public static void sellVehicleMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Sell a Vehicle");
-
-		System.out.print("\nEnter the id of the vehicle: ");
-		int id = input.nextInt();
-		input.nextLine();
-
-		if (m_dealership.getIndexFromId(id) == -1) {
-			System.out.println("\nVehicle not found!");
-			return;
-		}
-
-		System.out.print("Enter the buyer's name: ");
-		String buyerName = input.nextLine();
-
-		System.out.print("Enter the buyer's contact: ");
-		String buyerContact = input.nextLine();
-
-		Vehicle vehicle = m_dealership.getVehicleFromId(id);
-
-		try {
-			if (m_dealership.sellVehicle(vehicle, buyerName, buyerContact)) {
-				System.out.println("Vehicle sold successfully.");
-			} else {
-				System.out.println("Couldn't sell vehicle");
-			}
-		} catch (SQLException e) {
-			System.out.println("An error occurred while selling the vehicle: " + e.getMessage());
-		}
+		console().sellVehicleMenu();
 	}
 
 	/**
@@ -231,29 +152,7 @@ public class Main {
 	 * Collects vehicle ID and removes the specified vehicle from inventory
 	 */
 	public static void removeVehicleMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Remove a Vehicle");
-
-		System.out.print("\nEnter the id of the vehicle: ");
-		int id = input.nextInt();
-		input.nextLine();
-
-		if (m_dealership.getIndexFromId(id) == -1) {
-			System.out.println("\nVehicle not found!");
-			return;
-		}
-
-		Vehicle vehicle = m_dealership.getVehicleFromId(id);
-
-		try {
-			if (m_dealership.removeVehicle(vehicle)) {
-				System.out.println("Vehicle removed successfully.");
-			} else {
-				System.out.println("Couldn't remove vehicle");
-			}
-		} catch (SQLException e) {
-			System.out.println("An error occurred while removing the vehicle: " + e.getMessage());
-		}
+		console().removeVehicleMenu();
 	}
 
 	/**
@@ -261,27 +160,7 @@ public class Main {
 	 * Collects vehicle ID and redirects to appropriate edit method based on vehicle type
 	 */
 	public static void editVehicleMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Edit a Vehicle");
-
-		System.out.print("\nEnter the id of the vehicle: ");
-		int id = input.nextInt();
-		input.nextLine();
-
-		if (m_dealership.getIndexFromId(id) == -1) {
-			System.out.println("\nVehicle not found!");
-			return;
-		}
-		System.out.println("\nEnter the new information");
-		Vehicle vehicle = m_dealership.getVehicleFromId(id);
-		vehicle.displayInfo();
-
-		if (vehicle instanceof Car) {
-			carEdit((Car) vehicle);
-		}
-		if (vehicle instanceof Motorcycle) {
-			motorcycleEdit((Motorcycle) vehicle);
-		}
+		console().editVehicleMenu();
 	}
 
 	/**
@@ -290,31 +169,7 @@ public class Main {
 	 * @param c - the car to be edited
 	 */
 	public static void carEdit(Car c) {
-		System.out.print("\nEnter the make: ");
-		String make = input.nextLine();
-
-		System.out.print("Enter the model: ");
-		String model = input.nextLine();
-
-		System.out.print("Enter the color: ");
-		String color = input.nextLine();
-
-		System.out.print("Enter the year: ");
-		int year = input.nextInt();
-
-		System.out.print("Enter the price: ");
-		double price = input.nextDouble();
-
-		System.out.print("Enter the type: ");
-		input.nextLine();
-		String type = input.nextLine();
-
-		c.setMake(make);
-		c.setModel(model);
-		c.setColor(color);
-		c.setYear(year);
-		c.setPrice(price);
-		c.setType(type);
+		console().carEdit(c);
 	}
 
 	/**
@@ -323,31 +178,7 @@ public class Main {
 	 * @param m - the motorcycle to be edited
 	 */
 	public static void motorcycleEdit(Motorcycle m) {
-		System.out.print("\nEnter the make: ");
-		String make = input.nextLine();
-
-		System.out.print("Enter the model: ");
-		String model = input.nextLine();
-
-		System.out.print("Enter the color: ");
-		String color = input.nextLine();
-
-		System.out.print("Enter the year: ");
-		int year = input.nextInt();
-
-		System.out.print("Enter the price: ");
-		double price = input.nextDouble();
-
-		System.out.print("Enter the handlebar type: ");
-		input.nextLine();
-		String handlebarType = input.nextLine();
-
-		m.setMake(make);
-		m.setModel(model);
-		m.setColor(color);
-		m.setYear(year);
-		m.setPrice(price);
-		m.setHandlebarType(handlebarType);
+		console().motorcycleEdit(m);
 	}
 
 	/**
@@ -355,25 +186,7 @@ public class Main {
 	 * Shows all cars matching the specified type
 	 */
 	public static void searchCarMenu() {
-		if (!(m_dealership.isEmpty())) {
-
-			System.out.println("Enter type: ");
-			String s = input.nextLine();
-
-			Car[] v = m_dealership.searchCar(s);
-			int total = 0;
-			if (v != null) {
-				for (int i = 0; i < v.length; i++) {
-					if (v[i] != null) {
-						v[i].displayInfo();
-						System.out.println();
-						total++;
-					}
-				}
-			}
-			System.out.printf("Total found: [%d]\n", total);
-		} else
-			System.out.println("Sorry the inventory is empty.");
+		console().searchCarMenu();
 	}
 
 	/**
@@ -381,32 +194,7 @@ public class Main {
 	 * Provides options for different color schemes
 	 */
 	public static void changeColorMenu() {
-		System.out.println("\n-------------------------------------------\n");
-		System.out.println("Add a Vehicle");
-		System.out.println("\nChoose an option:");
-		System.out.println("1. Blue");
-		System.out.println("2. Green");
-		System.out.println("3. White");
-		System.out.println("4. Exit");
-		String choice = input.nextLine();
-
-		switch (choice) {
-		case "1":
-			System.out.println("\u001B[36m"); // Changes color to Blue.
-			break;
-		case "2":
-			System.out.println("\u001B[32m"); // Changes color to Green.
-
-			break;
-		case "3":
-			System.out.println("\u001B[0m"); // Changes color back to White.
-
-			break;
-		case "4":
-			return;
-		default:
-			System.out.println("Invalid choice. Please try again.");
-		}
+		console().changeColorMenu();
 	}
 
 	/**
@@ -414,24 +202,14 @@ public class Main {
 	 * Shows the count of cars that fall within the given price range
 	 */
 	public static void budgetCarMenu() {
-		if (!(m_dealership.isEmpty())) {
-
-			System.out.println("Enter budget: ");
-			String budget = input.nextLine();
-
-			for (int i = 0; i < budget.length(); i++) {
-				if (budget.charAt(i) < 48 || budget.charAt(i) > 57) { // Ascii digits from 0 to 9.
-					System.out.println("Invaild Input, Please enter postive numbers only.");
-					return;
-				}
-			}
-			{
-				int total = m_dealership.carBudget(Double.parseDouble(budget)); // Calling carBudget Method.
-				System.out.printf("Total [%d]\n", total);
-			}
+		console().budgetCarMenu();
+	}
 
-		} else
-			System.out.println("Sorry the inventory is empty.");
+	/**
+	 * Console session on the process's own terminal and the current dealership
+	 */
+	private static ConsoleSession console() {
+		return new ConsoleSession(input, System.out, m_dealership);
 	}
 
 	/**
@@ -479,33 +257,18 @@ public class Main {
 	}
 	
 	/**
-	 * Resets the failed attempt counters for all users in the database
-	 * Called when the application exits to ensure users start with a clean slate
-	 * next time they login
+	 * Clears pending password reset requests from the database
+	 * Called when the application exits; failed login counters are kept so lockouts survive a restart
 	 * 
 	 * @throws SQLException if a database error occurs
 	 */
-	private static void resetAllFailedAttempts() throws SQLException {
+	private static void clearPasswordResetRequests() throws SQLException {
 		try {
-			System.out.println("Resetting all failed login attempts...");
 			persistance.DBManager db = persistance.DBManager.getInstance();
-			
-			// Reset failed_attempts counter but don't change locked status
-			// This way, accounts that were manually locked stay locked
-			db.runUpdate("UPDATE users SET failed_attempts = 0");
-			
-			// Also clear any password reset requests that might be in the database
-			try {
-				db.runUpdate("DELETE FROM password_reset_requests");
-			} catch (SQLException e) {
-				// This might fail if the table doesn't exist, which is OK
-				System.out.println("Note: Could not clear password reset requests: " + e.getMessage());
-			}
-			
-			System.out.println("Successfully reset all failed login attempts.");
-		} catch (Exception e) {
-			System.err.println("Error resetting failed attempts: " + e.getMessage());
-			throw e;
+			db.runUpdate("DELETE FROM password_reset_requests");
+		} catch (SQLException e) {
+			// This might fail if the table doesn't exist, which is OK
+			System.out.println("Note: Could not clear password reset requests: " + e.getMessage());
 		}
 	}
 	
@@ -525,13 +288,16 @@ public class Main {
 			// Put database in test mode
 			DBManager dbManager = DBManager.getInstance();
 			dbManager.enterTestMode();
+			UserDirectory.getInstance().invalidate();
+			Session.invalidateAll();
+			PermissionService.getInstance().invalidate();
 			
 			// Set application test mode flag
 			isTestMode = true;
 			
-			// Refresh dealership data to reflect the test database state
+			// The test database starts as a copy of the live one, so the inventory is shared and only changes are recorded
 			if (m_dealership != null) {
-				m_dealership.refreshOnTestModeChange();
+				m_dealership.enterTestMode();
 			}
 			
 			System.out.println("Test mode activated - all changes will be discarded on exit");
@@ -559,13 +325,16 @@ public class Main {
 			// Exit database test mode
 			DBManager dbManager = DBManager.getInstance();
 			dbManager.exitTestMode();
+			UserDirectory.getInstance().invalidate();
+			Session.invalidateAll();
+			PermissionService.getInstance().invalidate();
 			
 			// Reset application test mode flag
 			isTestMode = false;
 			
-			// Refresh dealership data to reflect the normal database state
+			// Undo only the inventory changes made in test mode
 			if (m_dealership != null) {
-				m_dealership.refreshOnTestModeChange();
+				m_dealership.exitTestMode();
 			}
 			
 			System.out.println("Test mode deactivated - all changes have been discarded");
@@ -0,0 +1,139 @@
+package carDealership;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money held as a primitive long count of cents
+ * Prices and totals stay exact under addition, so summing millions of sales neither drifts nor
+ * truncates the way accumulating doubles into an int did. The arithmetic works on plain longs and
+ * allocates nothing; conversion from doubles and text only happens at the edges (user input,
+ * legacy REAL columns) and rounds half up to the nearest cent
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public final class Money {
+	/**
+	 * SQL expression converting a REAL price column to whole cents, e.g. {@code String.format(Money.SQL_CENTS, "v.price")}
+	 */
+	public static final String SQL_CENTS = "CAST(ROUND(%s * 100) AS INTEGER)";
+
+	private Money() {
+	}
+
+	/**
+	 * Convert an amount in dollars to cents
+	 * Uses the shortest decimal form of the double, so 0.285 becomes 29 cents rather than 28
+	 *
+	 * @param amount - the amount in dollars
+	 * @return the amount in cents, rounded half up
+	 */
+	public static long fromDouble(double amount) {
+		if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+			throw new IllegalArgumentException("Not a money amount: " + amount);
+		}
+		return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+	}
+
+	/**
+	 * Convert cents to an amount in dollars for display or legacy APIs
+	 *
+	 * @param cents - the amount in cents
+	 * @return the amount in dollars
+	 */
+	public static double toDouble(long cents) {
+		return cents / 100.0;
+	}
+
+	/**
+	 * Parse an amount typed by a user, such as "1234.5" or "1,234.50"
+	 *
+	 * @param text - the amount in dollars, optionally with a leading $ and grouping commas
+	 * @return the amount in cents, rounded half up
+	 * @throws NumberFormatException if the text is not a number
+	 */
+	public static long parse(String text) {
+		String cleaned = text.trim().replace(",", "");
+		if (cleaned.startsWith("$")) {
+			cleaned = cleaned.substring(1);
+		}
+		return new BigDecimal(cleaned).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+	}
+
+	/**
+	 * Add two amounts
+	 *
+	 * @param a - an amount in cents
+	 * @param b - an amount in cents
+	 * @return the sum in cents
+	 * @throws ArithmeticException if the sum overflows
+	 */
+	public static long add(long a, long b) {
+		return Math.addExact(a, b);
+	}
+
+	/**
+	 * Multiply an amount by a quantity
+	 *
+	 * @param cents - the amount in cents
+	 * @param quantity - the multiplier
+	 * @return the product in cents
+	 * @throws ArithmeticException if the product overflows
+	 */
+	public static long times(long cents, long quantity) {
+		return Math.multiplyExact(cents, quantity);
+	}
+
+	/**
+	 * Sum a run of amounts
+	 * A plain loop over a primitive array, which the JIT can unroll and vectorize
+	 *
+	 * @param cents - the amounts in cents
+	 * @param from - the first index to include
+	 * @param to - one past the last index to include
+	 * @return the total in cents
+	 */
+	public static long sum(long[] cents, int from, int to) {
+		long total = 0;
+		for (int i = from; i < to; i++) {
+			total += cents[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Average of a total over a count, rounded half away from zero to the nearest cent
+	 *
+	 * @param totalCents - the total in cents
+	 * @param count - the number of items
+	 * @return the average in cents, or 0 if the count is 0
+	 */
+	public static long average(long totalCents, long count) {
+		if (count == 0) {
+			return 0;
+		}
+		long quotient = totalCents / count;
+		long remainder = totalCents % count;
+		if (Math.abs(remainder) * 2 >= Math.abs(count)) {
+			quotient += (totalCents < 0) == (count < 0) ? 1 : -1;
+		}
+		return quotient;
+	}
+
+	/**
+	 * Format an amount for display, e.g. "$1,234.50" or "-$3.05"
+	 *
+	 * @param cents - the amount in cents
+	 * @return the formatted amount
+	 */
+	public static String format(long cents) {
+		long abs = Math.abs(cents);
+		return String.format("%s$%,d.%02d", cents < 0 ? "-" : "", abs / 100, abs % 100);
+	}
+}
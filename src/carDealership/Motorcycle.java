@@ -38,7 +38,7 @@ public class Motorcycle extends Vehicle implements Serializable {
 	 * @param m - the Motorcycle object to copy
 	 */
 	public Motorcycle(Motorcycle m) {
-		this(m.make, m.model, m.color, m.year, m.price, m.handlebarType);
+		this(m.make, m.model, m.color, m.year, m.getPrice(), m.handlebarType);
 	}
 
 	/**
@@ -52,7 +52,7 @@ public class Motorcycle extends Vehicle implements Serializable {
 		System.out.println("Motorcycle: " + motorcycleName);
 		System.out.println("Color: " + color);
 		System.out.println("Handlebar type: " + handlebarType);
-		System.out.println("Price: " + price + " SAR");
+		System.out.println("Price: " + getPrice() + " SAR");
 	}
 
 	/**
@@ -0,0 +1,58 @@
+package carDealership;
+
+import java.util.Arrays;
+
+/**
+ * Measures PBKDF2 cost at several work factors to help choose dealership.password.iterations
+ * Run with the login latency budget in milliseconds as the first argument (default 250);
+ * the largest tested work factor whose median hash time fits the budget is recommended
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class PasswordHashBenchmark {
+	private static final int[] WORK_FACTORS = { 50000, 100000, 210000, 310000, 600000, 1000000 };
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 7;
+
+	/**
+	 * Entry point for the benchmark
+	 *
+	 * @param args - optional latency budget in milliseconds
+	 */
+	public static void main(String[] args) {
+		double budgetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 250;
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			PasswordHasher.hash("warm-up password", WORK_FACTORS[0]);
+		}
+
+		int recommended = -1;
+		System.out.printf("%12s %12s%n", "iterations", "median ms");
+		for (int iterations : WORK_FACTORS) {
+			double[] samples = new double[MEASURED_ROUNDS];
+			for (int i = 0; i < MEASURED_ROUNDS; i++) {
+				long start = System.nanoTime();
+				PasswordHasher.hash("correct horse battery staple", iterations);
+				samples[i] = (System.nanoTime() - start) / 1e6;
+			}
+			Arrays.sort(samples);
+			double median = samples[MEASURED_ROUNDS / 2];
+			System.out.printf("%12d %12.1f%n", iterations, median);
+			if (median <= budgetMillis) {
+				recommended = iterations;
+			}
+		}
+
+		if (recommended < 0) {
+			System.out.println("No tested work factor fits a " + budgetMillis + " ms budget on this machine");
+		} else {
+			System.out.println("Recommended: -Ddealership.password.iterations=" + recommended
+					+ " (budget " + budgetMillis + " ms, current " + PasswordHasher.ITERATIONS + ")");
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package carDealership;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashing
+ * Hashes are stored as "pbkdf2$iterations$salt$hash" with Base64 salt and hash, so the work factor
+ * can be raised later without invalidating existing rows. Values without the prefix are legacy
+ * plaintext passwords, which still verify until they are rehashed on the next successful login
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class PasswordHasher {
+	private static final String PREFIX = "pbkdf2$";
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	private static final int SALT_BYTES = 16;
+	private static final int HASH_BITS = 256;
+
+	/**
+	 * Work factor for new hashes; set with -Ddealership.password.iterations=N
+	 * (see {@link PasswordHashBenchmark} for picking a value)
+	 */
+	public static final int ITERATIONS = Integer.getInteger("dealership.password.iterations", 310000);
+
+	private static final SecureRandom random = new SecureRandom();
+
+	private PasswordHasher() {
+	}
+
+	/**
+	 * Hash a password with a fresh salt and the configured work factor
+	 *
+	 * @param password - the plaintext password
+	 * @return the encoded hash
+	 */
+	public static String hash(String password) {
+		return hash(password, ITERATIONS);
+	}
+
+	/**
+	 * Hash a password with a fresh salt and the given work factor
+	 *
+	 * @param password - the plaintext password
+	 * @param iterations - the PBKDF2 iteration count
+	 * @return the encoded hash
+	 */
+	public static String hash(String password, int iterations) {
+		byte[] salt = new byte[SALT_BYTES];
+		random.nextBytes(salt);
+		Base64.Encoder encoder = Base64.getEncoder();
+		return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$"
+				+ encoder.encodeToString(derive(password, salt, iterations));
+	}
+
+	/**
+	 * Check a password attempt against a stored value
+	 *
+	 * @param attempt - the password entered
+	 * @param stored - the stored hash, or a legacy plaintext password
+	 * @return true if the attempt matches
+	 */
+	public static boolean verify(String attempt, String stored) {
+		if (attempt == null || stored == null) {
+			return false;
+		}
+		if (!isHashed(stored)) {
+			return stored.trim().equals(attempt);
+		}
+		String[] parts = stored.split("\\$");
+		if (parts.length != 4) {
+			return false;
+		}
+		try {
+			int iterations = Integer.parseInt(parts[1]);
+			byte[] salt = Base64.getDecoder().decode(parts[2]);
+			byte[] expected = Base64.getDecoder().decode(parts[3]);
+			return MessageDigest.isEqual(expected, derive(attempt, salt, iterations));
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Check whether a stored value should be replaced after a successful login
+	 *
+	 * @param stored - the stored hash or legacy plaintext password
+	 * @return true for plaintext and for hashes made with fewer iterations than configured
+	 */
+	public static boolean needsRehash(String stored) {
+		if (!isHashed(stored)) {
+			return true;
+		}
+		String[] parts = stored.split("\\$");
+		try {
+			return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Check whether a stored value is a hash rather than legacy plaintext
+	 *
+	 * @param stored - the stored password value
+	 * @return true if the value carries the hash prefix
+	 */
+	public static boolean isHashed(String stored) {
+		return stored != null && stored.startsWith(PREFIX);
+	}
+
+	private static byte[] derive(String password, byte[] salt, int iterations) {
+		PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(ALGORITHM + " is not available", e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package carDealership;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import persistance.DBManager;
+
+/**
+ * Writes user permissions as diffs
+ * Permission names are resolved to IDs from a map read once from the permissions table. Changing a
+ * user's permissions reads their current grants, works out which to add and which to remove,
+ * and applies only that delta as batched statements in a single transaction. The same path
+ * applies one change to many users at once, e.g. every member of a role
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class PermissionService {
+	private static final String GRANT_SQL = "INSERT INTO user_permissions (user_id, permission_id, is_enabled) VALUES (?, ?, 1) "
+			+ "ON CONFLICT(user_id, permission_id) DO UPDATE SET is_enabled = 1";
+	private static final String REVOKE_SQL = "DELETE FROM user_permissions WHERE user_id = ? AND permission_id = ?";
+
+	private static final PermissionService instance = new PermissionService();
+
+	private volatile Map<String, Integer> idsByName;
+
+	/**
+	 * Number of rows granted and revoked by one change
+	 */
+	public static final class Delta {
+		public final int granted;
+		public final int revoked;
+
+		Delta(int granted, int revoked) {
+			this.granted = granted;
+			this.revoked = revoked;
+		}
+
+		/**
+		 * Check whether the change altered anything
+		 *
+		 * @return true if no row was written
+		 */
+		public boolean isEmpty() {
+			return granted == 0 && revoked == 0;
+		}
+	}
+
+	private PermissionService() {
+	}
+
+	/**
+	 * Getter method for the shared service
+	 *
+	 * @return the permission service
+	 */
+	public static PermissionService getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Getter method for the permission name to ID map
+	 *
+	 * @return an unmodifiable map in permission_id order
+	 * @throws SQLException if the map has to be loaded and the load fails
+	 */
+	public Map<String, Integer> getPermissionIds() throws SQLException {
+		Map<String, Integer> ids = idsByName;
+		if (ids != null) {
+			return ids;
+		}
+		synchronized (this) {
+			if (idsByName == null) {
+				Map<String, Integer> loaded = new LinkedHashMap<>();
+				ResultSet rs = DBManager.getInstance().runQuery(
+						"SELECT permission_id, permission_name FROM permissions ORDER BY permission_id");
+				try {
+					while (rs.next()) {
+						loaded.put(rs.getString("permission_name"), rs.getInt("permission_id"));
+					}
+				} finally {
+					rs.close();
+				}
+				idsByName = Collections.unmodifiableMap(loaded);
+			}
+			return idsByName;
+		}
+	}
+
+	/**
+	 * Set exactly which permissions a user holds
+	 * Only permissions that differ from the user's current rows are written
+	 *
+	 * @param userId - the ID of the user
+	 * @param enabled - names of the permissions the user should hold; all others are removed
+	 * @return the rows granted and revoked
+	 * @throws SQLException if a name is unknown or a database access error occurs
+	 */
+	public Delta setPermissions(int userId, Set<String> enabled) throws SQLException {
+		Set<Integer> wanted = resolve(enabled);
+		Set<Integer> current = new HashSet<>();
+		Set<Integer> stale = new HashSet<>();
+		ResultSet rs = DBManager.getInstance().runQuery(
+				"SELECT permission_id, is_enabled FROM user_permissions WHERE user_id = ?", userId);
+		try {
+			while (rs.next()) {
+				(rs.getBoolean("is_enabled") ? current : stale).add(rs.getInt("permission_id"));
+			}
+		} finally {
+			rs.close();
+		}
+
+		Set<Integer> grants = new HashSet<>(wanted);
+		grants.removeAll(current);
+		// Disabled rows are removed along with revoked ones, as the old delete-all did
+		Set<Integer> revokes = new HashSet<>(current);
+		revokes.addAll(stale);
+		revokes.removeAll(wanted);
+		return apply(List.of(userId), grants, revokes);
+	}
+
+	/**
+	 * Grant and revoke permissions for every member of a role, active or not
+	 *
+	 * @param role - "Admin", "Manager" or "Salesperson"
+	 * @param grant - names of permissions to grant
+	 * @param revoke - names of permissions to remove
+	 * @return the rows granted and revoked
+	 * @throws SQLException if a name is unknown or a database access error occurs
+	 */
+	public Delta applyToRole(String role, Set<String> grant, Set<String> revoke) throws SQLException {
+		List<Integer> userIds = new ArrayList<>();
+		ResultSet rs = DBManager.getInstance().runQuery(
+				"SELECT u.user_id FROM users u JOIN roles r ON u.role_id = r.role_id WHERE r.role_name = ?", role);
+		try {
+			while (rs.next()) {
+				userIds.add(rs.getInt("user_id"));
+			}
+		} finally {
+			rs.close();
+		}
+		return applyToUsers(userIds, grant, revoke);
+	}
+
+	/**
+	 * Grant and revoke the same permissions for many users in one transaction
+	 *
+	 * @param userIds - IDs of the users to change
+	 * @param grant - names of permissions to grant
+	 * @param revoke - names of permissions to remove
+	 * @return the rows granted and revoked
+	 * @throws SQLException if a name is unknown or a database access error occurs
+	 */
+	public Delta applyToUsers(Collection<Integer> userIds, Set<String> grant, Set<String> revoke) throws SQLException {
+		return apply(userIds, resolve(grant), resolve(revoke));
+	}
+
+	/**
+	 * Drop the cached name to ID map; the next change reloads it from the current connection
+	 */
+	public synchronized void invalidate() {
+		idsByName = null;
+	}
+
+	private Delta apply(Collection<Integer> userIds, Set<Integer> grants, Set<Integer> revokes) throws SQLException {
+		if (userIds.isEmpty() || (grants.isEmpty() && revokes.isEmpty())) {
+			return new Delta(0, 0);
+		}
+		List<Object[]> grantRows = new ArrayList<>(userIds.size() * grants.size());
+		List<Object[]> revokeRows = new ArrayList<>(userIds.size() * revokes.size());
+		for (int userId : userIds) {
+			for (int permissionId : grants) {
+				grantRows.add(new Object[] { userId, permissionId });
+			}
+			for (int permissionId : revokes) {
+				revokeRows.add(new Object[] { userId, permissionId });
+			}
+		}
+
+		int[] counts = new int[2];
+		DBManager.getInstance().runInTransaction(conn -> {
+			counts[1] = sum(DBManager.runBatch(conn, REVOKE_SQL, revokeRows));
+			counts[0] = sum(DBManager.runBatch(conn, GRANT_SQL, grantRows));
+		});
+		for (int userId : userIds) {
+			Session.invalidate(userId);
+		}
+		return new Delta(counts[0], counts[1]);
+	}
+
+	private Set<Integer> resolve(Set<String> names) throws SQLException {
+		Map<String, Integer> ids = getPermissionIds();
+		Set<Integer> resolved = new HashSet<>();
+		for (String name : names) {
+			Integer id = ids.get(name);
+			if (id == null) {
+				throw new SQLException("Permission " + name + " not found in database!");
+			}
+			resolved.add(id);
+		}
+		return resolved;
+	}
+
+	private static int sum(int[] updateCounts) {
+		int total = 0;
+		for (int count : updateCounts) {
+			// Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+			total += Math.max(count, 0);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,294 @@
+package carDealership;
+
+/**
+ * Persistent hash map from int keys to values
+ * Every update returns a new map and leaves the old one untouched, copying only the nodes on the
+ * path to the changed key (at most seven arrays of up to 32 entries), so readers can keep using an
+ * older version while a writer moves on. Keys are spread by a bijective mix, so two keys never
+ * share a full hash and no collision lists are needed
+ *
+ * @param <V> - the value type
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public final class PersistentIntMap<V> {
+	private static final PersistentIntMap<Object> EMPTY = new PersistentIntMap<>(null, 0);
+
+	private final Node root;
+	private final int size;
+
+	private PersistentIntMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Getter method for the empty map
+	 *
+	 * @param <V> - the value type
+	 * @return a map with no entries
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> PersistentIntMap<V> empty() {
+		return (PersistentIntMap<V>) EMPTY;
+	}
+
+	/**
+	 * Build a map from many entries at once
+	 * The trie is laid out level by level from the grouped hashes, so nothing is copied along the way
+	 *
+	 * @param <V> - the value type
+	 * @param keys - the keys, all different
+	 * @param values - the matching values
+	 * @param count - the number of entries to take from the front of the arrays
+	 * @return a map holding the entries
+	 */
+	public static <V> PersistentIntMap<V> of(int[] keys, V[] values, int count) {
+		if (count == 0) {
+			return empty();
+		}
+		int[] hashes = new int[count];
+		Leaf[] leaves = new Leaf[count];
+		for (int i = 0; i < count; i++) {
+			hashes[i] = mix(keys[i]);
+			leaves[i] = new Leaf(keys[i], values[i]);
+		}
+		Object built = build(hashes, leaves, 0, count, 0, new int[count], new Leaf[count]);
+		Node root = built instanceof Node ? (Node) built
+				: new Node(1 << (hashes[0] & 31), new Object[] { built });
+		return new PersistentIntMap<>(root, count);
+	}
+
+	/**
+	 * Find the value stored under a key
+	 *
+	 * @param key - the key
+	 * @return the value, or null if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int hash = mix(key);
+		Node node = root;
+		for (int shift = 0; node != null; shift += 5) {
+			int bit = 1 << ((hash >>> shift) & 31);
+			if ((node.bitmap & bit) == 0) {
+				return null;
+			}
+			Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+			if (child instanceof Leaf) {
+				Leaf leaf = (Leaf) child;
+				return leaf.key == key ? (V) leaf.value : null;
+			}
+			node = (Node) child;
+		}
+		return null;
+	}
+
+	/**
+	 * Store a value under a key, replacing any previous value
+	 *
+	 * @param key - the key
+	 * @param value - the value
+	 * @return the updated map
+	 */
+	public PersistentIntMap<V> with(int key, V value) {
+		Leaf leaf = new Leaf(key, value);
+		int hash = mix(key);
+		if (root == null) {
+			return new PersistentIntMap<>(new Node(1 << (hash & 31), new Object[] { leaf }), 1);
+		}
+		boolean[] added = new boolean[1];
+		Node updated = put(root, hash, 0, leaf, added);
+		return new PersistentIntMap<>(updated, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * Remove a key
+	 *
+	 * @param key - the key
+	 * @return the updated map, or this map if the key was not in it
+	 */
+	public PersistentIntMap<V> without(int key) {
+		if (root == null) {
+			return this;
+		}
+		Object updated = remove(root, mix(key), 0, key);
+		if (updated == root) {
+			return this;
+		}
+		return updated == null ? empty() : new PersistentIntMap<>((Node) updated, size - 1);
+	}
+
+	/**
+	 * Getter method for the number of entries
+	 *
+	 * @return the number of keys in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Interior node: the bitmap marks which of the 32 branches are present, and the children array
+	 * holds them in branch order, each either a Leaf or another Node
+	 */
+	private static final class Node {
+		private final int bitmap;
+		private final Object[] children;
+
+		private Node(int bitmap, Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+	}
+
+	private static final class Leaf {
+		private final int key;
+		private final Object value;
+
+		private Leaf(int key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	private static Node put(Node node, int hash, int shift, Leaf leaf, boolean[] added) {
+		int bit = 1 << ((hash >>> shift) & 31);
+		int index = Integer.bitCount(node.bitmap & (bit - 1));
+		if ((node.bitmap & bit) == 0) {
+			Object[] children = new Object[node.children.length + 1];
+			System.arraycopy(node.children, 0, children, 0, index);
+			children[index] = leaf;
+			System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+			added[0] = true;
+			return new Node(node.bitmap | bit, children);
+		}
+		Object child = node.children[index];
+		Object replacement;
+		if (child instanceof Node) {
+			replacement = put((Node) child, hash, shift + 5, leaf, added);
+		} else if (((Leaf) child).key == leaf.key) {
+			replacement = leaf;
+		} else {
+			Leaf existing = (Leaf) child;
+			replacement = pair(existing, mix(existing.key), leaf, hash, shift + 5);
+			added[0] = true;
+		}
+		Object[] children = node.children.clone();
+		children[index] = replacement;
+		return new Node(node.bitmap, children);
+	}
+
+	/**
+	 * Smallest subtree holding two leaves whose hashes agree below the given shift
+	 */
+	private static Node pair(Leaf a, int hashA, Leaf b, int hashB, int shift) {
+		int branchA = (hashA >>> shift) & 31;
+		int branchB = (hashB >>> shift) & 31;
+		if (branchA == branchB) {
+			return new Node(1 << branchA, new Object[] { pair(a, hashA, b, hashB, shift + 5) });
+		}
+		return new Node((1 << branchA) | (1 << branchB), branchA < branchB ? new Object[] { a, b } : new Object[] { b, a });
+	}
+
+	/**
+	 * Remove a key below a node
+	 *
+	 * @return the same node if the key was absent, null if the node is now empty, or its replacement;
+	 *         below the root a node left holding a single leaf is replaced by that leaf
+	 */
+	private static Object remove(Node node, int hash, int shift, int key) {
+		int bit = 1 << ((hash >>> shift) & 31);
+		if ((node.bitmap & bit) == 0) {
+			return node;
+		}
+		int index = Integer.bitCount(node.bitmap & (bit - 1));
+		Object child = node.children[index];
+		Object replacement;
+		if (child instanceof Node) {
+			replacement = remove((Node) child, hash, shift + 5, key);
+			if (replacement == child) {
+				return node;
+			}
+		} else if (((Leaf) child).key == key) {
+			replacement = null;
+		} else {
+			return node;
+		}
+
+		if (replacement == null) {
+			if (node.children.length == 1) {
+				return null;
+			}
+			if (shift > 0 && node.children.length == 2 && node.children[1 - index] instanceof Leaf) {
+				return node.children[1 - index];
+			}
+			Object[] children = new Object[node.children.length - 1];
+			System.arraycopy(node.children, 0, children, 0, index);
+			System.arraycopy(node.children, index + 1, children, index, children.length - index);
+			return new Node(node.bitmap & ~bit, children);
+		}
+		if (shift > 0 && node.children.length == 1 && replacement instanceof Leaf) {
+			return replacement;
+		}
+		Object[] children = node.children.clone();
+		children[index] = replacement;
+		return new Node(node.bitmap, children);
+	}
+
+	/**
+	 * Lay out the leaves between two positions as a subtree, grouping them by their five hash bits
+	 * at each level with a counting sort
+	 */
+	private static Object build(int[] hashes, Leaf[] leaves, int from, int to, int shift, int[] hashScratch,
+			Leaf[] leafScratch) {
+		if (to - from == 1) {
+			return leaves[from];
+		}
+		int[] starts = new int[33];
+		for (int i = from; i < to; i++) {
+			starts[((hashes[i] >>> shift) & 31) + 1]++;
+		}
+		int bitmap = 0;
+		int branches = 0;
+		for (int b = 0; b < 32; b++) {
+			if (starts[b + 1] > 0) {
+				bitmap |= 1 << b;
+				branches++;
+			}
+			starts[b + 1] += starts[b];
+		}
+		int[] next = starts.clone();
+		for (int i = from; i < to; i++) {
+			int at = from + next[(hashes[i] >>> shift) & 31]++;
+			hashScratch[at] = hashes[i];
+			leafScratch[at] = leaves[i];
+		}
+		System.arraycopy(hashScratch, from, hashes, from, to - from);
+		System.arraycopy(leafScratch, from, leaves, from, to - from);
+
+		Object[] children = new Object[branches];
+		int child = 0;
+		for (int b = 0; b < 32; b++) {
+			if (starts[b + 1] > starts[b]) {
+				children[child++] = build(hashes, leaves, from + starts[b], from + starts[b + 1], shift + 5,
+						hashScratch, leafScratch);
+			}
+		}
+		return new Node(bitmap, children);
+	}
+
+	/**
+	 * Spread a key over all 32 bits; both steps are invertible, so different keys get different hashes
+	 */
+	private static int mix(int key) {
+		int h = key * 0x9E3779B1;
+		return h ^ (h >>> 16);
+	}
+}
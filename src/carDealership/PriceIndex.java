@@ -0,0 +1,456 @@
+package carDealership;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Persistent sorted primitive index from price to vehicle ID
+ * Entries are kept in ascending order of price, then ID, split into chunks of a few hundred, each a
+ * double[] of prices with the matching IDs in a parallel int[]. Updates return a new index that
+ * shares every chunk except the one that changed, so a published index never moves under a reader;
+ * counting a price range is two binary searches over the chunk start positions
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class PriceIndex {
+	/** The index with no entries */
+	public static final PriceIndex EMPTY = new PriceIndex(new double[0][], new int[0][], new int[] { 0 });
+
+	private static final int CHUNK_SIZE = 512;
+	private static final int MAX_CHUNK = 2 * CHUNK_SIZE;
+	private static final int MIN_CHUNK = CHUNK_SIZE / 4;
+
+	private final double[][] prices;
+	private final int[][] ids;
+	/** Position of the first entry of each chunk, with the total size as a final element */
+	private final int[] starts;
+
+	private PriceIndex(double[][] prices, int[][] ids, int[] starts) {
+		this.prices = prices;
+		this.ids = ids;
+		this.starts = starts;
+	}
+
+	/**
+	 * Add a vehicle
+	 * Only the chunk it lands in is copied; use {@link #withAll} for many vehicles at once
+	 *
+	 * @param id - the vehicle ID
+	 * @param price - the vehicle price
+	 * @return the updated index
+	 */
+	public PriceIndex with(int id, double price) {
+		if (prices.length == 0) {
+			return new PriceIndex(new double[][] { { price } }, new int[][] { { id } }, new int[] { 0, 1 });
+		}
+		int c = chunkFor(price, id);
+		double[] chunkPrices = prices[c];
+		int[] chunkIds = ids[c];
+		int at = position(chunkPrices, chunkIds, price, id);
+		int n = chunkPrices.length;
+		double[] newPrices = new double[n + 1];
+		int[] newIds = new int[n + 1];
+		System.arraycopy(chunkPrices, 0, newPrices, 0, at);
+		System.arraycopy(chunkIds, 0, newIds, 0, at);
+		newPrices[at] = price;
+		newIds[at] = id;
+		System.arraycopy(chunkPrices, at, newPrices, at + 1, n - at);
+		System.arraycopy(chunkIds, at, newIds, at + 1, n - at);
+		if (n + 1 <= MAX_CHUNK) {
+			return replaceChunks(c, c + 1, new double[][] { newPrices }, new int[][] { newIds });
+		}
+		int half = (n + 1) / 2;
+		return replaceChunks(c, c + 1,
+				new double[][] { Arrays.copyOfRange(newPrices, 0, half), Arrays.copyOfRange(newPrices, half, n + 1) },
+				new int[][] { Arrays.copyOfRange(newIds, 0, half), Arrays.copyOfRange(newIds, half, n + 1) });
+	}
+
+	/**
+	 * Remove a vehicle
+	 *
+	 * @param id - the vehicle ID
+	 * @param price - the price the vehicle was indexed under
+	 * @return the updated index, or this index if the vehicle was not in it
+	 */
+	public PriceIndex without(int id, double price) {
+		if (prices.length == 0) {
+			return this;
+		}
+		int c = chunkFor(price, id);
+		double[] chunkPrices = prices[c];
+		int[] chunkIds = ids[c];
+		int at = position(chunkPrices, chunkIds, price, id);
+		if (at == chunkPrices.length || chunkIds[at] != id || chunkPrices[at] != price) {
+			return this;
+		}
+		int n = chunkPrices.length - 1;
+		double[] newPrices = new double[n];
+		int[] newIds = new int[n];
+		System.arraycopy(chunkPrices, 0, newPrices, 0, at);
+		System.arraycopy(chunkIds, 0, newIds, 0, at);
+		System.arraycopy(chunkPrices, at + 1, newPrices, at, n - at);
+		System.arraycopy(chunkIds, at + 1, newIds, at, n - at);
+		if (n >= MIN_CHUNK || prices.length == 1) {
+			return n == 0 ? EMPTY : replaceChunks(c, c + 1, new double[][] { newPrices }, new int[][] { newIds });
+		}
+
+		// Fold a chunk that has run low into a neighbour, splitting again if the pair is too large
+		int left = c > 0 ? c - 1 : c;
+		double[] mergedPrices;
+		int[] mergedIds;
+		if (left < c) {
+			mergedPrices = concat(prices[left], newPrices);
+			mergedIds = concat(ids[left], newIds);
+		} else {
+			mergedPrices = concat(newPrices, prices[c + 1]);
+			mergedIds = concat(newIds, ids[c + 1]);
+		}
+		int m = mergedPrices.length;
+		if (m <= MAX_CHUNK) {
+			return replaceChunks(left, left + 2, new double[][] { mergedPrices }, new int[][] { mergedIds });
+		}
+		int half = m / 2;
+		return replaceChunks(left, left + 2,
+				new double[][] { Arrays.copyOfRange(mergedPrices, 0, half), Arrays.copyOfRange(mergedPrices, half, m) },
+				new int[][] { Arrays.copyOfRange(mergedIds, 0, half), Arrays.copyOfRange(mergedIds, half, m) });
+	}
+
+	/**
+	 * Add many vehicles that are not yet in the index
+	 * A small batch is inserted one entry at a time, copying only the chunks it touches; a large one
+	 * is sorted once among itself and merged with the existing entries into fresh chunks, so building
+	 * the index costs O(n + k log k) rather than a chunk copy per entry
+	 *
+	 * @param newIds - the vehicle IDs
+	 * @param newPrices - the matching prices
+	 * @param count - the number of entries to take from the front of the arrays
+	 * @return the updated index
+	 */
+	public PriceIndex withAll(int[] newIds, double[] newPrices, int count) {
+		if (count == 0) {
+			return this;
+		}
+		int size = size();
+		if ((long) count * 32 < size) {
+			PriceIndex index = this;
+			for (int i = 0; i < count; i++) {
+				index = index.with(newIds[i], newPrices[i]);
+			}
+			return index;
+		}
+		int[] addedIds = Arrays.copyOf(newIds, count);
+		double[] addedPrices = Arrays.copyOf(newPrices, count);
+		sort(addedPrices, addedIds, 0, count - 1);
+
+		int total = size + count;
+		int chunks = (total + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		double[][] mergedPrices = new double[chunks][];
+		int[][] mergedIds = new int[chunks][];
+		int[] mergedStarts = new int[chunks + 1];
+		int c = 0;
+		int i = 0;
+		int j = 0;
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int n = Math.min(CHUNK_SIZE, total - chunk * CHUNK_SIZE);
+			double[] chunkPrices = new double[n];
+			int[] chunkIds = new int[n];
+			for (int k = 0; k < n; k++) {
+				while (c < prices.length && i == prices[c].length) {
+					c++;
+					i = 0;
+				}
+				if (c < prices.length && (j == count || before(prices[c][i], ids[c][i], addedPrices[j], addedIds[j]))) {
+					chunkPrices[k] = prices[c][i];
+					chunkIds[k] = ids[c][i++];
+				} else {
+					chunkPrices[k] = addedPrices[j];
+					chunkIds[k] = addedIds[j++];
+				}
+			}
+			mergedPrices[chunk] = chunkPrices;
+			mergedIds[chunk] = chunkIds;
+			mergedStarts[chunk + 1] = mergedStarts[chunk] + n;
+		}
+		return new PriceIndex(mergedPrices, mergedIds, mergedStarts);
+	}
+
+	/**
+	 * Count the entries priced between the two bounds, inclusive
+	 *
+	 * @param min - the lowest price to include
+	 * @param max - the highest price to include
+	 * @return the number of entries in the range
+	 */
+	public int count(double min, double max) {
+		return Math.max(0, upperBound(max) - lowerBound(min));
+	}
+
+	/**
+	 * List the IDs priced between the two bounds, inclusive, cheapest first
+	 *
+	 * @param min - the lowest price to include
+	 * @param max - the highest price to include
+	 * @return the IDs in the range
+	 */
+	public int[] range(double min, double max) {
+		int[] range = new int[count(min, max)];
+		int[] next = new int[1];
+		forEachInRange(min, max, id -> range[next[0]++] = id);
+		return range;
+	}
+
+	/**
+	 * Visit the IDs priced between the two bounds, inclusive, cheapest first, without copying them
+	 *
+	 * @param min - the lowest price to include
+	 * @param max - the highest price to include
+	 * @param consumer - receives each ID in the range
+	 */
+	public void forEachInRange(double min, double max, IntConsumer consumer) {
+		int from = lowerBound(min);
+		int to = upperBound(max);
+		if (from >= to) {
+			return;
+		}
+		int c = chunkAt(from);
+		int i = from - starts[c];
+		for (int remaining = to - from; remaining > 0; remaining--) {
+			if (i == ids[c].length) {
+				c++;
+				i = 0;
+			}
+			consumer.accept(ids[c][i++]);
+		}
+	}
+
+	/**
+	 * Getter method for the number of indexed entries
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return starts[prices.length];
+	}
+
+	/**
+	 * First position whose price is not below the given price
+	 */
+	private int lowerBound(double price) {
+		int c = firstChunk(price, false);
+		if (c == prices.length) {
+			return size();
+		}
+		double[] chunkPrices = prices[c];
+		int lo = 0;
+		int hi = chunkPrices.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (chunkPrices[mid] < price) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return starts[c] + lo;
+	}
+
+	/**
+	 * First position whose price is above the given price
+	 */
+	private int upperBound(double price) {
+		int c = firstChunk(price, true);
+		if (c == prices.length) {
+			return size();
+		}
+		double[] chunkPrices = prices[c];
+		int lo = 0;
+		int hi = chunkPrices.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (chunkPrices[mid] <= price) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return starts[c] + lo;
+	}
+
+	/**
+	 * First chunk whose last price is at or above the given price, or above it when strict
+	 */
+	private int firstChunk(double price, boolean strict) {
+		int lo = 0;
+		int hi = prices.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			double last = prices[mid][prices[mid].length - 1];
+			if (strict ? last <= price : last < price) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Chunk an entry belongs in: the first one whose last entry does not sort before it, or the
+	 * last chunk when it sorts after everything
+	 */
+	private int chunkFor(double price, int id) {
+		int lo = 0;
+		int hi = prices.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int last = prices[mid].length - 1;
+			if (before(prices[mid][last], ids[mid][last], price, id)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Chunk holding the entry at a position
+	 */
+	private int chunkAt(int position) {
+		int lo = 0;
+		int hi = prices.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (starts[mid] <= position) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * First position within a chunk whose entry does not sort before the given one
+	 */
+	private static int position(double[] chunkPrices, int[] chunkIds, double price, int id) {
+		int lo = 0;
+		int hi = chunkPrices.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (before(chunkPrices[mid], chunkIds[mid], price, id)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static boolean before(double priceA, int idA, double priceB, int idB) {
+		return priceA < priceB || (priceA == priceB && idA < idB);
+	}
+
+	/**
+	 * New index with the chunks between two positions replaced; every other chunk is shared
+	 */
+	private PriceIndex replaceChunks(int from, int to, double[][] newPrices, int[][] newIds) {
+		int chunks = prices.length - (to - from) + newPrices.length;
+		double[][] chunkPrices = new double[chunks][];
+		int[][] chunkIds = new int[chunks][];
+		System.arraycopy(prices, 0, chunkPrices, 0, from);
+		System.arraycopy(ids, 0, chunkIds, 0, from);
+		System.arraycopy(newPrices, 0, chunkPrices, from, newPrices.length);
+		System.arraycopy(newIds, 0, chunkIds, from, newIds.length);
+		System.arraycopy(prices, to, chunkPrices, from + newPrices.length, prices.length - to);
+		System.arraycopy(ids, to, chunkIds, from + newIds.length, ids.length - to);
+		int[] chunkStarts = new int[chunks + 1];
+		System.arraycopy(starts, 0, chunkStarts, 0, from + 1);
+		for (int c = from; c < chunks; c++) {
+			chunkStarts[c + 1] = chunkStarts[c] + chunkPrices[c].length;
+		}
+		return new PriceIndex(chunkPrices, chunkIds, chunkStarts);
+	}
+
+	private static double[] concat(double[] a, double[] b) {
+		double[] joined = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, joined, a.length, b.length);
+		return joined;
+	}
+
+	private static int[] concat(int[] a, int[] b) {
+		int[] joined = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, joined, a.length, b.length);
+		return joined;
+	}
+
+	/**
+	 * Sort the entries between two positions, inclusive, by price and then ID, moving prices and
+	 * IDs together; three-way partitioning keeps runs of equal prices cheap
+	 */
+	private static void sort(double[] prices, int[] ids, int from, int to) {
+		while (to - from > 16) {
+			int mid = (from + to) >>> 1;
+			double pivotPrice = median(prices[from], prices[mid], prices[to]);
+			int lt = from;
+			int gt = to;
+			int i = from;
+			while (i <= gt) {
+				if (prices[i] < pivotPrice) {
+					swap(prices, ids, lt++, i++);
+				} else if (prices[i] > pivotPrice) {
+					swap(prices, ids, i, gt--);
+				} else {
+					i++;
+				}
+			}
+			// Entries equal to the pivot only need ordering by ID
+			sortIds(ids, lt, gt);
+			// Recurse into the smaller side so the stack stays logarithmic
+			if (lt - from < to - gt) {
+				sort(prices, ids, from, lt - 1);
+				from = gt + 1;
+			} else {
+				sort(prices, ids, gt + 1, to);
+				to = lt - 1;
+			}
+		}
+		for (int i = from + 1; i <= to; i++) {
+			double price = prices[i];
+			int id = ids[i];
+			int j = i - 1;
+			while (j >= from && (prices[j] > price || (prices[j] == price && ids[j] > id))) {
+				prices[j + 1] = prices[j];
+				ids[j + 1] = ids[j];
+				j--;
+			}
+			prices[j + 1] = price;
+			ids[j + 1] = id;
+		}
+	}
+
+	private static void sortIds(int[] ids, int from, int to) {
+		if (to > from) {
+			Arrays.sort(ids, from, to + 1);
+		}
+	}
+
+	private static double median(double a, double b, double c) {
+		return a < b ? (b < c ? b : Math.max(a, c)) : (a < c ? a : Math.max(b, c));
+	}
+
+	private static void swap(double[] prices, int[] ids, int a, int b) {
+		double price = prices[a];
+		prices[a] = prices[b];
+		prices[b] = price;
+		int id = ids[a];
+		ids[a] = ids[b];
+		ids[b] = id;
+	}
+}
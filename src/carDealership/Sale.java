@@ -1,7 +1,9 @@
 package carDealership;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 
 /**
  * Car Dealership System
@@ -20,10 +22,13 @@ public class Sale implements Serializable {
 	private String buyerName;
 	private String buyerContact;
 	private LocalDate saleDate;
+	private long priceCents;
+	private int salespersonId;
+	private long soldAtMillis;
 
 	/**
 	 * Constructor for the Sale class
-	 * Creates a record of a vehicle sale transaction
+	 * Creates a record of a vehicle sale transaction at the vehicle's current price, with no salesperson
 	 *
 	 * @param vehicle - the vehicle that was sold
 	 * @param buyerName - the name of the buyer
@@ -35,6 +40,30 @@ public class Sale implements Serializable {
 		this.buyerName = buyerName;
 		this.buyerContact = buyerContact;
 		this.saleDate = saleDate;
+		this.priceCents = vehicle.getPriceCents();
+		this.soldAtMillis = saleDate == null ? 0 : saleDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Constructor for the Sale class
+	 * Captures the price and salesperson at the moment of sale, so later edits to the vehicle do not change the record
+	 *
+	 * @param vehicle - the vehicle that was sold
+	 * @param buyerName - the name of the buyer
+	 * @param buyerContact - the contact information of the buyer
+	 * @param salespersonId - the user ID of the salesperson who made the sale
+	 * @param priceCents - the sale price in cents
+	 * @param soldAtMillis - when the sale was completed, in milliseconds since the epoch
+	 */
+	public Sale(Vehicle vehicle, String buyerName, String buyerContact, int salespersonId, long priceCents,
+			long soldAtMillis) {
+		this.vehicle = vehicle;
+		this.buyerName = buyerName;
+		this.buyerContact = buyerContact;
+		this.salespersonId = salespersonId;
+		this.priceCents = priceCents;
+		this.soldAtMillis = soldAtMillis;
+		this.saleDate = LocalDate.ofInstant(Instant.ofEpochMilli(soldAtMillis), ZoneId.systemDefault());
 	}
 
 	/**
@@ -55,6 +84,42 @@ public class Sale implements Serializable {
 		this.vehicle = vehicle;
 	}
 
+	/**
+	 * Getter method for the sale price
+	 *
+	 * @return the price the vehicle sold for, in cents
+	 */
+	public long getPriceCents() {
+		return priceCents;
+	}
+
+	/**
+	 * Getter method for the salesperson
+	 *
+	 * @return the user ID of the salesperson, or 0 if the sale is not attributed
+	 */
+	public int getSalespersonId() {
+		return salespersonId;
+	}
+
+	/**
+	 * Getter method for the sale timestamp
+	 *
+	 * @return when the sale was completed, in milliseconds since the epoch
+	 */
+	public long getSoldAtMillis() {
+		return soldAtMillis;
+	}
+
+	/**
+	 * Getter method for the sale timestamp as an instant
+	 *
+	 * @return when the sale was completed
+	 */
+	public Instant getSoldAt() {
+		return Instant.ofEpochMilli(soldAtMillis);
+	}
+
 	/**
 	 * Getter method for the buyer's name
 	 *
@@ -103,7 +168,7 @@ public class Sale implements Serializable {
 	/**
 	 * Setter method for the sale date
 	 *
-	 * @param saleDate - the new sale date to sets
+	 * @param saleDate - the new sale date to set
 	 */
 	public void setSaleDate(LocalDate saleDate) {
 		this.saleDate = saleDate;
@@ -0,0 +1,246 @@
+package carDealership;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Append-only, in-memory record of the sales made by a dealership
+ * Sales are stored in fixed-size segments, so appending never copies earlier sales and the ledger
+ * has no capacity limit. Only the newest segments are kept on the heap; once more than the resident
+ * limit are full, the oldest are written to temporary files and read back one segment at a time
+ * while iterating. The running total of sale prices is kept up to date on every append
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class SalesLedger implements Iterable<Sale> {
+	/**
+	 * Default number of sales per segment
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+	private final int segmentSize;
+	private final int residentSegments;
+	private final List<Segment> segments = new ArrayList<>();
+	private long size;
+	private long totalPriceCents;
+
+	/**
+	 * One block of consecutive sales; {@code sales} is null while the segment lives on disk
+	 */
+	private static final class Segment {
+		private Sale[] sales;
+		private File spill;
+	}
+
+	/**
+	 * Constructor for a ledger with default segments
+	 * The number of segments kept in memory is set with -Ddealership.sales.resident=N (default: 64)
+	 */
+	public SalesLedger() {
+		this(DEFAULT_SEGMENT_SIZE, Integer.getInteger("dealership.sales.resident", 64));
+	}
+
+	/**
+	 * Constructor for the SalesLedger class
+	 *
+	 * @param segmentSize - the number of sales per segment
+	 * @param residentSegments - the number of segments to keep in memory before older ones are evicted to disk
+	 */
+	public SalesLedger(int segmentSize, int residentSegments) {
+		this.segmentSize = Math.max(1, segmentSize);
+		this.residentSegments = Math.max(1, residentSegments);
+	}
+
+	/**
+	 * Add a sale to the end of the ledger
+	 *
+	 * @param sale - the sale to record
+	 */
+	public synchronized void append(Sale sale) {
+		int offset = (int) (size % segmentSize);
+		if (offset == 0) {
+			Segment segment = new Segment();
+			segment.sales = new Sale[segmentSize];
+			segments.add(segment);
+			evictOldSegments();
+		}
+		segments.get(segments.size() - 1).sales[offset] = sale;
+		size++;
+		totalPriceCents += sale.getPriceCents();
+	}
+
+	/**
+	 * Drop every sale after the first {@code newSize}, e.g. to undo the sales made in test mode
+	 *
+	 * @param newSize - the number of sales to keep
+	 */
+	public synchronized void truncate(long newSize) {
+		if (newSize < 0 || newSize >= size) {
+			return;
+		}
+		int keep = (int) ((newSize + segmentSize - 1) / segmentSize);
+		for (int i = segments.size() - 1; i >= keep; i--) {
+			Segment segment = segments.remove(i);
+			for (Sale sale : read(segment)) {
+				if (sale != null) {
+					totalPriceCents -= sale.getPriceCents();
+				}
+			}
+			discard(segment);
+		}
+		int offset = (int) (newSize % segmentSize);
+		if (offset != 0) {
+			Segment last = segments.get(segments.size() - 1);
+			if (last.sales == null) {
+				last.sales = read(last);
+				discard(last);
+			}
+			for (int i = offset; i < segmentSize && last.sales[i] != null; i++) {
+				totalPriceCents -= last.sales[i].getPriceCents();
+				last.sales[i] = null;
+			}
+		}
+		size = newSize;
+	}
+
+	/**
+	 * Getter method for the number of sales
+	 *
+	 * @return the number of sales recorded
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Getter method for the sum of all sale prices
+	 *
+	 * @return the total in cents
+	 */
+	public synchronized long getTotalPriceCents() {
+		return totalPriceCents;
+	}
+
+	/**
+	 * Getter method for the number of segments currently held in memory
+	 *
+	 * @return the number of resident segments
+	 */
+	public synchronized int getResidentSegmentCount() {
+		int resident = 0;
+		for (Segment segment : segments) {
+			if (segment.sales != null) {
+				resident++;
+			}
+		}
+		return resident;
+	}
+
+	/**
+	 * Iterate over the sales in the order they were made
+	 * Covers the sales recorded when the iterator was created; evicted segments are read back one at a
+	 * time and are not made resident again
+	 *
+	 * @return an iterator over the sales
+	 * @throws UncheckedIOException from {@code next()} if an evicted segment cannot be read
+	 */
+	@Override
+	public Iterator<Sale> iterator() {
+		long end = size();
+		return new Iterator<Sale>() {
+			private long position;
+			private int segmentIndex = -1;
+			private Sale[] current;
+
+			@Override
+			public boolean hasNext() {
+				return position < end;
+			}
+
+			@Override
+			public Sale next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int index = (int) (position / segmentSize);
+				if (index != segmentIndex) {
+					current = segmentAt(index);
+					segmentIndex = index;
+				}
+				return current[(int) (position++ % segmentSize)];
+			}
+		};
+	}
+
+	private synchronized Sale[] segmentAt(int index) {
+		return read(segments.get(index));
+	}
+
+	/**
+	 * Write the oldest full segments to disk until at most the resident limit are in memory
+	 * A segment that cannot be written simply stays in memory
+	 */
+	private void evictOldSegments() {
+		int resident = getResidentSegmentCount();
+		for (int i = 0; resident > residentSegments && i < segments.size() - 1; i++) {
+			Segment segment = segments.get(i);
+			if (segment.sales == null) {
+				continue;
+			}
+			try {
+				File file = File.createTempFile("sales-ledger-", ".seg");
+				file.deleteOnExit();
+				try (ObjectOutputStream out = new ObjectOutputStream(
+						new BufferedOutputStream(new FileOutputStream(file)))) {
+					out.writeObject(segment.sales);
+				}
+				segment.spill = file;
+				segment.sales = null;
+				resident--;
+			} catch (IOException e) {
+				System.err.println("Could not evict sales segment to disk: " + e.getMessage());
+				return;
+			}
+		}
+	}
+
+	private static Sale[] read(Segment segment) {
+		if (segment.sales != null) {
+			return segment.sales;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new BufferedInputStream(new FileInputStream(segment.spill)))) {
+			return (Sale[]) in.readObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read evicted sales segment " + segment.spill, e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void discard(Segment segment) {
+		if (segment.spill != null) {
+			if (!segment.spill.delete()) {
+				segment.spill.deleteOnExit();
+			}
+			segment.spill = null;
+		}
+	}
+}
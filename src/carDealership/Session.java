@@ -0,0 +1,165 @@
+package carDealership;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A logged-in user's view of their role and permissions
+ * Permission checks read an immutable snapshot taken at login, so the dashboards never query the
+ * database to decide what to show or allow. Every user has a version counter that is bumped when
+ * their permissions are edited; a check compares two numbers against the snapshot's stamp and
+ * only reloads from the database when the snapshot has gone stale
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class Session {
+	private static final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+	/**
+	 * Bumped when every session must reload, e.g. on switching to or from the test database
+	 */
+	private static final AtomicLong epoch = new AtomicLong();
+
+	private final User user;
+	private final String role;
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Permissions as of one (user version, epoch) stamp
+	 */
+	private static final class Snapshot {
+		final Map<String, Boolean> permissions;
+		final long version;
+		final long epoch;
+
+		Snapshot(Map<String, Boolean> permissions, long version, long epoch) {
+			this.permissions = permissions;
+			this.version = version;
+			this.epoch = epoch;
+		}
+	}
+
+	private Session(User user, Snapshot snapshot) {
+		this.user = user;
+		this.role = user.getRole();
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Start a session for a user who has just logged in
+	 * The permissions the user loaded on construction become the first snapshot
+	 *
+	 * @param user - the authenticated user
+	 * @return the new session
+	 */
+	public static Session open(User user) {
+		// Read the stamp before copying so an edit racing with login makes the snapshot stale, not lost
+		long version = versionOf(user.getId()).get();
+		long currentEpoch = epoch.get();
+		return new Session(user, new Snapshot(Map.copyOf(user.getPermissionsMap()), version, currentEpoch));
+	}
+
+	/**
+	 * Mark a user's permissions as changed so their live sessions reload on the next check
+	 *
+	 * @param userId - the ID of the user whose permissions were edited
+	 */
+	public static void invalidate(int userId) {
+		versionOf(userId).incrementAndGet();
+	}
+
+	/**
+	 * Mark every session stale, e.g. after the database connection was switched
+	 */
+	public static void invalidateAll() {
+		epoch.incrementAndGet();
+	}
+
+	/**
+	 * Getter method for the session's user
+	 *
+	 * @return the logged-in user
+	 */
+	public User getUser() {
+		return user;
+	}
+
+	/**
+	 * Getter method for the session's role
+	 *
+	 * @return "Admin", "Manager" or "Salesperson"
+	 */
+	public String getRole() {
+		return role;
+	}
+
+	/**
+	 * Check whether the user currently holds a permission
+	 *
+	 * @param permission - the permission name, e.g. "SELL_VEHICLE"
+	 * @return true if the permission is enabled
+	 */
+	public boolean hasPermission(String permission) {
+		return hasPermission(permission, false);
+	}
+
+	/**
+	 * Check whether the user currently holds a permission
+	 *
+	 * @param permission - the permission name, e.g. "SELL_VEHICLE"
+	 * @param defaultValue - the answer when the user has no row for this permission
+	 * @return true if the permission is enabled
+	 */
+	public boolean hasPermission(String permission, boolean defaultValue) {
+		return current().permissions.getOrDefault(permission, defaultValue);
+	}
+
+	/**
+	 * Getter method for the current permission snapshot
+	 *
+	 * @return an unmodifiable map of permission names to their enabled status
+	 */
+	public Map<String, Boolean> getPermissions() {
+		return current().permissions;
+	}
+
+	/**
+	 * Reload the snapshot if the user's permissions were edited since it was taken
+	 *
+	 * @return true if the permissions were reloaded and the UI may need rebuilding
+	 */
+	public boolean refreshIfStale() {
+		Snapshot before = snapshot;
+		return current() != before;
+	}
+
+	private Snapshot current() {
+		Snapshot snap = snapshot;
+		if (snap.version == versionOf(user.getId()).get() && snap.epoch == epoch.get()) {
+			return snap;
+		}
+		synchronized (this) {
+			long version = versionOf(user.getId()).get();
+			long currentEpoch = epoch.get();
+			snap = snapshot;
+			if (snap.version == version && snap.epoch == currentEpoch) {
+				return snap;
+			}
+			user.loadPermissions();
+			snap = new Snapshot(Map.copyOf(user.getPermissionsMap()), version, currentEpoch);
+			snapshot = snap;
+			return snap;
+		}
+	}
+
+	private static AtomicLong versionOf(int userId) {
+		return versions.computeIfAbsent(userId, id -> new AtomicLong());
+	}
+}
@@ -0,0 +1,89 @@
+package carDealership;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Records how long each startup phase takes so slow launches can be diagnosed
+ * Phases may be timed from several threads at once; the report lists them in start order
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class StartupTimer {
+	private final long origin = System.nanoTime();
+	private final long jvmUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+	private final List<long[]> spans = new ArrayList<>();
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 * Functional interface for a timed phase that returns no value
+	 */
+	public interface Phase {
+		void run() throws Exception;
+	}
+
+	/**
+	 * Time a phase that produces a value
+	 *
+	 * @param name - the phase name shown in the report
+	 * @param phase - the work to time
+	 * @return the value produced by the phase
+	 * @throws Exception if the phase fails
+	 */
+	public <T> T time(String name, Callable<T> phase) throws Exception {
+		long start = System.nanoTime();
+		try {
+			return phase.call();
+		} finally {
+			record(name, start, System.nanoTime());
+		}
+	}
+
+	/**
+	 * Time a phase that produces no value
+	 *
+	 * @param name - the phase name shown in the report
+	 * @param phase - the work to time
+	 * @throws Exception if the phase fails
+	 */
+	public void time(String name, Phase phase) throws Exception {
+		time(name, () -> {
+			phase.run();
+			return null;
+		});
+	}
+
+	private synchronized void record(String name, long start, long end) {
+		int i = spans.size();
+		while (i > 0 && spans.get(i - 1)[0] > start) {
+			i--;
+		}
+		spans.add(i, new long[] { start, end });
+		names.add(i, name);
+	}
+
+	/**
+	 * Build the phase timing report
+	 * Each line gives the offset from timer creation and the duration of the phase
+	 *
+	 * @return the formatted report
+	 */
+	public synchronized String report() {
+		StringBuilder sb = new StringBuilder("Startup timing (JVM up " + jvmUptimeMillis + " ms before main)\n");
+		for (int i = 0; i < spans.size(); i++) {
+			long[] span = spans.get(i);
+			sb.append(String.format("  %-20s +%6.1f ms  %7.1f ms%n", names.get(i),
+					(span[0] - origin) / 1e6, (span[1] - span[0]) / 1e6));
+		}
+		sb.append(String.format("  %-20s  %7.1f ms total", "ready", (System.nanoTime() - origin) / 1e6));
+		return sb.toString();
+	}
+}
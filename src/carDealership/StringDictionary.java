@@ -0,0 +1,81 @@
+package carDealership;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for the repetitive strings of an inventory
+ * Makes, models, colours and body types repeat across thousands of vehicles; each distinct value is
+ * stored once and referred to by a small int code, and {@link #intern(String)} hands back the single
+ * shared instance so vehicles built from it do not each keep their own copy
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class StringDictionary {
+	/**
+	 * Code used for a null string
+	 */
+	public static final int NULL_CODE = -1;
+
+	private final Map<String, Integer> codes = new HashMap<>();
+	private String[] values = new String[64];
+	private int size;
+
+	/**
+	 * Get the code for a string, adding it if it is new
+	 *
+	 * @param value - the string to encode, or null
+	 * @return the string's code, or {@link #NULL_CODE} for null
+	 */
+	public synchronized int encode(String value) {
+		if (value == null) {
+			return NULL_CODE;
+		}
+		Integer code = codes.get(value);
+		if (code != null) {
+			return code;
+		}
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size] = value;
+		codes.put(value, size);
+		return size++;
+	}
+
+	/**
+	 * Get the string for a code
+	 *
+	 * @param code - a code returned by {@link #encode(String)}
+	 * @return the shared string, or null for {@link #NULL_CODE}
+	 */
+	public synchronized String decode(int code) {
+		return code == NULL_CODE ? null : values[code];
+	}
+
+	/**
+	 * Get the shared instance of a string, adding it if it is new
+	 *
+	 * @param value - the string, or null
+	 * @return an equal string shared by every caller, or null
+	 */
+	public synchronized String intern(String value) {
+		return decode(encode(value));
+	}
+
+	/**
+	 * Getter method for the number of distinct strings
+	 *
+	 * @return the number of codes handed out
+	 */
+	public synchronized int size() {
+		return size;
+	}
+}
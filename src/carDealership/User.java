@@ -118,17 +118,14 @@ public abstract class User {
 
     /**
      * Verify if a provided password matches the user's stored password
+     * Runs a full PBKDF2 derivation for hashed passwords, so avoid calling it on the event dispatch thread
      *
      * @param passwordAttempt - the password to check
      * @return true if the password matches, false otherwise
      * @throws Exception if a validation error occurs
      */
     public boolean checkPassword(String passwordAttempt) throws Exception {
-        System.out.println("DEBUG: Stored password: '" + this.password + "'");
-        System.out.println("DEBUG: Attempted password: '" + passwordAttempt + "'");
-        boolean isMatch = this.password.trim().equals(passwordAttempt);
-        System.out.println("DEBUG: Password match: " + isMatch);
-        return isMatch;
+        return PasswordHasher.verify(passwordAttempt, this.password);
     }
 
     /**
@@ -211,66 +208,31 @@ public abstract class User {
         this.failedAttempts = 0;
         DBManager db = DBManager.getInstance();
         db.runUpdate("UPDATE users SET failed_attempts = 0 WHERE user_id = ?", this.id);
+        UserDirectory.getInstance().refresh(this.id);
         System.out.println("DEBUG: Failed attempts reset to 0 for user ID " + this.id + " (" + this.username + ")");
     }
     
     /**
      * Increment the failed login attempts counter
      * If threshold reached for non-admin users, locks the account
-     * Updates both the local object and the database
+     * The database is updated with a single atomic statement and the local object mirrors its result
      *
      * @return true if the account was just locked, false otherwise
      * @throws SQLException if a database error occurs
      */
     public boolean incrementFailedAttempts() throws SQLException {
-        // Directly use atomic SQL to increment and check all in one transaction
-        DBManager db = DBManager.getInstance();
-        
-        // Check if we should lock this account (only for non-admins)
-        boolean isAdmin = "Admin".equals(this.role);
-        if (!isAdmin) {
-            // First check current attempts in database to avoid race conditions
-            ResultSet rs = db.runQuery("SELECT failed_attempts FROM users WHERE user_id = ?", this.id);
-            int currentAttempts = 0;
-            if (rs.next()) {
-                currentAttempts = rs.getInt("failed_attempts");
-            }
-            
-            // Increment attempts
-            currentAttempts++;
-            this.failedAttempts = currentAttempts;
-            
-            // Update database
-            db.runUpdate("UPDATE users SET failed_attempts = ? WHERE user_id = ?", 
-                        currentAttempts, this.id);
-            
-            // Log for debugging
-            System.err.println("DEBUG: Failed attempt for user " + this.username + 
-                              ": now at " + currentAttempts + " attempts");
-            
-            // If this attempt puts us at 3, lock the account
-            if (currentAttempts >= 3) {
-                // Deactivate account
-                db.runUpdate("UPDATE users SET is_active = 0 WHERE user_id = ?", this.id);
-                this.isActive = false;
-                
-                // Make sure these messages always show up for debugging
-                System.err.println("*******************************************");
-                System.err.println("DEBUG: ACCOUNT LOCKED for user: " + this.username);
-                System.err.println("DEBUG: Failed attempts count: " + currentAttempts);
-                System.err.println("DEBUG: Account active status: " + this.isActive);
-                System.err.println("*******************************************");
-                
-                // Return true to indicate account was just locked
-                return true;
-            }
-        } else {
-            // Log admin attempt
-            System.err.println("DEBUG: Failed attempt for ADMIN " + this.username + 
-                              " (not incrementing counter)");
+        // Admins are immune to account locking
+        if ("Admin".equals(this.role)) {
+            return false;
+        }
+        int[] state = AuthService.getInstance().recordFailedAttempt(this.id);
+        if (state == null) {
+            return false;
         }
-        
-        return false;
+        boolean wasActive = this.isActive;
+        this.failedAttempts = state[0];
+        this.isActive = state[1] == 1;
+        return wasActive && !this.isActive;
     }
     
     /**
@@ -282,13 +244,13 @@ public abstract class User {
     
     /**
      * Set a new password for the user
-     * Also updates the database and clears the temporary password flag
+     * The password is stored as a salted hash; also updates the database and clears the temporary password flag
      *
      * @param password - the new password to set
      * @throws Exception if a database error occurs
      */
     public void setPassword(String password) throws Exception {
-        this.password = password;
+        this.password = PasswordHasher.hash(password);
         this.isTempPassword = false;
         updatePasswordInDB();
     }
@@ -301,8 +263,8 @@ public abstract class User {
      */
     private void updatePasswordInDB() throws Exception {
         DBManager db = DBManager.getInstance();
-        String query = "UPDATE users SET password = '" + this.password + "', is_temp_password = 0 WHERE user_id = " + this.id;
-        db.runUpdate(query);    
+        db.runUpdate("UPDATE users SET password = ?, is_temp_password = 0 WHERE user_id = ?", this.password, this.id);
+        UserDirectory.getInstance().refresh(this.id);
     }
 
     /**
@@ -330,11 +292,12 @@ public abstract class User {
         DBManager db = DBManager.getInstance();
         String query = "UPDATE users SET is_active = " + (isActive ? 1 : 0) + " WHERE user_id = " + this.id;
         db.runUpdate(query);
+        UserDirectory.getInstance().refresh(this.id);
     }
 
     /**
-     * Load a user from the database by username
-     * Creates and returns the appropriate user subclass instance based on role
+     * Load a user by username, ignoring case
+     * Served from the in-memory user directory; creates the appropriate user subclass instance based on role
      *
      * @param username - the username to search for
      * @return the User object if found, null otherwise
@@ -342,33 +305,8 @@ public abstract class User {
      * @throws Exception for other errors
      */
     public static User loadUser(String username) throws SQLException, Exception {
-        DBManager db = DBManager.getInstance();
-        ResultSet rs = db.runQuery("SELECT u.*, r.role_name FROM users u JOIN roles r " +
-                                   "ON u.role_id = r.role_id WHERE u.username = '" + username + "'");
-        if (rs.next()) {
-            String role = rs.getString("role_name");
-            String password = rs.getString("password");
-            boolean isTempPassword = rs.getInt("is_temp_password") == 1;
-            boolean isActive = rs.getInt("is_active") == 1; // Fetch is_active from DB
-    
-            switch (role) {
-                case "Admin":
-                    return new Admin(rs.getInt("user_id"), rs.getString("username"), password,
-                                     rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                     isTempPassword, isActive);
-                case "Manager":
-                    return new Manager(rs.getInt("user_id"), rs.getString("username"), password,
-                                       rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                       isTempPassword, isActive);
-                case "Salesperson":
-                    return new Salesperson(rs.getInt("user_id"), rs.getString("username"), password,
-                                           rs.getString("name"), rs.getString("email"), rs.getString("phone"),
-                                           isTempPassword, isActive);
-                default:
-                    throw new SQLException("Unknown role: " + role);
-            }
-        }
-        return null;
+        UserDirectory.Entry entry = UserDirectory.getInstance().find(username);
+        return entry == null ? null : entry.toUser();
     }
 }
 
@@ -400,7 +338,7 @@ class Admin extends User {
 
     /**
      * Create a new user account in the system
-     * Inserts a new user record into the database with a temporary password
+     * Inserts a new user record into the database with a hashed temporary password
      *
      * @param role - the role for the new user (Admin, Manager, or Salesperson)
      * @param username - the login username for the new user
@@ -422,7 +360,8 @@ class Admin extends User {
         }
         DBManager db = DBManager.getInstance();
         String query = "INSERT INTO users (username, password, role_id, name, email, phone, is_temp_password) VALUES (?, ?, ?, ?, ?, ?, 1)";
-        db.runInsert(query, username, password, role_id, name, email, phone);
+        db.runInsert(query, username, PasswordHasher.hash(password), role_id, name, email, phone);
+        UserDirectory.getInstance().refresh(username);
     }
 
     /**
@@ -436,13 +375,14 @@ class Admin extends User {
      */
     public boolean resetPassword(User user, String newPassword) throws Exception {
         if (user != null) {
-            user.setPassword(newPassword); // Set the new password in the User object
-            
-            // Also reset failed attempts and activate the account
+            // Store the hashed temporary password, reset failed attempts and activate the account in one update
+            user.password = PasswordHasher.hash(newPassword);
+            user.isTempPassword = true;
             DBManager db = DBManager.getInstance();
             String query = "UPDATE users SET password = ?, is_temp_password = 1, failed_attempts = 0, is_active = 1 " +
                            "WHERE user_id = ?";
-            db.runUpdate(query, newPassword, user.getId());
+            db.runUpdate(query, user.password, user.getId());
+            UserDirectory.getInstance().refresh(user.getId());
             
             // Update the user object state to match the DB changes
             try {
@@ -0,0 +1,266 @@
+package carDealership;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import persistance.DBManager;
+
+/**
+ * In-memory directory of user accounts keyed by case-folded username
+ * The whole users table is read once with a single join; afterwards lookups never touch the database.
+ * Code that writes to the users table refreshes the affected entry so the directory stays coherent,
+ * and switching between the real and test databases invalidates it
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class UserDirectory {
+	private static final String SELECT_USERS = "SELECT u.*, r.role_name FROM users u JOIN roles r ON u.role_id = r.role_id";
+
+	private static final UserDirectory instance = new UserDirectory();
+
+	private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+	private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+	private volatile boolean loaded;
+
+	/**
+	 * Immutable snapshot of one row of the users table
+	 */
+	public static final class Entry {
+		public final int id;
+		public final String username;
+		public final String password;
+		public final String role;
+		public final String name;
+		public final String email;
+		public final String phone;
+		public final boolean isActive;
+		public final boolean isTempPassword;
+		public final int failedAttempts;
+
+		Entry(int id, String username, String password, String role, String name, String email, String phone,
+				boolean isActive, boolean isTempPassword, int failedAttempts) {
+			this.id = id;
+			this.username = username;
+			this.password = password;
+			this.role = role;
+			this.name = name;
+			this.email = email;
+			this.phone = phone;
+			this.isActive = isActive;
+			this.isTempPassword = isTempPassword;
+			this.failedAttempts = failedAttempts;
+		}
+
+		/**
+		 * Copy of this entry with a new failed-attempt count and active flag
+		 *
+		 * @param failedAttempts - the new failed login count
+		 * @param isActive - the new active flag
+		 * @return the updated entry
+		 */
+		public Entry withLoginState(int failedAttempts, boolean isActive) {
+			return new Entry(id, username, password, role, name, email, phone, isActive, isTempPassword, failedAttempts);
+		}
+
+		/**
+		 * Copy of this entry with a new stored password value
+		 *
+		 * @param password - the new stored hash
+		 * @return the updated entry
+		 */
+		public Entry withPassword(String password) {
+			return new Entry(id, username, password, role, name, email, phone, isActive, isTempPassword, failedAttempts);
+		}
+
+		/**
+		 * Build the user object for this entry
+		 *
+		 * @return an Admin, Manager or Salesperson
+		 * @throws SQLException if the role is unknown
+		 */
+		public User toUser() throws SQLException {
+			User user;
+			switch (role) {
+				case "Admin":
+					user = new Admin(id, username, password, name, email, phone, isTempPassword, isActive);
+					break;
+				case "Manager":
+					user = new Manager(id, username, password, name, email, phone, isTempPassword, isActive);
+					break;
+				case "Salesperson":
+					user = new Salesperson(id, username, password, name, email, phone, isTempPassword, isActive);
+					break;
+				default:
+					throw new SQLException("Unknown role: " + role);
+			}
+			user.failedAttempts = failedAttempts;
+			return user;
+		}
+	}
+
+	private UserDirectory() {
+	}
+
+	/**
+	 * Getter method for the shared directory
+	 *
+	 * @return the directory for the current database connection
+	 */
+	public static UserDirectory getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Look up an account by username, ignoring case
+	 *
+	 * @param username - the username to look for
+	 * @return the account, or null if there is none
+	 * @throws SQLException if the directory has to be loaded and the load fails
+	 */
+	public Entry find(String username) throws SQLException {
+		if (username == null) {
+			return null;
+		}
+		ensureLoaded();
+		return byUsername.get(fold(username));
+	}
+
+	/**
+	 * Look up an account by ID
+	 *
+	 * @param id - the user ID
+	 * @return the account, or null if there is none
+	 * @throws SQLException if the directory has to be loaded and the load fails
+	 */
+	public Entry find(int id) throws SQLException {
+		ensureLoaded();
+		return byId.get(id);
+	}
+
+	/**
+	 * Replace an entry after its row was changed by a known update
+	 *
+	 * @param entry - the new state of the account
+	 */
+	public void put(Entry entry) {
+		Entry previous = byId.put(entry.id, entry);
+		if (previous != null && !fold(previous.username).equals(fold(entry.username))) {
+			byUsername.remove(fold(previous.username), previous);
+		}
+		byUsername.merge(fold(entry.username), entry, (old, now) -> old.id < now.id ? old : now);
+	}
+
+	/**
+	 * Re-read one account after its row was written
+	 *
+	 * @param id - the ID of the changed user
+	 * @throws SQLException if a database access error occurs
+	 */
+	public void refresh(int id) throws SQLException {
+		if (!loaded) {
+			return;
+		}
+		ResultSet rs = DBManager.getInstance().runQuery(SELECT_USERS + " WHERE u.user_id = ?", id);
+		try {
+			if (rs.next()) {
+				put(read(rs, columns(rs)));
+			} else {
+				Entry removed = byId.remove(id);
+				if (removed != null) {
+					byUsername.remove(fold(removed.username), removed);
+				}
+			}
+		} finally {
+			rs.close();
+		}
+	}
+
+	/**
+	 * Re-read one account by username, e.g. after it was created
+	 *
+	 * @param username - the username of the changed user
+	 * @throws SQLException if a database access error occurs
+	 */
+	public void refresh(String username) throws SQLException {
+		if (!loaded) {
+			return;
+		}
+		ResultSet rs = DBManager.getInstance().runQuery(SELECT_USERS + " WHERE u.username = ?", username);
+		try {
+			if (rs.next()) {
+				put(read(rs, columns(rs)));
+			}
+		} finally {
+			rs.close();
+		}
+	}
+
+	/**
+	 * Drop every cached entry; the next lookup reloads from the current connection
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		byUsername.clear();
+		byId.clear();
+	}
+
+	private void ensureLoaded() throws SQLException {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (loaded) {
+				return;
+			}
+			ResultSet rs = DBManager.getInstance().runQuery(SELECT_USERS + " ORDER BY u.user_id");
+			try {
+				Set<String> columns = columns(rs);
+				while (rs.next()) {
+					Entry entry = read(rs, columns);
+					byId.put(entry.id, entry);
+					// Usernames are unique but compared without case; the oldest account wins a clash
+					byUsername.putIfAbsent(fold(entry.username), entry);
+				}
+			} finally {
+				rs.close();
+			}
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Column names present in the result; the test database lacks the newer login columns
+	 */
+	private static Set<String> columns(ResultSet rs) throws SQLException {
+		ResultSetMetaData meta = rs.getMetaData();
+		Set<String> names = new HashSet<>();
+		for (int i = 1; i <= meta.getColumnCount(); i++) {
+			names.add(meta.getColumnLabel(i).toLowerCase(Locale.ROOT));
+		}
+		return names;
+	}
+
+	private static Entry read(ResultSet rs, Set<String> columns) throws SQLException {
+		return new Entry(rs.getInt("user_id"), rs.getString("username"), rs.getString("password"),
+				rs.getString("role_name"), rs.getString("name"), rs.getString("email"), rs.getString("phone"),
+				rs.getInt("is_active") == 1,
+				columns.contains("is_temp_password") && rs.getInt("is_temp_password") == 1,
+				columns.contains("failed_attempts") ? rs.getInt("failed_attempts") : 0);
+	}
+
+	private static String fold(String username) {
+		return username.toLowerCase(Locale.ROOT);
+	}
+}
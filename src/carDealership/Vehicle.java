@@ -1,5 +1,9 @@
 package carDealership;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 /**
@@ -17,10 +21,21 @@ public abstract class Vehicle implements Serializable {
 	private static final long serialVersionUID = 1L;
 	protected String make, model, color;
 	protected int year;
-	protected double price;
+	protected long priceCents;
 	protected int id;
 	// private static int nextId;
 
+	/**
+	 * Serialized form kept as it was when the price was a double, so existing save files still load
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = {
+			new ObjectStreamField("make", String.class),
+			new ObjectStreamField("model", String.class),
+			new ObjectStreamField("color", String.class),
+			new ObjectStreamField("year", int.class),
+			new ObjectStreamField("price", double.class),
+			new ObjectStreamField("id", int.class) };
+
 	/**
 	 * Constructor for the Vehicle class
 	 * Creates a vehicle with the specified attributes
@@ -53,7 +68,7 @@ public abstract class Vehicle implements Serializable {
 	 */
 	public String toString() {
 		return "ID: " + id + "\nMake: " + make + "\nModel: " + model + "\nColor: " + color + "\nYear: " + year
-				+ "\nPrice: " + price;
+				+ "\nPrice: " + getPrice();
 	}
 
 	/**
@@ -134,7 +149,7 @@ public abstract class Vehicle implements Serializable {
 	 * @return the price of the vehicle
 	 */
 	public double getPrice() {
-		return price;
+		return Money.toDouble(priceCents);
 	}
 
 	/**
@@ -147,7 +162,26 @@ public abstract class Vehicle implements Serializable {
 		if (price < 0) {
 			price = 0;
 		}
-		this.price = price;
+		this.priceCents = Money.fromDouble(price);
+	}
+
+	/**
+	 * Getter method for the vehicle price in cents
+	 *
+	 * @return the exact price in cents
+	 */
+	public long getPriceCents() {
+		return priceCents;
+	}
+
+	/**
+	 * Setter method for the vehicle price in cents
+	 * Ensures the price is not negative, setting it to 0 if a negative value is provided
+	 *
+	 * @param priceCents - the new price in cents
+	 */
+	public void setPriceCents(long priceCents) {
+		this.priceCents = Math.max(0, priceCents);
 	}
 
 	/**
@@ -167,4 +201,25 @@ public abstract class Vehicle implements Serializable {
 	public void setId(int id) {
 		this.id = id;
 	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("make", make);
+		fields.put("model", model);
+		fields.put("color", color);
+		fields.put("year", year);
+		fields.put("price", Money.toDouble(priceCents));
+		fields.put("id", id);
+		out.writeFields();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		make = (String) fields.get("make", null);
+		model = (String) fields.get("model", null);
+		color = (String) fields.get("color", null);
+		year = fields.get("year", 0);
+		priceCents = Money.fromDouble(fields.get("price", 0.0));
+		id = fields.get("id", 0);
+	}
 }
@@ -0,0 +1,563 @@
+package carDealership;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk import of a manufacturer's CSV inventory feed
+ * The feed runs through a staged pipeline, each stage handing batches to the next through a
+ * bounded queue so a slow stage holds back the ones before it:
+ * <ol>
+ * <li>a reader splits the memory-mapped file into batches of records</li>
+ * <li>several workers parse and validate batches in parallel</li>
+ * <li>the calling thread puts batches back in file order, drops rows already in the inventory or
+ * earlier in the feed, and inserts each batch in one transaction</li>
+ * </ol>
+ * The first line names the columns. type, make, model, color, year and price are required, along
+ * with each type's attribute column (e.g. car_type); other columns such as vehicle_id are ignored,
+ * so files written by {@link DataExporter} can be imported again. Rows that fail are listed in the
+ * returned {@link Report} with their line numbers
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class VehicleFeedImporter {
+	private static final int BATCH_SIZE = 500;
+	private static final int QUEUE_CAPACITY = 8;
+	private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+	private static final int FIRST_MODEL_YEAR = 1886;
+
+	private static final String[] REQUIRED_COLUMNS = { "type", "make", "model", "color", "year", "price" };
+
+	private final Dealership dealership;
+	private final int workers;
+
+	/**
+	 * Constructor for the VehicleFeedImporter class
+	 * The number of parse workers is set with -Ddealership.import.workers=N (default: one per core)
+	 *
+	 * @param dealership - the dealership to add the vehicles to
+	 */
+	public VehicleFeedImporter(Dealership dealership) {
+		this.dealership = dealership;
+		this.workers = Math.max(1, Integer.getInteger("dealership.import.workers",
+				Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Receives the running totals of an import
+	 */
+	public interface Progress {
+		/**
+		 * Called on the importing thread each time a batch has been committed
+		 *
+		 * @param fraction - the share of the file processed so far, from 0 to 1
+		 * @param imported - the vehicles added so far
+		 * @param rejected - the rows rejected so far
+		 */
+		void batchDone(double fraction, long imported, long rejected);
+	}
+
+	/**
+	 * Outcome of an import
+	 */
+	public static final class Report {
+		/**
+		 * Most row errors kept for the report; later ones are only counted
+		 */
+		public static final int MAX_ERRORS = 10000;
+
+		private long rowsRead;
+		private long imported;
+		private long rejected;
+		private final List<String> errors = new ArrayList<>();
+
+		private void reject(long line, String reason) {
+			rejected++;
+			if (errors.size() < MAX_ERRORS) {
+				errors.add("Line " + line + ": " + reason);
+			}
+		}
+
+		/**
+		 * Getter method for the number of data rows in the feed
+		 *
+		 * @return the rows read, excluding the header
+		 */
+		public long getRowsRead() {
+			return rowsRead;
+		}
+
+		/**
+		 * Getter method for the number of vehicles added
+		 *
+		 * @return the vehicles now in the inventory
+		 */
+		public long getImported() {
+			return imported;
+		}
+
+		/**
+		 * Getter method for the number of rows not added
+		 *
+		 * @return the rows that were invalid, duplicates or did not fit
+		 */
+		public long getRejected() {
+			return rejected;
+		}
+
+		/**
+		 * Getter method for the per-row errors
+		 *
+		 * @return up to {@link #MAX_ERRORS} messages naming the line and the reason
+		 */
+		public List<String> getErrors() {
+			return Collections.unmodifiableList(errors);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder("Rows read: ").append(rowsRead)
+					.append("\nImported: ").append(imported)
+					.append("\nRejected: ").append(rejected).append("\n");
+			for (String error : errors) {
+				text.append(error).append("\n");
+			}
+			if (rejected > errors.size()) {
+				text.append("... ").append(rejected - errors.size()).append(" more\n");
+			}
+			return text.toString();
+		}
+	}
+
+	/**
+	 * Records read from the file, tagged with their order and first line number
+	 */
+	private static final class RawBatch {
+		private static final RawBatch END = new RawBatch(-1);
+
+		private final long sequence;
+		private final List<String> records = new ArrayList<>(BATCH_SIZE);
+		private final List<Long> lines = new ArrayList<>(BATCH_SIZE);
+		// File offset just past the batch's last record
+		private long end;
+
+		private RawBatch(long sequence) {
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * Vehicles and errors produced from one raw batch
+	 */
+	private static final class ParsedBatch {
+		private static final ParsedBatch END = new ParsedBatch(-1);
+
+		private final long sequence;
+		private final List<Vehicle> vehicles = new ArrayList<>(BATCH_SIZE);
+		private final List<Long> lines = new ArrayList<>(BATCH_SIZE);
+		private final Map<Long, String> errors = new HashMap<>();
+		private long end;
+
+		private ParsedBatch(long sequence) {
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * Import a CSV feed into the inventory
+	 *
+	 * @param file - the feed to read
+	 * @param progress - told after each committed batch how far the import has got, or null
+	 * @return the counts and per-row errors
+	 * @throws IOException if the file cannot be read or its header is missing a required column
+	 * @throws SQLException if a database access error occurs
+	 */
+	public Report importFile(Path file, Progress progress) throws IOException, SQLException {
+		Report report = new Report();
+		BlockingQueue<RawBatch> raw = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		BlockingQueue<ParsedBatch> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		ExecutorService pool = Executors.newFixedThreadPool(workers + 2, r -> {
+			Thread thread = new Thread(r, "feed-import");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Map<String, Integer> header = new HashMap<>();
+			Future<?> reader = pool.submit(() -> {
+				read(channel, header, raw);
+				return null;
+			});
+			List<Future<?>> parsers = new ArrayList<>();
+			for (int i = 0; i < workers; i++) {
+				parsers.add(pool.submit(() -> {
+					parse(header, raw, parsed);
+					return null;
+				}));
+			}
+			// The last parser to finish tells the consumer there is nothing more
+			pool.submit(() -> {
+				for (Future<?> parser : parsers) {
+					try {
+						parser.get();
+					} catch (ExecutionException e) {
+						// reported through the parser's own future
+					}
+				}
+				parsed.put(ParsedBatch.END);
+				return null;
+			});
+
+			consume(parsed, report, channel.size(), progress);
+			check(reader);
+			for (Future<?> parser : parsers) {
+				check(parser);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Import interrupted", e);
+		} finally {
+			pool.shutdownNow();
+		}
+		return report;
+	}
+
+	private static void check(Future<?> stage) throws IOException, InterruptedException {
+		try {
+			stage.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Stage 1: split the file into records through a sliding memory-mapped window
+	 * Newlines inside quoted fields do not end a record
+	 */
+	private void read(FileChannel channel, Map<String, Integer> header, BlockingQueue<RawBatch> raw)
+			throws IOException, InterruptedException {
+		long size = channel.size();
+		long position = 0;
+		long line = 1;
+		long sequence = 0;
+		boolean headerRead = false;
+		RawBatch batch = new RawBatch(sequence++);
+		try {
+			while (position < size) {
+				long length = Math.min(WINDOW_SIZE, size - position);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				boolean last = position + length == size;
+				int start = 0;
+				boolean quoted = false;
+				int newlines = 0;
+				for (int i = 0; i < length; i++) {
+					byte b = window.get(i);
+					if (b == '"') {
+						quoted = !quoted;
+					} else if (b == '\n') {
+						newlines++;
+					}
+					boolean end = (b == '\n' && !quoted) || (last && i == length - 1);
+					if (!end) {
+						continue;
+					}
+					int stop = b == '\n' ? i : i + 1;
+					String record = decode(window, start, stop);
+					long recordLine = line;
+					line += newlines;
+					newlines = 0;
+					start = i + 1;
+					if (record.isEmpty()) {
+						continue;
+					}
+					if (!headerRead) {
+						Map<String, Integer> names = new HashMap<>();
+						List<String> fields = splitCsv(record);
+						for (int c = 0; c < fields.size(); c++) {
+							names.put(fields.get(c).trim().toLowerCase(Locale.ROOT), c);
+						}
+						checkHeader(names);
+						headerRead = true;
+						synchronized (header) {
+							header.putAll(names);
+							header.notifyAll();
+						}
+						continue;
+					}
+					batch.records.add(record);
+					batch.lines.add(recordLine);
+					batch.end = position + start;
+					if (batch.records.size() == BATCH_SIZE) {
+						raw.put(batch);
+						batch = new RawBatch(sequence++);
+					}
+				}
+				if (start == 0 && !last) {
+					throw new IOException("Record at line " + line + " is longer than " + WINDOW_SIZE + " bytes");
+				}
+				position += last ? length : start;
+			}
+			if (!batch.records.isEmpty()) {
+				raw.put(batch);
+			}
+		} finally {
+			if (!headerRead) {
+				// Wake the parsers even when the file is empty or its header is bad
+				synchronized (header) {
+					header.put("", -1);
+					header.notifyAll();
+				}
+			}
+			for (int i = 0; i < workers; i++) {
+				raw.put(RawBatch.END);
+			}
+		}
+	}
+
+	private static String decode(MappedByteBuffer window, int from, int to) {
+		if (to > from && window.get(to - 1) == '\r') {
+			to--;
+		}
+		byte[] bytes = new byte[to - from];
+		window.get(from, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void checkHeader(Map<String, Integer> header) throws IOException {
+		for (String column : REQUIRED_COLUMNS) {
+			if (!header.containsKey(column)) {
+				throw new IOException("Feed header is missing the " + column + " column");
+			}
+		}
+	}
+
+	/**
+	 * Stage 2: parse and validate batches until the reader is done
+	 */
+	private void parse(Map<String, Integer> header, BlockingQueue<RawBatch> raw, BlockingQueue<ParsedBatch> parsed)
+			throws InterruptedException {
+		Map<String, Integer> columns;
+		synchronized (header) {
+			while (header.isEmpty()) {
+				header.wait();
+			}
+			columns = new HashMap<>(header);
+		}
+		while (true) {
+			RawBatch batch = raw.take();
+			if (batch == RawBatch.END) {
+				return;
+			}
+			ParsedBatch result = new ParsedBatch(batch.sequence);
+			result.end = batch.end;
+			for (int i = 0; i < batch.records.size(); i++) {
+				long line = batch.lines.get(i);
+				try {
+					result.vehicles.add(toVehicle(splitCsv(batch.records.get(i)), columns));
+					result.lines.add(line);
+				} catch (IllegalArgumentException e) {
+					result.errors.put(line, e.getMessage());
+				}
+			}
+			parsed.put(result);
+		}
+	}
+
+	/**
+	 * Build a vehicle from one record, applying the same year and price checks as the add vehicle dialogs
+	 */
+	private static Vehicle toVehicle(List<String> fields, Map<String, Integer> columns) {
+		VehicleType<?> type = VehicleTypeRegistry.byName(field(fields, columns, "type"));
+		if (type == null) {
+			throw new IllegalArgumentException("unknown vehicle type '" + field(fields, columns, "type") + "'");
+		}
+		String make = required(fields, columns, "make");
+		String model = required(fields, columns, "model");
+		String color = field(fields, columns, "color");
+		String attribute = required(fields, columns, type.getAttributeColumn());
+
+		int year;
+		double price;
+		try {
+			year = Integer.parseInt(required(fields, columns, "year"));
+			price = Double.parseDouble(required(fields, columns, "price").replace(",", "").replace("$", ""));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("year and price must be numeric values");
+		}
+		checkYear(year);
+		checkPrice(price);
+		return type.create(make, model, color, year, price, attribute);
+	}
+
+	/**
+	 * Check a model year against the range every import path accepts
+	 *
+	 * @param year - the model year
+	 * @throws IllegalArgumentException if the year is before the first car or after next year
+	 */
+	public static void checkYear(int year) {
+		if (year < FIRST_MODEL_YEAR || year > Year.now().getValue() + 1) {
+			throw new IllegalArgumentException("year " + year + " is out of range");
+		}
+	}
+
+	/**
+	 * Check a price against the rules every import path applies
+	 *
+	 * @param price - the price
+	 * @throws IllegalArgumentException if the price is negative or not a finite number
+	 */
+	public static void checkPrice(double price) {
+		if (price < 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+			throw new IllegalArgumentException("price must be a positive number");
+		}
+	}
+
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= fields.size()) {
+			return null;
+		}
+		String value = fields.get(index).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	private static String required(List<String> fields, Map<String, Integer> columns, String name) {
+		String value = field(fields, columns, name);
+		if (value == null) {
+			throw new IllegalArgumentException(name + " is required");
+		}
+		return value;
+	}
+
+	/**
+	 * Split one CSV record, handling quoted fields with doubled quotes
+	 */
+	private static List<String> splitCsv(String record) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < record.length(); i++) {
+			char c = record.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * Stage 3: restore file order, drop duplicates and insert each batch in one transaction
+	 */
+	private void consume(BlockingQueue<ParsedBatch> parsed, Report report, long size, Progress progress)
+			throws InterruptedException, SQLException {
+		Set<String> seen = new HashSet<>();
+		for (Vehicle vehicle : dealership.getVehicles()) {
+			if (vehicle != null) {
+				seen.add(key(vehicle));
+			}
+		}
+		Map<Long, ParsedBatch> waiting = new HashMap<>();
+		long next = 0;
+		boolean full = false;
+		while (true) {
+			ParsedBatch batch = parsed.take();
+			if (batch == ParsedBatch.END) {
+				break;
+			}
+			waiting.put(batch.sequence, batch);
+			for (ParsedBatch ready; (ready = waiting.remove(next)) != null; next++) {
+				full = insert(ready, seen, full, report);
+				if (progress != null) {
+					progress.batchDone(size == 0 ? 1 : (double) ready.end / size, report.imported, report.rejected);
+				}
+			}
+		}
+	}
+
+	private boolean insert(ParsedBatch batch, Set<String> seen, boolean full, Report report) throws SQLException {
+		report.rowsRead += batch.vehicles.size() + batch.errors.size();
+		List<Vehicle> fresh = new ArrayList<>(batch.vehicles.size());
+		List<Long> freshLines = new ArrayList<>(batch.vehicles.size());
+		for (int i = 0; i < batch.vehicles.size(); i++) {
+			Vehicle vehicle = batch.vehicles.get(i);
+			if (seen.add(key(vehicle))) {
+				fresh.add(vehicle);
+				freshLines.add(batch.lines.get(i));
+			} else {
+				batch.errors.put(batch.lines.get(i), "duplicate of a vehicle already in the inventory or feed");
+			}
+		}
+
+		int added = 0;
+		if (!full && !fresh.isEmpty()) {
+			added = dealership.importVehicles(fresh);
+		}
+		report.imported += added;
+		for (int i = added; i < fresh.size(); i++) {
+			batch.errors.put(freshLines.get(i), "inventory is full");
+		}
+
+		List<Long> lines = new ArrayList<>(batch.errors.keySet());
+		Collections.sort(lines);
+		for (long line : lines) {
+			report.reject(line, batch.errors.get(line));
+		}
+		return full || added < fresh.size();
+	}
+
+	private static String key(Vehicle vehicle) {
+		VehicleType<?> type = VehicleTypeRegistry.of(vehicle);
+		return String.join("\u0000", type.getName(), lower(vehicle.getMake()), lower(vehicle.getModel()),
+				lower(vehicle.getColor()), String.valueOf(vehicle.getYear()), String.valueOf(vehicle.getPriceCents()),
+				lower(type.getAttribute(vehicle)));
+	}
+
+	private static String lower(String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+}
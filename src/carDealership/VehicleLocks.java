@@ -0,0 +1,65 @@
+package carDealership;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared out among vehicle IDs
+ * Sessions working on different vehicles usually get different stripes and proceed side by side,
+ * while two sessions selling, removing or editing the same vehicle take turns. The stripe count
+ * is set with -Ddealership.lock.stripes=N and rounded up to a power of two
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class VehicleLocks {
+	private static final int DEFAULT_STRIPES = 64;
+
+	private final Lock[] stripes;
+
+	/**
+	 * Constructor for the VehicleLocks class
+	 */
+	public VehicleLocks() {
+		this(Integer.getInteger("dealership.lock.stripes", DEFAULT_STRIPES));
+	}
+
+	/**
+	 * Constructor for the VehicleLocks class
+	 *
+	 * @param stripes - the number of locks, rounded up to a power of two
+	 */
+	public VehicleLocks(int stripes) {
+		int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+		this.stripes = new Lock[Math.min(size, 1 << 16)];
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Getter method for the lock guarding a vehicle
+	 *
+	 * @param id - the vehicle ID
+	 * @return the stripe the ID falls on; the caller locks and unlocks it
+	 */
+	public Lock forId(int id) {
+		// Consecutive IDs are the common case, so mix the bits before masking
+		int h = id * 0x9E3779B9;
+		return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+	}
+
+	/**
+	 * Getter method for the number of stripes
+	 *
+	 * @return the number of locks
+	 */
+	public int size() {
+		return stripes.length;
+	}
+}
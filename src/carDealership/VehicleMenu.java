@@ -14,7 +14,6 @@ import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.ImageIcon;
-import java.awt.Image;
 
 /**
  * GUI interface for adding vehicles to the dealership inventory
@@ -45,17 +44,9 @@ public class VehicleMenu extends JFrame implements ActionListener { // this clas
 		setLayout(new GridLayout(2, 1));
 		setLocationRelativeTo(null);
 		
-		// Load and scale icons
-		// Use file paths instead of resources to ensure images are found
-		ImageIcon carIcon = new ImageIcon("src/images/auto.png");
-		ImageIcon motoIcon = new ImageIcon("src/images/moto.png");
-
-
-		Image carImg = carIcon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH);
-		ImageIcon scaledCarIcon = new ImageIcon(carImg);
-
-		Image motoImg = motoIcon.getImage().getScaledInstance(30, 30, Image.SCALE_SMOOTH);
-		ImageIcon scaledMotoIcon = new ImageIcon(motoImg);
+		// Icons are decoded and scaled once, then shared by every window
+		ImageIcon scaledCarIcon = IconCache.icon("auto.png", IconCache.MENU_ICON_SIZE, IconCache.MENU_ICON_SIZE);
+		ImageIcon scaledMotoIcon = IconCache.icon("moto.png", IconCache.MENU_ICON_SIZE, IconCache.MENU_ICON_SIZE);
 
 		carButton = new JButton("Add Car", scaledCarIcon);
 		carButton.setBackground(Color.decode("#333333"));
@@ -0,0 +1,347 @@
+package carDealership;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory trigram index over the make, model, color and type of each vehicle
+ * Supports ranked, typo-tolerant lookups such as "toyta cam"; {@link InventorySnapshot} adds
+ * vehicles to it as they enter the inventory or are edited
+ *
+ * Every vehicle occupies a slot, numbered from 1 in the order vehicles were added; each trigram maps
+ * to the list of slots containing it, stored as a growable int array whose first element is the
+ * list length. The index is append-only: a writer only ever fills slots above the ones a published
+ * snapshot can see, so readers search it concurrently without a lock, ignoring every slot at or
+ * above their snapshot's bound and every slot their snapshot no longer holds as current
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public class VehicleSearchIndex {
+	/**
+	 * Fraction of a query word's trigrams a vehicle must contain for the word to count as matched
+	 */
+	private static final double MATCH_THRESHOLD = 0.4;
+
+	/**
+	 * Vehicles a bulk add needs before their trigrams are extracted on several threads
+	 */
+	private static final int PARALLEL_THRESHOLD = 10_000;
+
+	/**
+	 * Posting lists by trigram; an entry of 0 has not been written yet, since slot 0 is never used
+	 */
+	private final Map<Long, int[]> postings = new ConcurrentHashMap<>();
+	private volatile Vehicle[] slots = new Vehicle[64];
+	private int slotCount = 1;
+
+	/**
+	 * Index a vehicle in a new slot
+	 *
+	 * @param vehicle - the vehicle to index
+	 * @return the slot it was given
+	 */
+	public int add(Vehicle vehicle) {
+		int slot = slotCount;
+		if (slot == slots.length) {
+			slots = Arrays.copyOf(slots, slot * 2);
+		}
+		slots[slot] = vehicle;
+		for (long trigram : documentTrigrams(vehicle)) {
+			append(trigram, slot);
+		}
+		slotCount = slot + 1;
+		return slot;
+	}
+
+	/**
+	 * Index many vehicles at once in consecutive new slots
+	 * Trigrams are extracted up front, in parallel for large batches, and the slots array is
+	 * grown once, so a full reload costs one pass over the vehicles
+	 *
+	 * @param vehicles - the array holding the vehicles, none of them null
+	 * @param from - the first position to index
+	 * @param to - the position after the last one to index
+	 * @return the slot given to the first vehicle; the rest follow in order
+	 */
+	public int addAll(Vehicle[] vehicles, int from, int to) {
+		int count = to - from;
+		long[][] trigrams = new long[count][];
+		IntStream positions = IntStream.range(0, count);
+		(count >= PARALLEL_THRESHOLD ? positions.parallel() : positions)
+				.forEach(i -> trigrams[i] = documentTrigrams(vehicles[from + i]));
+
+		int first = slotCount;
+		Vehicle[] grown = slots;
+		if (first + count > grown.length) {
+			grown = Arrays.copyOf(grown, Math.max(first + count, grown.length * 2));
+		}
+		System.arraycopy(vehicles, from, grown, first, count);
+		slots = grown;
+		for (int i = 0; i < count; i++) {
+			for (long trigram : trigrams[i]) {
+				append(trigram, first + i);
+			}
+		}
+		slotCount = first + count;
+		return first;
+	}
+
+	/**
+	 * Getter method for the slot the next vehicle will be given
+	 * Every slot below it is fully indexed, so it is the bound a snapshot taken now should search under
+	 *
+	 * @return one more than the highest slot in use
+	 */
+	public int getSlotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * Find the vehicles matching a free-text query, best match first
+	 * Every word of the query must approximately match some field of the vehicle. Only the posting
+	 * lists of the query's trigrams are read, so the cost follows the matches rather than the index size
+	 *
+	 * @param query - the words to look for, e.g. "toyta cam"
+	 * @param bound - the slot count of the caller's snapshot; later slots are ignored
+	 * @param slotOf - gives the current slot of a vehicle ID, or -1, so replaced and removed
+	 *        vehicles are skipped
+	 * @return the matching vehicles ordered by descending score
+	 */
+	public List<Vehicle> search(String query, int bound, IntUnaryOperator slotOf) {
+		List<Vehicle> results = new ArrayList<>();
+		String[] words = words(query);
+		if (words.length == 0) {
+			return results;
+		}
+
+		Vehicle[] vehicles = slots;
+		Matches matched = null;
+		for (String word : words) {
+			Matches forWord = matchWord(word, bound, vehicles, slotOf);
+			matched = matched == null ? forWord : matched.retain(forWord);
+			if (matched.size == 0) {
+				return results;
+			}
+		}
+
+		Matches found = matched;
+		Integer[] order = new Integer[found.size];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> found.scores[a] != found.scores[b] ? Double.compare(found.scores[b], found.scores[a])
+				: Integer.compare(vehicles[found.slots[a]].getId(), vehicles[found.slots[b]].getId()));
+		for (int i : order) {
+			results.add(vehicles[found.slots[i]]);
+		}
+		return results;
+	}
+
+	/**
+	 * Live slots matching one query word, found by merging the word's posting lists in slot order
+	 * A list ends at its first unwritten entry or the first slot past the bound
+	 */
+	private Matches matchWord(String word, int bound, Vehicle[] vehicles, IntUnaryOperator slotOf) {
+		long[] trigrams = trigrams(word);
+		int[][] lists = new int[trigrams.length][];
+		int listCount = 0;
+		for (long trigram : trigrams) {
+			int[] list = postings.get(trigram);
+			if (list != null) {
+				lists[listCount++] = list;
+			}
+		}
+
+		// Posting lists are in ascending slot order, so equal slots line up at the list heads
+		Matches matches = new Matches();
+		int[] cursor = new int[listCount];
+		int[] head = new int[listCount];
+		for (int i = 0; i < listCount; i++) {
+			cursor[i] = 1;
+			head[i] = entry(lists[i], 1, bound);
+		}
+		while (true) {
+			int slot = Integer.MAX_VALUE;
+			for (int i = 0; i < listCount; i++) {
+				if (head[i] < slot) {
+					slot = head[i];
+				}
+			}
+			if (slot == Integer.MAX_VALUE) {
+				return matches;
+			}
+			int hits = 0;
+			for (int i = 0; i < listCount; i++) {
+				if (head[i] == slot) {
+					hits++;
+					head[i] = entry(lists[i], ++cursor[i], bound);
+				}
+			}
+			double fraction = (double) hits / trigrams.length;
+			if (fraction >= MATCH_THRESHOLD && slotOf.applyAsInt(vehicles[slot].getId()) == slot) {
+				matches.add(slot, fraction);
+			}
+		}
+	}
+
+	/**
+	 * Slot at a position of a posting list, or Integer.MAX_VALUE once the list ends for this bound
+	 */
+	private static int entry(int[] list, int position, int bound) {
+		if (position >= list.length) {
+			return Integer.MAX_VALUE;
+		}
+		int slot = list[position];
+		return slot == 0 || slot >= bound ? Integer.MAX_VALUE : slot;
+	}
+
+	/**
+	 * Slots in ascending order with their summed scores
+	 */
+	private static final class Matches {
+		private int[] slots = new int[16];
+		private double[] scores = new double[16];
+		private int size;
+
+		private void add(int slot, double score) {
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+				scores = Arrays.copyOf(scores, size * 2);
+			}
+			slots[size] = slot;
+			scores[size++] = score;
+		}
+
+		/**
+		 * Keep only the slots that also match another word, adding its scores
+		 */
+		private Matches retain(Matches other) {
+			Matches both = new Matches();
+			int i = 0;
+			int j = 0;
+			while (i < size && j < other.size) {
+				if (slots[i] < other.slots[j]) {
+					i++;
+				} else if (slots[i] > other.slots[j]) {
+					j++;
+				} else {
+					both.add(slots[i], scores[i++] + other.scores[j++]);
+				}
+			}
+			return both;
+		}
+	}
+
+	private void append(long trigram, int slot) {
+		int[] list = postings.get(trigram);
+		if (list == null) {
+			list = new int[4];
+			postings.put(trigram, list);
+		} else if (list[0] + 1 == list.length) {
+			list = Arrays.copyOf(list, list.length * 2);
+			postings.put(trigram, list);
+		}
+		list[++list[0]] = slot;
+	}
+
+	/**
+	 * Distinct trigrams of every word in the searchable fields of a vehicle
+	 * Splits the fields the same way {@link #words} does, but scans them directly rather than
+	 * through a regular expression, since this runs once per vehicle on every load
+	 */
+	private static long[] documentTrigrams(Vehicle vehicle) {
+		VehicleType<?> vehicleType = VehicleTypeRegistry.of(vehicle);
+		String type = vehicleType == null ? null : vehicleType.getAttribute(vehicle);
+		long[] all = new long[32];
+		int n = 0;
+		for (String field : new String[] { String.valueOf(vehicle.getMake()), String.valueOf(vehicle.getModel()),
+				String.valueOf(vehicle.getColor()), type == null ? "" : type }) {
+			String text = field.toLowerCase(Locale.ROOT);
+			int wordStart = -1;
+			for (int i = 0; i <= text.length(); ) {
+				int codePoint = i < text.length() ? text.codePointAt(i) : -1;
+				boolean inWord = codePoint >= 0 && isWordCharacter(codePoint);
+				if (inWord && wordStart < 0) {
+					wordStart = i;
+				} else if (!inWord && wordStart >= 0) {
+					long[] trigrams = trigrams(text.substring(wordStart, i));
+					if (n + trigrams.length > all.length) {
+						all = Arrays.copyOf(all, Math.max(n + trigrams.length, all.length * 2));
+					}
+					System.arraycopy(trigrams, 0, all, n, trigrams.length);
+					n += trigrams.length;
+					wordStart = -1;
+				}
+				i += codePoint < 0 ? 1 : Character.charCount(codePoint);
+			}
+		}
+		Arrays.sort(all, 0, n);
+		int distinct = 0;
+		for (int i = 0; i < n; i++) {
+			if (i == 0 || all[i] != all[i - 1]) {
+				all[distinct++] = all[i];
+			}
+		}
+		return Arrays.copyOf(all, distinct);
+	}
+
+	/**
+	 * Whether a code point belongs to a word, matching [\p{L}\p{N}] in {@link #words}
+	 */
+	private static boolean isWordCharacter(int codePoint) {
+		switch (Character.getType(codePoint)) {
+		case Character.UPPERCASE_LETTER:
+		case Character.LOWERCASE_LETTER:
+		case Character.TITLECASE_LETTER:
+		case Character.MODIFIER_LETTER:
+		case Character.OTHER_LETTER:
+		case Character.DECIMAL_DIGIT_NUMBER:
+		case Character.LETTER_NUMBER:
+		case Character.OTHER_NUMBER:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static String[] words(String text) {
+		if (text == null) {
+			return new String[0];
+		}
+		String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+		return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+	}
+
+	/**
+	 * Distinct trigrams of a word padded with a boundary marker on each side,
+	 * so "cam" yields "$ca", "cam" and "am$"; each trigram is packed into a long
+	 */
+	private static long[] trigrams(String word) {
+		String padded = "$" + word + "$";
+		long[] result = new long[padded.length() - 2];
+		int n = 0;
+		outer:
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			long key = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+			for (int j = 0; j < n; j++) {
+				if (result[j] == key) {
+					continue outer;
+				}
+			}
+			result[n++] = key;
+		}
+		return Arrays.copyOf(result, n);
+	}
+}
@@ -0,0 +1,155 @@
+package carDealership;
+
+/**
+ * Codec for one kind of vehicle, converting between its database row and its object
+ * Every kind shares the common Vehicle columns and adds a single text attribute with its own column,
+ * such as a car's body type. The kind is identified in the Vehicle table by the discriminator in its
+ * {@code type} column. Instances are registered with {@link VehicleTypeRegistry}, which hands out
+ * their codes
+ *
+ * @param <V> - the vehicle class this type reads and writes
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public abstract class VehicleType<V extends Vehicle> {
+	private final String name;
+	private final String label;
+	private final Class<V> vehicleClass;
+	private final String attributeColumn;
+	private final String attributeName;
+	int code = -1;
+
+	/**
+	 * Constructor for the VehicleType class
+	 *
+	 * @param name - the discriminator stored in the type column, e.g. "car"
+	 * @param label - the name shown to users, e.g. "Car"
+	 * @param vehicleClass - the class of the vehicles of this type
+	 * @param attributeColumn - the Vehicle column holding the type's attribute, e.g. "car_type"
+	 * @param attributeName - the attribute's name in the API, e.g. "type"
+	 */
+	protected VehicleType(String name, String label, Class<V> vehicleClass, String attributeColumn,
+			String attributeName) {
+		this.name = name;
+		this.label = label;
+		this.vehicleClass = vehicleClass;
+		this.attributeColumn = attributeColumn;
+		this.attributeName = attributeName;
+	}
+
+	/**
+	 * Build a vehicle of this type
+	 *
+	 * @param make - the manufacturer of the vehicle
+	 * @param model - the model of the vehicle
+	 * @param color - the color of the vehicle
+	 * @param year - the manufacturing year of the vehicle
+	 * @param price - the price of the vehicle
+	 * @param attribute - the type's own attribute
+	 * @return the new vehicle, without an ID
+	 */
+	public abstract V create(String make, String model, String color, int year, double price, String attribute);
+
+	/**
+	 * Read the type's own attribute from a vehicle
+	 *
+	 * @param vehicle - a vehicle of this type
+	 * @return the attribute value
+	 */
+	protected abstract String attributeOf(V vehicle);
+
+	/**
+	 * Copy a vehicle of this type
+	 *
+	 * @param vehicle - a vehicle of this type
+	 * @return an independent copy
+	 */
+	protected abstract V copyOf(V vehicle);
+
+	/**
+	 * Read the type's own attribute from a vehicle
+	 *
+	 * @param vehicle - a vehicle of this type
+	 * @return the attribute value
+	 */
+	public final String getAttribute(Vehicle vehicle) {
+		return attributeOf(vehicleClass.cast(vehicle));
+	}
+
+	/**
+	 * Copy a vehicle of this type, including its ID
+	 *
+	 * @param vehicle - a vehicle of this type
+	 * @return an independent copy
+	 */
+	public final V copy(Vehicle vehicle) {
+		V copy = copyOf(vehicleClass.cast(vehicle));
+		copy.setId(vehicle.getId());
+		return copy;
+	}
+
+	/**
+	 * Getter method for the code assigned at registration
+	 *
+	 * @return the type's code, or -1 if it is not registered
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * Getter method for the discriminator
+	 *
+	 * @return the value stored in the type column
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter method for the display name
+	 *
+	 * @return the name shown to users
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Getter method for the vehicle class
+	 *
+	 * @return the class of the vehicles of this type
+	 */
+	public Class<V> getVehicleClass() {
+		return vehicleClass;
+	}
+
+	/**
+	 * Getter method for the attribute column
+	 *
+	 * @return the Vehicle column holding the type's attribute
+	 */
+	public String getAttributeColumn() {
+		return attributeColumn;
+	}
+
+	/**
+	 * Getter method for the attribute name
+	 *
+	 * @return the attribute's name in the API
+	 */
+	public String getAttributeName() {
+		return attributeName;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
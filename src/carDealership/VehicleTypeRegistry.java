@@ -0,0 +1,199 @@
+package carDealership;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the vehicle types the dealership stocks
+ * Loaders, the API and the in-memory indexes look types up here by discriminator, code or class
+ * instead of testing each vehicle with instanceof or checking which nullable column is set. Codes
+ * index a plain array and class lookups are cached per class, so dispatch costs the same however
+ * many types are registered. A new kind of vehicle needs a Vehicle subclass, an attribute column
+ * in the Vehicle table and a {@link VehicleType} registered at startup, before inventory is loaded
+ *
+ * @author Ronika Patel (40156217)
+ * @author Nazim Chaib Cherif-Baza (40017992)
+ * @author Andrea Delgado Anderson (40315869)
+ * @author Grace Pan (40302283)
+ * @author Bao Tran Nguyen (40257379)
+ * @author Michael Persico (40090861)
+ * @since 1.8
+ */
+public final class VehicleTypeRegistry {
+	/**
+	 * Cars, with their body type in car_type
+	 */
+	public static final VehicleType<Car> CAR = new VehicleType<Car>("car", "Car", Car.class, "car_type", "type") {
+		@Override
+		public Car create(String make, String model, String color, int year, double price, String attribute) {
+			return new Car(make, model, color, year, price, attribute);
+		}
+
+		@Override
+		protected String attributeOf(Car vehicle) {
+			return vehicle.getType();
+		}
+
+		@Override
+		protected Car copyOf(Car vehicle) {
+			return new Car(vehicle);
+		}
+	};
+
+	/**
+	 * Motorcycles, with their handlebar type in handlebar_type
+	 */
+	public static final VehicleType<Motorcycle> MOTORCYCLE = new VehicleType<Motorcycle>("motorcycle", "Motorcycle",
+			Motorcycle.class, "handlebar_type", "handlebarType") {
+		@Override
+		public Motorcycle create(String make, String model, String color, int year, double price, String attribute) {
+			return new Motorcycle(make, model, color, year, price, attribute);
+		}
+
+		@Override
+		protected String attributeOf(Motorcycle vehicle) {
+			return vehicle.getHandlebarType();
+		}
+
+		@Override
+		protected Motorcycle copyOf(Motorcycle vehicle) {
+			return new Motorcycle(vehicle);
+		}
+	};
+
+	/**
+	 * Codes fit in a byte so column storage can keep one per row
+	 */
+	private static final int MAX_TYPES = Byte.MAX_VALUE + 1;
+
+	private static volatile VehicleType<?>[] byCode = new VehicleType<?>[0];
+	private static volatile List<String> attributeColumns = Collections.emptyList();
+	private static final Map<String, VehicleType<?>> byName = new ConcurrentHashMap<>();
+
+	/**
+	 * Type of each vehicle class, found once by walking up its superclasses
+	 */
+	private static final ClassValue<VehicleType<?>> byClass = new ClassValue<VehicleType<?>>() {
+		@Override
+		protected VehicleType<?> computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for (VehicleType<?> candidate : byCode) {
+					if (candidate.getVehicleClass() == c) {
+						return candidate;
+					}
+				}
+			}
+			return null;
+		}
+	};
+
+	static {
+		register(CAR);
+		register(MOTORCYCLE);
+	}
+
+	private VehicleTypeRegistry() {
+	}
+
+	/**
+	 * Add a vehicle type and assign it the next code
+	 *
+	 * @param type - the type to add
+	 * @throws IllegalArgumentException if the type or its discriminator is already registered, or
+	 *         no codes are left
+	 */
+	public static synchronized void register(VehicleType<?> type) {
+		String key = type.getName().toLowerCase(Locale.ROOT);
+		if (type.code >= 0 || byName.containsKey(key)) {
+			throw new IllegalArgumentException("Vehicle type " + type.getName() + " is already registered");
+		}
+		if (byCode.length == MAX_TYPES) {
+			throw new IllegalArgumentException("No more than " + MAX_TYPES + " vehicle types can be registered");
+		}
+		type.code = byCode.length;
+		VehicleType<?>[] types = Arrays.copyOf(byCode, byCode.length + 1);
+		types[type.code] = type;
+		byCode = types;
+		byName.put(key, type);
+		if (!attributeColumns.contains(type.getAttributeColumn())) {
+			List<String> columns = new ArrayList<>(attributeColumns);
+			columns.add(type.getAttributeColumn());
+			attributeColumns = Collections.unmodifiableList(columns);
+		}
+		byClass.remove(type.getVehicleClass());
+	}
+
+	/**
+	 * Find a type by its discriminator, ignoring case
+	 *
+	 * @param name - the value of the type column, e.g. "car"
+	 * @return the type, or null if no type has that discriminator
+	 */
+	public static VehicleType<?> byName(String name) {
+		return name == null ? null : byName.get(name.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Find a type by its code
+	 *
+	 * @param code - a code from {@link VehicleType#getCode()}
+	 * @return the type
+	 * @throws ArrayIndexOutOfBoundsException if no type has that code
+	 */
+	public static VehicleType<?> byCode(int code) {
+		return byCode[code];
+	}
+
+	/**
+	 * Find the type of a vehicle
+	 *
+	 * @param vehicle - the vehicle
+	 * @return the vehicle's type, or null if its class is not registered
+	 */
+	public static VehicleType<?> of(Vehicle vehicle) {
+		return byClass.get(vehicle.getClass());
+	}
+
+	/**
+	 * Getter method for every registered type
+	 *
+	 * @return the types in code order
+	 */
+	public static List<VehicleType<?>> types() {
+		return Collections.unmodifiableList(Arrays.asList(byCode));
+	}
+
+	/**
+	 * Getter method for the attribute columns used by the registered types
+	 *
+	 * @return each distinct column once, in registration order
+	 */
+	public static List<String> attributeColumns() {
+		return attributeColumns;
+	}
+
+	/**
+	 * Comma-separated list of the attribute columns for a SELECT
+	 *
+	 * @param alias - the table alias to qualify each column with, or null
+	 * @return e.g. "v.car_type, v.handlebar_type"
+	 */
+	public static String attributeColumnList(String alias) {
+		StringBuilder list = new StringBuilder();
+		for (String column : attributeColumns) {
+			if (list.length() > 0) {
+				list.append(", ");
+			}
+			if (alias != null) {
+				list.append(alias).append('.');
+			}
+			list.append(column);
+		}
+		return list.toString();
+	}
+}
@@ -6,9 +6,25 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import carDealership.Money;
 
 /**
  * Database manager for SQLite operations
+ * Every thread shares one connection with auto-commit off, so every statement runs while holding
+ * this manager's monitor; otherwise one thread's commit or rollback could end another thread's
+ * transaction halfway through
  *
  * @author Ronika Patel (40156217)
  * @author Nazim Chaib Cherif-Baza (40017992)
@@ -24,12 +40,21 @@ public class DBManager {
 	private String m_dbPath;
 	private Connection m_connection;
 	
-	// Flag to track if we're in test mode
-	private boolean isTestMode = false;
+	// Flag to track if we're in test mode; read by every thread, so volatile
+	private volatile boolean isTestMode = false;
 	
 	// Test connection for in-memory database
 	private Connection m_testConnection;
 
+	/**
+	 * Tables the application cannot start without
+	 */
+	private static final List<String> REQUIRED_TABLES = Arrays.asList("dealerships", "users", "roles", "vehicle",
+			"sales", "password_reset_requests");
+
+	// CREATE statement of every table and index in the live database, keyed by lower-case name
+	private final Map<String, String> m_schema = new HashMap<>();
+
 	/**
 	 * Private constructor for the DBManager class
 	 * Creates a database connection and initializes the database if needed
@@ -55,25 +80,27 @@ public class DBManager {
 	 */
 	public void runInsert(String query, Object... params) throws SQLException {
 		System.out.println("Will run insert query: " + query + (isTestMode ? " [TEST MODE]" : ""));
-		// Use the appropriate connection based on test mode status
-		Connection conn = this.Connection();
-		var stmt = conn.prepareStatement(query);
-		for (int i = 0; i < params.length; i++) {
-			stmt.setObject(i + 1, params[i]);
-		}
-		stmt.execute();
-		conn.commit();
+		runInTransaction(conn -> {
+			try (var stmt = conn.prepareStatement(query)) {
+				for (int i = 0; i < params.length; i++) {
+					stmt.setObject(i + 1, params[i]);
+				}
+				stmt.execute();
+			}
+		});
 	}
 
 	/**
 	 * Execute an SQL query statement and return the result set
+	 * The rows are read into a disconnected copy before the monitor is released, so the caller can
+	 * walk them at its own pace without leaving a cursor open on the shared connection
 	 *
 	 * @param query - the SQL query statement to execute
 	 * @param params - variable number of parameters to replace placeholders in the query
 	 * @return the ResultSet containing the query results
 	 * @throws SQLException if a database access error occurs
 	 */
-	public ResultSet runQuery(String query, Object... params) throws SQLException {
+	public synchronized ResultSet runQuery(String query, Object... params) throws SQLException {
 		System.out.println("Will run query: " + query);
 		// Debug parameter information
 		System.out.println("Number of parameters: " + params.length);
@@ -83,59 +110,115 @@ public class DBManager {
 		
 		// Use the appropriate connection based on test mode status
 		Connection conn = this.Connection();
-		var stmt = conn.prepareStatement(query);
-		for (int i = 0; i < params.length; i++) {
-			stmt.setObject(i + 1, params[i]);
+		CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+		try (var stmt = conn.prepareStatement(query)) {
+			for (int i = 0; i < params.length; i++) {
+				stmt.setObject(i + 1, params[i]);
+			}
+			
+			// Execute the query and debug results
+			try (ResultSet rs = stmt.executeQuery()) {
+				System.out.println("Query executed successfully");
+				rows.populate(rs);
+			}
 		}
 		
-		// Execute the query and debug results
-		ResultSet rs = stmt.executeQuery();
-		System.out.println("Query executed successfully");
-		
 		// Debug if the ResultSet has any rows
-		if (rs.isBeforeFirst()) {
+		if (rows.size() > 0) {
 			System.out.println("Query returned at least one row");
 		} else {
 			System.out.println("Query returned no rows");
 		}
 		
-		return rs;
+		return rows;
 	}
 
 
 
 
-  public static String getSalespersonPerformanceReport() {
-    StringBuilder report = new StringBuilder();
-    report.append("Salesperson Performance (Last 12 Months)\n\n");
+  /**
+   * Salesperson performance over the last 12 months
+   * Columns: salesperson_name, vehicles_sold, total_revenue_cents
+   * Revenue comes from the price captured on each sale, so it is exact and unaffected by later vehicle edits
+   */
+  public static final String SALESPERSON_PERFORMANCE_SQL = """
+        SELECT
+            u.name AS salesperson_name,
+            COUNT(s.sale_id) AS vehicles_sold,
+            SUM(s.sale_price_cents) AS total_revenue_cents
+        FROM Sales s
+        JOIN users u ON s.user_id = u.user_id
+        WHERE s.sold_at_ms >= CAST(strftime('%s', 'now', '-12 months') AS INTEGER) * 1000
+        GROUP BY s.user_id
+        ORDER BY total_revenue_cents DESC;
+    """;
 
-    String sql = """
+  /**
+   * Units sold per make and model over the last 12 months
+   * Columns: full_model_name, units_sold
+   */
+  public static final String MODEL_SALES_SQL = """
+        SELECT
+            v.make || ' ' || v.model AS full_model_name,
+            COUNT(s.sale_id) AS units_sold
+        FROM Sales s
+        JOIN Vehicle v ON s.vehicle_id = v.vehicle_id
+        WHERE s.sold_at_ms >= CAST(strftime('%s', 'now', '-12 months') AS INTEGER) * 1000
+        GROUP BY v.make, v.model
+        ORDER BY units_sold DESC;
+    """;
+
+  /**
+   * {@link #SALESPERSON_PERFORMANCE_SQL} limited to the sales of one dealership's vehicles
+   * Parameter: dealerships_id
+   */
+  public static final String DEALERSHIP_SALESPERSON_PERFORMANCE_SQL = """
         SELECT
             u.name AS salesperson_name,
             COUNT(s.sale_id) AS vehicles_sold,
-            SUM(v.price) AS total_revenue,
-            AVG(v.price) AS avg_price
+            SUM(s.sale_price_cents) AS total_revenue_cents
         FROM Sales s
         JOIN users u ON s.user_id = u.user_id
         JOIN Vehicle v ON s.vehicle_id = v.vehicle_id
-        WHERE s.sale_date >= date('now', '-12 months')
+        WHERE s.sold_at_ms >= CAST(strftime('%s', 'now', '-12 months') AS INTEGER) * 1000
+          AND v.dealerships_id = ?
         GROUP BY s.user_id
-        ORDER BY total_revenue DESC;
+        ORDER BY total_revenue_cents DESC;
+    """;
+
+  /**
+   * {@link #MODEL_SALES_SQL} limited to one dealership's vehicles
+   * Parameter: dealerships_id
+   */
+  public static final String DEALERSHIP_MODEL_SALES_SQL = """
+        SELECT
+            v.make || ' ' || v.model AS full_model_name,
+            COUNT(s.sale_id) AS units_sold
+        FROM Sales s
+        JOIN Vehicle v ON s.vehicle_id = v.vehicle_id
+        WHERE s.sold_at_ms >= CAST(strftime('%s', 'now', '-12 months') AS INTEGER) * 1000
+          AND v.dealerships_id = ?
+        GROUP BY v.make, v.model
+        ORDER BY units_sold DESC;
     """;
 
+  public static String getSalespersonPerformanceReport() {
+    StringBuilder report = new StringBuilder();
+    report.append("Salesperson Performance (Last 12 Months)\n\n");
+
     try {
-        ResultSet rs = getInstance().runQuery(sql);
+        ResultSet rs = getInstance().runQuery(SALESPERSON_PERFORMANCE_SQL);
         while (rs.next()) {
             String name = rs.getString("salesperson_name");
             int sold = rs.getInt("vehicles_sold");
-            double revenue = rs.getDouble("total_revenue");
-            double avg = rs.getDouble("avg_price");
+            long revenue = rs.getLong("total_revenue_cents");
+            long avg = Money.average(revenue, sold);
 
             report.append(name).append("\n")
                   .append("---------------------\n")
                   .append("Total Vehicles Sold: ").append(sold).append("\n")
-                  .append(String.format("Total Revenue: $%,.2f\n", revenue))
-                  .append(String.format("Average Sale: $%,.2f\n", avg))
+                  .append("Total Revenue: ").append(Money.format(revenue)).append("\n")
+                  .append("Average Sale: ").append(Money.format(avg)).append("\n")
                   .append("\n");
         }
         rs.close();
@@ -151,19 +234,8 @@ public class DBManager {
     StringBuilder report = new StringBuilder();
     report.append("Model Sales (Last 12 Months)\n\n");
 
-    String sql = """
-        SELECT
-            v.make || ' ' || v.model AS full_model_name,
-            COUNT(s.sale_id) AS units_sold
-        FROM Sales s
-        JOIN Vehicle v ON s.vehicle_id = v.vehicle_id
-        WHERE s.sale_date >= date('now', '-12 months')
-        GROUP BY v.make, v.model
-        ORDER BY units_sold DESC;
-    """;
-
     try {
-        ResultSet rs = getInstance().runQuery(sql);
+        ResultSet rs = getInstance().runQuery(MODEL_SALES_SQL);
         while (rs.next()) {
             String model = rs.getString("full_model_name");
             int count = rs.getInt("units_sold");
@@ -191,25 +263,112 @@ public class DBManager {
 	 */
 	public void runUpdate(String query, Object... params) throws SQLException {
 		System.out.println("Will run update query: " + query + (isTestMode ? " [TEST MODE]" : ""));
-		// Use the appropriate connection based on test mode status
+		runInTransaction(conn -> {
+			try (var stmt = conn.prepareStatement(query)) {
+				for (int i = 0; i < params.length; i++) {
+					stmt.setObject(i + 1, params[i]);
+				}
+				stmt.execute();
+			}
+		});
+	}
+
+	/**
+	 * Execute a single data-modifying statement with a RETURNING clause and commit it
+	 * The statement runs as one atomic step, so read-modify-write sequences need no separate SELECT
+	 *
+	 * @param query - the INSERT, UPDATE or DELETE statement ending in RETURNING
+	 * @param params - variable number of parameters to replace placeholders in the query
+	 * @return the integer columns of the first returned row, or null if no row was affected
+	 * @throws SQLException if a database access error occurs
+	 */
+	public int[] runUpdateReturning(String query, Object... params) throws SQLException {
+		System.out.println("Will run update query: " + query + (isTestMode ? " [TEST MODE]" : ""));
+		int[][] row = new int[1][];
+		runInTransaction(conn -> {
+			try (var stmt = conn.prepareStatement(query)) {
+				for (int i = 0; i < params.length; i++) {
+					stmt.setObject(i + 1, params[i]);
+				}
+				try (ResultSet rs = stmt.executeQuery()) {
+					if (rs.next()) {
+						row[0] = new int[rs.getMetaData().getColumnCount()];
+						for (int i = 0; i < row[0].length; i++) {
+							row[0][i] = rs.getInt(i + 1);
+						}
+					}
+				}
+			}
+		});
+		return row[0];
+	}
+
+	/**
+	 * Work to run inside a single transaction
+	 */
+	@FunctionalInterface
+	public interface TransactionWork {
+		/**
+		 * Run statements on the transaction's connection without committing
+		 *
+		 * @param conn - the connection the transaction is open on
+		 * @throws SQLException if a statement fails, which rolls the whole transaction back
+		 */
+		void run(Connection conn) throws SQLException;
+	}
+
+	/**
+	 * Run several statements as one transaction, committing once at the end
+	 * Any failure rolls back everything the work did. The monitor is held throughout, so no other
+	 * thread's statement can land inside the transaction or be caught by its commit or rollback
+	 *
+	 * @param work - the statements to run
+	 * @throws SQLException if a database access error occurs
+	 */
+	public synchronized void runInTransaction(TransactionWork work) throws SQLException {
+		System.out.println("Will run transaction" + (isTestMode ? " [TEST MODE]" : ""));
 		Connection conn = this.Connection();
-		var stmt = conn.prepareStatement(query);
-		for (int i = 0; i < params.length; i++) {
-			stmt.setObject(i + 1, params[i]);
+		try {
+			work.run(conn);
+			conn.commit();
+		} catch (SQLException | RuntimeException e) {
+			conn.rollback();
+			throw e;
 		}
-		stmt.execute();
-		conn.commit();
 	}
 
 	/**
-	 * Initialize the database connection and create tables if the database doesn't exist
+	 * Execute one statement for many parameter rows as a JDBC batch, without committing
+	 * Intended for use inside {@link #runInTransaction(TransactionWork)}
 	 *
+	 * @param conn - the connection of the enclosing transaction
+	 * @param query - the SQL statement to execute for each row
+	 * @param rows - one parameter array per execution
+	 * @return the update count of each execution
 	 * @throws SQLException if a database access error occurs
 	 */
-	private void initDB() throws SQLException {
-		var dbFile = new File(m_dbPath);
-		var mustCreateTables = !dbFile.exists();
+	public static int[] runBatch(Connection conn, String query, List<Object[]> rows) throws SQLException {
+		if (rows.isEmpty()) {
+			return new int[0];
+		}
+		System.out.println("Will run batch of " + rows.size() + ": " + query);
+		try (var stmt = conn.prepareStatement(query)) {
+			for (Object[] params : rows) {
+				for (int i = 0; i < params.length; i++) {
+					stmt.setObject(i + 1, params[i]);
+				}
+				stmt.addBatch();
+			}
+			return stmt.executeBatch();
+		}
+	}
 
+	/**
+	 * Initialize the database connection and create tables if the database doesn't exist
+	 *
+	 * @throws SQLException if a database access error occurs
+	 */
+	private synchronized void initDB() throws SQLException {
 		var url = "jdbc:sqlite:" + m_dbPath;
 		try {
 			m_connection = DriverManager.getConnection(url);
@@ -219,21 +378,99 @@ public class DBManager {
 			System.out.println(e.getMessage());
 		}
 
-		if (!mustCreateTables) {
+		// One look at sqlite_master tells us whether the file is new, incomplete or current
+		readSchema();
+		boolean complete = true;
+		for (String table : REQUIRED_TABLES) {
+			complete &= m_schema.containsKey(table);
+		}
+		if (complete) {
 			System.out.println("DB file " + m_dbPath + " already exists. Not creating the database.");
 		} else {
-			System.out.println("Creating the DB file " + m_dbPath + " and the tables.");
-			createTables();
+			System.out.println("Creating the missing tables in " + m_dbPath);
+			createTables(!m_schema.containsKey("roles"));
+			readSchema();
+		}
+		migrateSchema();
+	}
+
+	/**
+	 * Read the name and CREATE statement of every table and index in a single query
+	 *
+	 * @throws SQLException if a database access error occurs
+	 */
+	private void readSchema() throws SQLException {
+		m_schema.clear();
+		try (Statement stmt = m_connection.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT name, sql FROM sqlite_master WHERE type IN ('table', 'index')")) {
+			while (rs.next()) {
+				String sql = rs.getString("sql");
+				m_schema.put(rs.getString("name").toLowerCase(Locale.ROOT), sql == null ? "" : sql);
+			}
+		}
+	}
+
+	/**
+	 * Check whether a table existed when the database was opened or was created at startup
+	 * Answered from the schema read at startup, so no query is run
+	 *
+	 * @param table - the table name, in any case
+	 * @return true if the table is in the live database
+	 */
+	public boolean hasTable(String table) {
+		return m_schema.containsKey(table.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Bring an existing database up to the current schema
+	 * Each step checks for its columns first, so running it again is harmless
+	 *
+	 * @throws SQLException if a database access error occurs
+	 */
+	private void migrateSchema() throws SQLException {
+		boolean changed = false;
+		try (Statement stmt = m_connection.createStatement()) {
+			if (!hasColumn("Sales", "sale_price_cents")) {
+				changed = true;
+				System.out.println("Adding sale price and timestamp columns to the Sales table");
+				stmt.execute("ALTER TABLE Sales ADD COLUMN sale_price_cents INTEGER");
+				stmt.execute("ALTER TABLE Sales ADD COLUMN sold_at_ms INTEGER");
+				// Older sales only have the vehicle's current price, which is the best estimate available
+				stmt.executeUpdate("UPDATE Sales SET sale_price_cents = (SELECT " + String.format(Money.SQL_CENTS, "v.price")
+						+ " FROM Vehicle v WHERE v.vehicle_id = Sales.vehicle_id), "
+						+ "sold_at_ms = CAST(strftime('%s', sale_date) AS INTEGER) * 1000");
+			}
+			if (!m_schema.containsKey("idx_sales_sold_at")) {
+				changed = true;
+				stmt.execute("CREATE INDEX IF NOT EXISTS idx_sales_sold_at ON Sales (sold_at_ms)");
+			}
+			// Rows written before the type column was filled in are typed by whichever attribute they have
+			stmt.executeUpdate("UPDATE Vehicle SET type = CASE WHEN car_type IS NOT NULL THEN 'car' "
+					+ "WHEN handlebar_type IS NOT NULL THEN 'motorcycle' END WHERE type IS NULL");
 		}
+		m_connection.commit();
+		if (changed) {
+			readSchema();
+		}
+	}
+
+	/**
+	 * Look for a column in the table's CREATE statement, which SQLite rewrites on ALTER TABLE ADD COLUMN
+	 */
+	private boolean hasColumn(String table, String column) {
+		String sql = m_schema.get(table.toLowerCase(Locale.ROOT));
+		return sql != null && Pattern.compile("[(,\\s][\"`\\[]?" + Pattern.quote(column) + "[\"`\\]]?[\\s,)]",
+				Pattern.CASE_INSENSITIVE).matcher(sql).find();
 	}
 
 	/**
 	 * Create the database tables structure
-	 * Sets up dealerships, users, roles, vehicles, and sales tables
+	 * Sets up dealerships, users, roles, vehicles, and sales tables; tables that already exist are left alone
 	 *
+	 * @param seedRoles - whether to insert the default roles, done only when the roles table is new
 	 * @throws SQLException if a database access error occurs
 	 */
-	private void createTables() throws SQLException {
+	private void createTables(boolean seedRoles) throws SQLException {
 		System.out.println("Creating the dealerships table");
 		var dealershipSQL = "CREATE TABLE IF NOT EXISTS dealerships (id INTEGER PRIMARY KEY AUTOINCREMENT,"
 				+ " name text NOT NULL, location text NOT NULL, capacity INTEGER);";
@@ -256,14 +493,16 @@ public class DBManager {
 
 		stmt.execute(roleSQL);
 
-		var addAdminRoleSQL = "INSERT INTO roles (role_name) VALUES ('Admin');";
-		stmt.execute(addAdminRoleSQL);
+		if (seedRoles) {
+			var addAdminRoleSQL = "INSERT INTO roles (role_name) VALUES ('Admin');";
+			stmt.execute(addAdminRoleSQL);
 
-		var addManagerRoleSQL = "INSERT INTO roles (role_name) VALUES ('Manager');";
-		stmt.execute(addManagerRoleSQL);
+			var addManagerRoleSQL = "INSERT INTO roles (role_name) VALUES ('Manager');";
+			stmt.execute(addManagerRoleSQL);
 
-		var addSalesPersonRoleSQL = "INSERT INTO roles (role_name) VALUES ('Salesperson');";
-		stmt.execute(addSalesPersonRoleSQL);
+			var addSalesPersonRoleSQL = "INSERT INTO roles (role_name) VALUES ('Salesperson');";
+			stmt.execute(addSalesPersonRoleSQL);
+		}
 
 
 		// Added Vehicles and Sales tables
@@ -277,7 +516,7 @@ public class DBManager {
 		stmt.execute("CREATE TABLE IF NOT EXISTS Sales (" +
 					"sale_id INTEGER PRIMARY KEY AUTOINCREMENT, vehicle_id INTEGER NOT NULL, " +
 					"user_id INTEGER NOT NULL, buyer_name TEXT, buyer_contact TEXT, " +
-					"sale_date DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+					"sale_date DATETIME DEFAULT CURRENT_TIMESTAMP, sale_price_cents INTEGER, sold_at_ms INTEGER, " +
 					"FOREIGN KEY (vehicle_id) REFERENCES Vehicle(vehicle_id), " +
 					"FOREIGN KEY (user_id) REFERENCES users(user_id))");
 		System.out.println("Creating the password_reset_requests table");
@@ -291,11 +530,12 @@ public class DBManager {
 	/**
 	 * Get the singleton instance of the DBManager
 	 * Creates a new instance if one doesn't exist
+	 * Synchronized so that startup phases running in parallel share one connection
 	 *
 	 * @return the singleton DBManager instance
 	 * @throws SQLException if a database access error occurs
 	 */
-	public static DBManager getInstance() throws SQLException {
+	public static synchronized DBManager getInstance() throws SQLException {
 		if (m_dbManager == null) {
 			m_dbManager = new DBManager();
 		}
@@ -304,14 +544,34 @@ public class DBManager {
 
 	/**
 	 * Get the database connection
-	 * Returns test connection if in test mode, otherwise returns regular connection
+	 * Returns test connection if in test mode, otherwise returns regular connection. The connection
+	 * is shared by every thread, so a caller must hold this manager's monitor for as long as it
+	 * uses it; {@link #runInTransaction(TransactionWork)} does that for it
 	 *
 	 * @return the Connection object for the database
 	 */
-	public Connection Connection() throws SQLException {
+	public synchronized Connection Connection() throws SQLException {
 		return isTestMode ? m_testConnection : m_connection;
 	}
 	
+	/**
+	 * Open an extra read-only connection to the database file for a parallel reader
+	 * The caller owns the connection and must close it
+	 *
+	 * @return a new read-only connection, or null in test mode, where the data lives only in memory
+	 * @throws SQLException if a database access error occurs
+	 */
+	public synchronized Connection openReaderConnection() throws SQLException {
+		if (isTestMode) {
+			return null;
+		}
+		// Readers must see everything the shared connection has written
+		m_connection.commit();
+		Properties properties = new Properties();
+		properties.setProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
+		return DriverManager.getConnection("jdbc:sqlite:" + m_dbPath, properties);
+	}
+
 	/**
 	 * Check if the system is currently in test mode
 	 *
@@ -322,32 +582,53 @@ public class DBManager {
 	}
 
 	/**
-	 * Enter test mode with an in-memory database
-	 * Creates a temporary database with the same schema as the real database
-	 * and populates it with sample test data
+	 * Enter test mode with an in-memory copy of the live database
+	 * Anonymization is enabled with -Ddealership.testmode.anonymize=true
 	 *
 	 * @throws SQLException if a database access error occurs
 	 */
 	public void enterTestMode() throws SQLException {
+		enterTestMode(Boolean.getBoolean("dealership.testmode.anonymize"));
+	}
+
+	/**
+	 * Enter test mode with an in-memory copy of the live database
+	 * The copy is made page by page with SQLite's online backup API, so it starts from the real
+	 * schema and data at memory speed instead of recreating tables and rows statement by statement
+	 *
+	 * @param anonymize - true to replace employee and buyer details in the copy with placeholders
+	 * @throws SQLException if a database access error occurs
+	 */
+	public synchronized void enterTestMode(boolean anonymize) throws SQLException {
 		if (isTestMode) {
 			System.out.println("Already in test mode");
 			return; // Already in test mode
 		}
 		
 		System.out.println("Entering test mode with in-memory database");
+		long start = System.nanoTime();
+		
+		// Make sure nothing pending on the live connection is missed by the copy
+		m_connection.commit();
 		
-		// Create in-memory database
+		// Restore runs outside a transaction, so autocommit stays on until the copy is complete
 		m_testConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+		try (Statement stmt = m_testConnection.createStatement()) {
+			stmt.executeUpdate("restore from '" + new File(m_dbPath).getAbsolutePath().replace("'", "''") + "'");
+		} catch (SQLException e) {
+			m_testConnection.close();
+			m_testConnection = null;
+			throw e;
+		}
 		m_testConnection.setAutoCommit(false);
 		
-		// Copy schema from real database to in-memory database
-		copySchemaToTestDB();
-		
-		// Generate sample test data
-		generateTestData();
+		if (anonymize) {
+			anonymizeTestData();
+		}
+		addTrainingAccounts();
 		
 		isTestMode = true;
-		System.out.println("Test mode activated successfully");
+		System.out.printf("Test mode activated successfully in %.1f ms%n", (System.nanoTime() - start) / 1e6);
 	}
 	
 	/**
@@ -355,7 +636,7 @@ public class DBManager {
 	 *
 	 * @throws SQLException if a database access error occurs
 	 */
-	public void exitTestMode() throws SQLException {
+	public synchronized void exitTestMode() throws SQLException {
 		if (!isTestMode) {
 			System.out.println("Not in test mode");
 			return; // Not in test mode
@@ -374,96 +655,47 @@ public class DBManager {
 	}
 	
 	/**
-	 * Copy schema from the real database to the test in-memory database
+	 * Replace personal details in the test copy with placeholders derived from row IDs
 	 * 
 	 * @throws SQLException if a database access error occurs
 	 */
-	private void copySchemaToTestDB() throws SQLException {
-		System.out.println("Copying database schema to test database");
-		
-		// Get the schema from the main database
-		ResultSet tables = m_connection.getMetaData().getTables(null, null, null, new String[]{"TABLE"});
-		
-		while (tables.next()) {
-			String tableName = tables.getString("TABLE_NAME");
-			
-			// Skip system tables
-			if (tableName.startsWith("sqlite_")) {
-				continue;
-			}
-			
-			System.out.println("Copying table structure: " + tableName);
-			
-			// Get the CREATE TABLE statement
-			ResultSet rs = m_connection.createStatement().executeQuery(
-					"SELECT sql FROM sqlite_master WHERE type='table' AND name='" + tableName + "'");
-			
-			if (rs.next()) {
-				String createTableSQL = rs.getString("sql");
-				if (createTableSQL != null) {
-					// Create the table in the test database
-					m_testConnection.createStatement().execute(createTableSQL);
-				}
-			}
+	private void anonymizeTestData() throws SQLException {
+		System.out.println("Anonymizing test data");
+		try (Statement stmt = m_testConnection.createStatement()) {
+			stmt.executeUpdate("UPDATE users SET name = 'Employee ' || user_id, "
+					+ "email = 'employee' || user_id || '@example.com', "
+					+ "phone = '555-' || printf('%03d', user_id / 10000 % 1000) || '-' || printf('%04d', user_id % 10000)");
+			stmt.executeUpdate("UPDATE Sales SET buyer_name = 'Buyer ' || sale_id, "
+					+ "buyer_contact = 'buyer' || sale_id || '@example.com'");
+			stmt.executeUpdate("DELETE FROM password_reset_requests");
 		}
-		
 		m_testConnection.commit();
-		System.out.println("Schema copied successfully");
 	}
 	
 	/**
-	 * Generate test data for the in-memory database
+	 * Add the known training logins to the test copy unless their usernames are already taken
 	 * 
 	 * @throws SQLException if a database access error occurs
 	 */
-	private void generateTestData() throws SQLException {
-		System.out.println("Generating test data");
-		
-		// Create test admin
-		m_testConnection.createStatement().execute(
-				"INSERT INTO users (username, password, role_id, name, email, phone, is_active, is_temp_password) " +
-				"VALUES ('testadmin', 'test123', 1, 'Test Admin', 'testadmin@example.com', '555-000-0000', 1, 0)");
-		
-		// Create test manager
-		m_testConnection.createStatement().execute(
-				"INSERT INTO users (username, password, role_id, name, email, phone, is_active, is_temp_password) " +
-				"VALUES ('testmanager', 'test123', 2, 'Test Manager', 'testmanager@example.com', '555-000-0001', 1, 0)");
-		
-		// Create test salesperson
-		m_testConnection.createStatement().execute(
-				"INSERT INTO users (username, password, role_id, name, email, phone, is_active, is_temp_password) " +
-				"VALUES ('testsales', 'test123', 3, 'Test Salesperson', 'testsales@example.com', '555-000-0002', 1, 0)");
-		
-		// Create test dealership
-		m_testConnection.createStatement().execute(
-				"INSERT INTO dealerships (name, location, capacity) VALUES ('Test Dealership', 'Test Location', 50)");
-		
-		// Create sample vehicles (cars and motorcycles)
-		// Cars
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Vehicle (make, model, color, year, price, car_type, dealerships_id) " +
-				"VALUES ('Honda', 'Civic', 'Red', 2022, 25000, 'Sedan', 1)");
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Vehicle (make, model, color, year, price, car_type, dealerships_id) " +
-				"VALUES ('Toyota', 'Camry', 'Blue', 2021, 30000, 'Sedan', 1)");
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Vehicle (make, model, color, year, price, car_type, dealerships_id) " +
-				"VALUES ('Ford', 'F-150', 'Black', 2023, 45000, 'Truck', 1)");
-		
-		// Motorcycles
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Vehicle (make, model, color, year, price, handlebar_type, dealerships_id) " +
-				"VALUES ('Harley-Davidson', 'Street 750', 'Black', 2022, 8000, 'Cruiser', 1)");
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Vehicle (make, model, color, year, price, handlebar_type, dealerships_id) " +
-				"VALUES ('Yamaha', 'YZF R1', 'Blue', 2023, 12000, 'Sport', 1)");
-		
-		// Create sample sales
-		m_testConnection.createStatement().execute(
-				"INSERT INTO Sales (vehicle_id, user_id, buyer_name, buyer_contact, sale_date) " +
-				"VALUES (2, 3, 'John Doe', 'john@example.com', '2023-01-15 14:30:00')");
-		
+	private void addTrainingAccounts() throws SQLException {
+		String[][] accounts = {
+			{ "testadmin", "Admin", "Test Admin", "testadmin@example.com", "555-000-0000" },
+			{ "testmanager", "Manager", "Test Manager", "testmanager@example.com", "555-000-0001" },
+			{ "testsales", "Salesperson", "Test Salesperson", "testsales@example.com", "555-000-0002" }
+		};
+		try (var stmt = m_testConnection.prepareStatement(
+				"INSERT OR IGNORE INTO users (username, password, role_id, name, email, phone, is_active) "
+				+ "SELECT ?, 'test123', role_id, ?, ?, ?, 1 FROM roles WHERE role_name = ?")) {
+			for (String[] account : accounts) {
+				stmt.setString(1, account[0]);
+				stmt.setString(2, account[2]);
+				stmt.setString(3, account[3]);
+				stmt.setString(4, account[4]);
+				stmt.setString(5, account[1]);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		}
 		m_testConnection.commit();
-		System.out.println("Test data generation complete");
 	}
 }
\ No newline at end of file
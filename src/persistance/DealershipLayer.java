@@ -25,6 +25,9 @@ public class DealershipLayer implements Serializable {
 
 	private int dealershipId;
 
+	// Name, location and capacity are only read from the database when first asked for
+	private boolean m_detailsLoaded;
+
 	/**
 	 * Default constructor for the DealershipLayer class
 	 */
@@ -44,19 +47,26 @@ public class DealershipLayer implements Serializable {
 		m_name = name;
 		m_location = location;
 		m_capacity = capacity;
+		m_detailsLoaded = true;
 		this.dealershipId = 1;
 
 		String query = "INSERT INTO dealerships (name, location, capacity) VALUES (?, ?, ?)";
-        PreparedStatement statement = DBManager.getInstance().Connection().prepareStatement(query, java.sql.Statement.RETURN_GENERATED_KEYS);
-        statement.setString(1, name);
-        statement.setString(2, location);
-        statement.setInt(3, capacity);
-        statement.executeUpdate();
+        int[] generatedId = { dealershipId };
+        DBManager.getInstance().runInTransaction(conn -> {
+            try (PreparedStatement statement = conn.prepareStatement(query, java.sql.Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, name);
+                statement.setString(2, location);
+                statement.setInt(3, capacity);
+                statement.executeUpdate();
 
-        ResultSet generatedKeys = statement.getGeneratedKeys();
-        if (generatedKeys.next()) {
-            this.dealershipId = generatedKeys.getInt(1);
-        }
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        generatedId[0] = generatedKeys.getInt(1);
+                    }
+                }
+            }
+        });
+        this.dealershipId = generatedId[0];
     }
 
     /**
@@ -70,46 +80,89 @@ public class DealershipLayer implements Serializable {
 
 	/**
 	 * Check if a dealership record exists in the database
-	 * If found, sets the local attributes to match the database record
+	 * If found, binds to the most recent record by ID; its name, location and capacity are loaded
+	 * the first time one of them is asked for. The schema itself is checked once by {@link DBManager}
+	 * when it opens the database, so no table probes are needed here
 	 *
 	 * @return true if a dealership record exists, false otherwise
 	 * @throws SQLException if a database access error occurs
 	 */
 	public boolean existsAndSet() throws SQLException {
 		try {
-			var resultSet = DBManager.getInstance().runQuery("SELECT * FROM dealerships");
-			boolean dealershipFound = false;
-	
-			while (resultSet.next()) {
-				dealershipFound = true;
-				m_name = resultSet.getString("name");
-				m_location = resultSet.getString("location");
-				m_capacity = resultSet.getInt("capacity");
-				
-				// Check if we have any missing tables
-				try {
-					DBManager.getInstance().runQuery("SELECT * FROM users LIMIT 1");
-					DBManager.getInstance().runQuery("SELECT * FROM roles LIMIT 1");
-				} catch (SQLException e) {
-					// Tables missing - we'll create them in DBManager
-					System.out.println("Notice: Some database tables may be missing: " + e.getMessage());
+			DBManager db = DBManager.getInstance();
+			if (!db.hasTable("users") || !db.hasTable("roles")) {
+				System.out.println("Notice: Some database tables are missing");
+				return false;
+			}
+			try (ResultSet resultSet = db.runQuery("SELECT id FROM dealerships ORDER BY id DESC LIMIT 1")) {
+				if (!resultSet.next()) {
 					return false;
 				}
+				dealershipId = resultSet.getInt("id");
+				m_detailsLoaded = false;
+				return true;
 			}
-	
-			return dealershipFound;
 		} catch (SQLException e) {
 			System.out.println("Error checking for dealership: " + e.getMessage());
 			return false;
 		}
 	}
 
+	/**
+	 * Find the most recent dealership record with the given name and location, creating it only if
+	 * there is none
+	 * Used when a dealership restored from save.data has to be tied back to its row
+	 *
+	 * @param name - the name of the dealership
+	 * @param location - the location of the dealership
+	 * @param capacity - the inventory capacity, used if a record has to be created
+	 * @return the layer bound to the found or new record
+	 * @throws SQLException if a database access error occurs
+	 */
+	public static DealershipLayer findOrCreate(String name, String location, int capacity) throws SQLException {
+		try (ResultSet resultSet = DBManager.getInstance().runQuery(
+				"SELECT id, capacity FROM dealerships WHERE name = ? AND location = ? ORDER BY id DESC LIMIT 1",
+				name, location)) {
+			if (resultSet.next()) {
+				DealershipLayer layer = new DealershipLayer();
+				layer.dealershipId = resultSet.getInt("id");
+				layer.m_name = name;
+				layer.m_location = location;
+				layer.m_capacity = resultSet.getInt("capacity");
+				layer.m_detailsLoaded = true;
+				return layer;
+			}
+		}
+		return new DealershipLayer(name, location, capacity);
+	}
+
+	/**
+	 * Read the name, location and capacity of the bound record on first use
+	 */
+	private void loadDetails() {
+		if (m_detailsLoaded || dealershipId == 0) {
+			return;
+		}
+		try (ResultSet resultSet = DBManager.getInstance().runQuery(
+				"SELECT name, location, capacity FROM dealerships WHERE id = ?", dealershipId)) {
+			if (resultSet.next()) {
+				m_name = resultSet.getString("name");
+				m_location = resultSet.getString("location");
+				m_capacity = resultSet.getInt("capacity");
+			}
+			m_detailsLoaded = true;
+		} catch (SQLException e) {
+			System.out.println("Error loading dealership details: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Getter method for the dealership name
 	 *
 	 * @return the name of the dealership
 	 */
 	public String getNname() {
+		loadDetails();
 		return m_name;
 	}
 
@@ -119,6 +172,7 @@ public class DealershipLayer implements Serializable {
 	 * @return the location of the dealership
 	 */
 	public String getLocation() {
+		loadDetails();
 		return m_location;
 	}
 
@@ -128,6 +182,7 @@ public class DealershipLayer implements Serializable {
 	 * @return the inventory capacity of the dealership
 	 */
 	public int getCapacity() {
+		loadDetails();
 		return m_capacity;
 	}
 }